@@ -1,24 +1,38 @@
 package com.app2.productsCatalog.controller;
 
+import java.time.Instant;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.app2.productsCatalog.domain.chart.Chart;
+import com.app2.productsCatalog.domain.chart.ClientSummaryPage;
+import com.app2.productsCatalog.domain.chart.ClientSummarySort;
 import com.app2.productsCatalog.domain.chart.CreateChartDTO;
+import com.app2.productsCatalog.domain.chart.PurchaseHistoryPage;
 import com.app2.productsCatalog.domain.products.CreateProductDTO;
+import com.app2.productsCatalog.domain.products.ProductView;
 import com.app2.productsCatalog.domain.products.Products;
-import com.app2.productsCatalog.repository.ChartRepository.UserSummary;
+import com.app2.productsCatalog.domain.sales.LiveClientsReport;
+import com.app2.productsCatalog.domain.sales.SalesBucket;
+import com.app2.productsCatalog.domain.sales.SalesBucketSize;
+import com.app2.productsCatalog.domain.user.User;
+import com.app2.productsCatalog.infra.serialization.BinaryContentConfiguration;
 import com.app2.productsCatalog.service.ProductsService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -76,7 +90,8 @@ public class ProductsController {
             {
               "name": "Smartphone XYZ",
               "image_url": "https://exemplo.com/foto.jpg",
-              "price": 1999.99
+              "price": 1999.99,
+              "stock": 150
             }
             ```
             """
@@ -118,6 +133,12 @@ public class ProductsController {
             description = "Conflito - produto com mesmo nome já existe"
         )
     })
+    @Parameter(
+        in = ParameterIn.HEADER,
+        name = "Idempotency-Key",
+        description = "Chave opcional; repetições com a mesma chave recebem a resposta original sem nova execução",
+        example = "4f1c2b7e-9a1d-4c55-8a0e-2f6d3b1c9e77"
+    )
     public ResponseEntity createProduct(
             @Parameter(
                 description = "Dados do produto a ser criado",
@@ -136,7 +157,7 @@ public class ProductsController {
      * 
      * @return Lista de produtos ordenados por nome
      */
-    @GetMapping
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryContentConfiguration.APPLICATION_SMILE_VALUE })
     @Operation(
         summary = "Listar todos os produtos",
         description = """
@@ -146,6 +167,10 @@ public class ProductsController {
             
             A lista é retornada ordenada por nome do produto.
             
+            Além de JSON (padrão), a resposta pode vir em CBOR (`application/cbor`)
+            ou Smile (`application/x-jackson-smile`) conforme o header `Accept`,
+            com os mesmos campos.
+            
             Para acesso paginado ou filtrado, considere implementar parâmetros adicionais.
             """
     )
@@ -153,19 +178,33 @@ public class ProductsController {
         @ApiResponse(
             responseCode = "200",
             description = "Lista de produtos recuperada com sucesso",
-            content = @Content(
-                mediaType = "application/json",
-                array = @ArraySchema(
-                    schema = @Schema(implementation = Products.class)
+            content = {
+                @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(
+                        schema = @Schema(implementation = ProductView.class)
+                    )
+                ),
+                @Content(
+                    mediaType = MediaType.APPLICATION_CBOR_VALUE,
+                    array = @ArraySchema(
+                        schema = @Schema(implementation = ProductView.class)
+                    )
+                ),
+                @Content(
+                    mediaType = BinaryContentConfiguration.APPLICATION_SMILE_VALUE,
+                    array = @ArraySchema(
+                        schema = @Schema(implementation = ProductView.class)
+                    )
                 )
-            )
+            }
         ),
         @ApiResponse(
             responseCode = "204",
             description = "Nenhum produto encontrado"
         )
     })
-    public List<Products> produtcsReview() {
+    public List<ProductView> produtcsReview() {
         return service.showProducts();
     }
     
@@ -189,13 +228,16 @@ public class ProductsController {
             2. Calcula o valor total baseado na quantidade
             3. Associa ao usuário logado
             4. Atualiza o estoque (se aplicável)
+            5. Aplica promoções e cupom quando o produto é informado
             
             Exemplo de uso:
             ```json
             {
               "nome": "Smartphone XYZ",
               "total_value": 1999.99,
-              "qtd_itens": 1
+              "qtd_itens": 1,
+              "product_name": "Smartphone XYZ",
+              "coupon": "BLACKFRIDAY10"
             }
             ```
             """
@@ -229,6 +271,12 @@ public class ProductsController {
             description = "Quantidade solicitada maior que estoque disponível"
         )
     })
+    @Parameter(
+        in = ParameterIn.HEADER,
+        name = "Idempotency-Key",
+        description = "Chave opcional; repetições com a mesma chave recebem a resposta original sem nova execução",
+        example = "4f1c2b7e-9a1d-4c55-8a0e-2f6d3b1c9e77"
+    )
     public ResponseEntity addChart(
             @Parameter(
                 description = "Dados do item a ser adicionado ao carrinho",
@@ -241,13 +289,66 @@ public class ProductsController {
         return service.addProductsInChart(data);
     }
     
+    /**
+     * Lista o histórico de compras do usuário autenticado.
+     * Paginação por cursor (keyset) sobre (created_at, id), do mais recente ao mais antigo.
+     * 
+     * @param user Usuário autenticado
+     * @param cursor Cursor retornado pela página anterior (opcional)
+     * @param size Quantidade de itens por página (1-100)
+     * @return Página do histórico com o cursor da próxima página
+     */
+    @GetMapping("/chart/mine")
+    @Operation(
+        summary = "Histórico de compras do usuário",
+        description = """
+            Retorna os itens de carrinho do usuário autenticado, do mais recente para o mais antigo.
+            
+            Requer autenticação com role **USER** ou **ADMIN**.
+            
+            A paginação é feita por cursor: envie o `nextCursor` da resposta anterior
+            no parâmetro `cursor` para obter a página seguinte. Quando `nextCursor`
+            é nulo não há mais itens.
+            """
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Página do histórico recuperada com sucesso",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = PurchaseHistoryPage.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Cursor inválido"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Não autenticado"
+        )
+    })
+    public ResponseEntity purchaseHistory(
+            @AuthenticationPrincipal User user,
+            @Parameter(description = "Cursor da próxima página")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Itens por página (máximo 100)", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(service.showPurchaseHistory(user, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     /**
      * Obtém resumo das compras dos clientes.
      * Retorna dados agregados das compras realizadas pelos usuários.
      * 
-     * @return Lista de resumos de usuários com estatísticas de compras
+     * @return Página de resumos de usuários com o cursor da próxima página
      */
-    @GetMapping("/clients")
+    @GetMapping(value = "/clients", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryContentConfiguration.APPLICATION_SMILE_VALUE })
     @Operation(
         summary = "Obter resumo de clientes",
         description = """
@@ -262,22 +363,163 @@ public class ProductsController {
             - Valor total gasto
             
             Uso típico: Relatórios administrativos e análise de vendas.
+            
+            Ordenação e paginação são feitas no banco:
+            - `sort`: `TOTAL_VALUE` (padrão, maior gasto primeiro), `TOTAL_ITEMS` ou `LOGIN`
+            - `limit`: tamanho da página (máximo 1000); sem ele a resposta traz a lista completa, como antes
+            - `cursor`: `nextCursor` da resposta anterior
+            
+            Os clientes vêm em `items`; com `limit`, quando há mais clientes, `nextCursor`
+            traz o cursor da página seguinte. Quando `nextCursor` é nulo não há mais clientes.
+            
+            Assim como em `GET /product`, aceita CBOR ou Smile pelo header `Accept`.
             """
     )
     @ApiResponses({
         @ApiResponse(
             responseCode = "200",
             description = "Resumo de clientes recuperado com sucesso",
+            content = {
+                @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ClientSummaryPage.class)
+                ),
+                @Content(
+                    mediaType = MediaType.APPLICATION_CBOR_VALUE,
+                    schema = @Schema(implementation = ClientSummaryPage.class)
+                ),
+                @Content(
+                    mediaType = BinaryContentConfiguration.APPLICATION_SMILE_VALUE,
+                    schema = @Schema(implementation = ClientSummaryPage.class)
+                )
+            }
+        ),
+        @ApiResponse(
+            responseCode = "204",
+            description = "Nenhum cliente com compras encontrado"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Cursor inválido ou gerado para outra ordenação"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Não autenticado"
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Acesso negado - requer permissão de ADMIN"
+        )
+    })
+    public ResponseEntity<ClientSummaryPage> clientsReview(
+            @Parameter(description = "Critério de ordenação")
+            @RequestParam(defaultValue = "TOTAL_VALUE") ClientSummarySort sort,
+            @Parameter(description = "Quantidade de clientes na página (máximo 1000); omitido, retorna todos", example = "100")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Cursor da próxima página (nextCursor da resposta anterior)")
+            @RequestParam(required = false) String cursor){
+        ClientSummaryPage page;
+        try {
+            page = service.showClients(sort, limit, cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(page);
+    }
+    
+    /**
+     * Obtém as vendas agregadas por hora ou por dia em um período.
+     * Os dados vêm das tabelas de rollup, sem percorrer os itens de carrinho.
+     * 
+     * @param from Início do período (inclusivo)
+     * @param to Fim do período (exclusivo)
+     * @param bucket Granularidade dos intervalos
+     * @return Lista de intervalos com vendas, em ordem cronológica
+     */
+    @GetMapping("/sales")
+    @Operation(
+        summary = "Vendas por período",
+        description = """
+            Retorna as vendas agregadas em intervalos de uma hora ou um dia (UTC).
+            
+            Requer autenticação com role **ADMIN**.
+            
+            Os valores vêm de rollups atualizados periodicamente, podendo ter
+            alguns segundos de atraso em relação às vendas mais recentes.
+            Intervalos sem vendas não são retornados.
+            """
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Vendas recuperadas com sucesso",
             content = @Content(
                 mediaType = "application/json",
                 array = @ArraySchema(
-                    schema = @Schema(implementation = UserSummary.class)
+                    schema = @Schema(implementation = SalesBucket.class)
                 )
             )
         ),
         @ApiResponse(
-            responseCode = "204",
-            description = "Nenhum cliente com compras encontrado"
+            responseCode = "400",
+            description = "Período inválido"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Não autenticado"
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Acesso negado - requer permissão de ADMIN"
+        )
+    })
+    public ResponseEntity<List<SalesBucket>> salesReview(
+            @Parameter(description = "Início do período (ISO-8601)", example = "2024-01-15T00:00:00Z")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "Fim do período, exclusivo (ISO-8601)", example = "2024-01-16T00:00:00Z")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "Granularidade dos intervalos")
+            @RequestParam(defaultValue = "HOUR") SalesBucketSize bucket) {
+        if (!from.isBefore(to)) return ResponseEntity.badRequest().build();
+        return ResponseEntity.ok(service.showSales(from, to, bucket));
+    }
+    
+    /**
+     * Obtém estimativas em tempo real de compradores distintos e maiores compradores.
+     * Calculadas por sketches em memória (HyperLogLog e Space-Saving), sem consultar o banco.
+     * 
+     * @param hours Quantidade de horas consideradas, incluindo a atual
+     * @param top Quantidade de maiores compradores retornados
+     * @return Estimativas com seus limites de erro
+     */
+    @GetMapping("/clients/live")
+    @Operation(
+        summary = "Clientes em tempo real (aproximado)",
+        description = """
+            Retorna estimativas do número de compradores distintos e dos maiores
+            compradores nas últimas horas, com os respectivos limites de erro.
+            
+            Requer autenticação com role **ADMIN**.
+            
+            - `distinctBuyersRelativeError`: erro relativo padrão da contagem
+            - `estimatedValue` nunca é menor que o valor real; `guaranteedValue` nunca é maior
+            - `topSpendersMaxError`: superestimativa máxima de qualquer valor
+            
+            A janela é móvel e alinhada a horas UTC: a hora corrente mais as `hours - 1`
+            anteriores. Com `hours=24` não é o dia de calendário, e sim as últimas 24 horas;
+            o campo `from` indica onde a janela começa.
+            
+            Os dados refletem as vendas recebidas por esta instância desde a inicialização.
+            """
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Estimativas calculadas com sucesso",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = LiveClientsReport.class)
+            )
         ),
         @ApiResponse(
             responseCode = "401",
@@ -288,7 +530,11 @@ public class ProductsController {
             description = "Acesso negado - requer permissão de ADMIN"
         )
     })
-    public List<UserSummary> clientsReview(){
-        return service.showClients();
+    public LiveClientsReport liveClientsReview(
+            @Parameter(description = "Horas consideradas (1-48)", example = "24")
+            @RequestParam(defaultValue = "24") int hours,
+            @Parameter(description = "Quantidade de maiores compradores (1-100)", example = "10")
+            @RequestParam(defaultValue = "10") int top) {
+        return service.showLiveClients(hours, Math.max(1, Math.min(top, 100)));
     }
-}
\ No newline at end of file
+}
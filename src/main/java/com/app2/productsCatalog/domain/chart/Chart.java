@@ -1,11 +1,16 @@
 package com.app2.productsCatalog.domain.chart;
 
+import java.time.Instant;
 import java.util.UUID;
 
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UuidGenerator;
+
+import com.app2.productsCatalog.domain.money.Money;
+import com.app2.productsCatalog.infra.id.UuidV7Generator;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -27,7 +32,7 @@ public class Chart {
 		accessMode = Schema.AccessMode.READ_ONLY
 	)
 	@Id
-	@GeneratedValue(strategy = GenerationType.UUID)
+	@UuidGenerator(algorithm = UuidV7Generator.class)
 	private UUID id;
 	
 	@Schema(
@@ -52,10 +57,19 @@ public class Chart {
 		minimum = "0.0"
 	)
 	@Column(name = "total_value")
-	private Double totalValue;
+	private Money totalValue;
+
+	@Schema(
+		description = "Data e hora em que o item foi adicionado",
+		example = "2024-01-15T10:30:00Z",
+		accessMode = Schema.AccessMode.READ_ONLY
+	)
+	@CreationTimestamp
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private Instant createdAt;
 	
 
-	public Chart(UUID user_id, Double total_value, int qtd_itens) {
+	public Chart(UUID user_id, Money total_value, int qtd_itens) {
 		this.userId = user_id;
 		this.qtdItens = qtd_itens;
 		this.totalValue = total_value;
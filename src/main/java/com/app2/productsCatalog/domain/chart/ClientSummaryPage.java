@@ -0,0 +1,63 @@
+package com.app2.productsCatalog.domain.chart;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import com.app2.productsCatalog.repository.ChartRepository.UserSummary;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Página do relatório de clientes e o cursor da página seguinte.
+ */
+@Schema(description = "Página do relatório de clientes, paginada por cursor")
+public record ClientSummaryPage(
+
+    @Schema(description = "Clientes da página, na ordenação pedida")
+    List<UserSummary> items,
+
+    @Schema(
+        description = "Cursor para a próxima página; nulo quando não há mais clientes",
+        example = "VE9UQUxfVkFMVUV8MTIzZTQ1NjctZTg5Yi0xMmQzLWE0NTYtNDI2NjE0MTc0MDAwfDE1MC4wMA"
+    )
+    String nextCursor
+) {
+
+    /**
+     * Posição do último cliente entregue: critério de ordenação, valor da chave e id.
+     */
+    public record Cursor(ClientSummarySort sort, String value, UUID userId) {
+
+        public static Cursor after(ClientSummarySort sort, UserSummary last) {
+            String value = switch (sort) {
+                case TOTAL_VALUE -> last.getTotalValue().toString();
+                case TOTAL_ITEMS -> String.valueOf(last.getTotalItems());
+                case LOGIN -> last.getUserName();
+            };
+            return new Cursor(sort, value, last.getUserId());
+        }
+
+        public String encode() {
+            String raw = sort + "|" + userId + "|" + value;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @throws IllegalArgumentException se o cursor é inválido ou de outro critério de ordenação
+         */
+        public static Cursor decode(String cursor, ClientSummarySort expected) {
+            Cursor decoded;
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", 3);
+                decoded = new Cursor(ClientSummarySort.valueOf(parts[0]), parts[2], UUID.fromString(parts[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor inválido", e);
+            }
+            if (decoded.sort() != expected) throw new IllegalArgumentException("Cursor gerado para outra ordenação");
+            return decoded;
+        }
+    }
+}
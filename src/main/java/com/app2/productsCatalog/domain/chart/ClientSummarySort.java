@@ -0,0 +1,16 @@
+package com.app2.productsCatalog.domain.chart;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Critérios de ordenação do relatório de clientes")
+public enum ClientSummarySort {
+
+    @Schema(description = "Maior valor total gasto primeiro")
+    TOTAL_VALUE,
+
+    @Schema(description = "Maior quantidade de itens primeiro")
+    TOTAL_ITEMS,
+
+    @Schema(description = "Login em ordem alfabética")
+    LOGIN
+}
@@ -1,6 +1,11 @@
 package com.app2.productsCatalog.domain.chart;
 
+import java.math.BigDecimal;
+
+import com.app2.productsCatalog.domain.money.Money;
+
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -31,7 +36,8 @@ public record CreateChartDTO(
     )
     @NotNull(message = "O valor total é obrigatório")
     @PositiveOrZero(message = "O valor total não pode ser negativo")
-    Double total_value,
+    @Digits(integer = 8, fraction = 2, message = "O valor total deve ter no máximo duas casas decimais")
+    BigDecimal total_value,
     
     @Schema(
         description = "Quantidade total de itens no carrinho",
@@ -41,14 +47,26 @@ public record CreateChartDTO(
     )
     @NotNull(message = "A quantidade de itens é obrigatória")
     @Min(value = 0, message = "A quantidade de itens não pode ser negativa")
-    int qtd_itens
+    int qtd_itens,
+
+    @Schema(
+        description = "Nome do produto adicionado; quando informado, a quantidade é reservada do estoque",
+        example = "Smartphone XYZ"
+    )
+    String product_name,
+
+    @Schema(
+        description = "Código de cupom de desconto (opcional)",
+        example = "BLACKFRIDAY10"
+    )
+    String coupon
 ) {
 
     // Método de validação customizada (opcional)
     @Schema(hidden = true)
     public boolean isValid() {
         return nome != null && !nome.trim().isEmpty() 
-               && total_value != null && total_value >= 0 
+               && total_value != null && total_value.signum() >= 0 
                && qtd_itens >= 0;
     }
     
@@ -61,7 +79,8 @@ public record CreateChartDTO(
             null, // ID será gerado automaticamente
             java.util.UUID.randomUUID(), // Você precisa definir como obter o userId
             qtd_itens,
-            total_value
+            Money.of(total_value),
+            null // Data de criação preenchida na persistência
         );
     }
 }
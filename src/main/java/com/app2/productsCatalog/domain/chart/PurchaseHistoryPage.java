@@ -0,0 +1,49 @@
+package com.app2.productsCatalog.domain.chart;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import com.app2.productsCatalog.repository.ChartRepository.PurchaseHistoryEntry;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Página do histórico de compras do usuário, paginada por cursor")
+public record PurchaseHistoryPage(
+
+    @Schema(description = "Itens da página, do mais recente para o mais antigo")
+    List<PurchaseHistoryEntry> items,
+
+    @Schema(
+        description = "Cursor para a próxima página; nulo quando não há mais itens",
+        example = "MjAyNC0wMS0xNVQxMDozMDowMFp8MTIzZTQ1NjctZTg5Yi0xMmQzLWE0NTYtNDI2NjE0MTc0MDAw"
+    )
+    String nextCursor
+) {
+
+    /**
+     * Posição (created_at, id) do último item entregue, usada como chave da próxima página.
+     */
+    public record Cursor(Instant createdAt, UUID id) {
+
+        public String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @throws IllegalArgumentException se o cursor não foi gerado por {@link #encode()}
+         */
+        public static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new Cursor(Instant.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor inválido", e);
+            }
+        }
+    }
+}
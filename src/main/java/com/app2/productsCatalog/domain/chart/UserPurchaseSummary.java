@@ -0,0 +1,43 @@
+package com.app2.productsCatalog.domain.chart;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.app2.productsCatalog.domain.money.Money;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totais de compras por usuário, mantidos incrementalmente a cada item
+ * adicionado ao carrinho. Evita agregar toda a tabela {@code chart} no
+ * relatório de clientes.
+ */
+@Table(name = "user_purchase_summary")
+@Entity(name = "user_purchase_summary")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPurchaseSummary {
+
+	@Id
+	@Column(name = "user_id")
+	private UUID userId;
+
+	@Column(name = "total_items", nullable = false)
+	private long totalItems;
+
+	@Column(name = "total_value", nullable = false, precision = 14, scale = 2)
+	private Money totalValue;
+
+	@Column(name = "purchase_count", nullable = false)
+	private long purchaseCount;
+
+	@Column(name = "last_purchase_at")
+	private Instant lastPurchaseAt;
+}
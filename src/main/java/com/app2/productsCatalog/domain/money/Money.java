@@ -0,0 +1,84 @@
+package com.app2.productsCatalog.domain.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Valor monetário em reais representado em centavos ({@code long}).
+ *
+ * Substitui o uso de {@code Double} nos preços e totais. Não há aritmética
+ * aqui: quem soma ou multiplica (promoções, rollups, totais do carrinho)
+ * trabalha com o primitivo {@link #minorUnits()}, exato e sem boxing. É persistido como
+ * {@code DECIMAL(10,2)} pelo {@link MoneyConverter} e serializado em JSON como
+ * número decimal (ex.: {@code 1999.99}), mantendo o formato da API.
+ */
+@Schema(type = "number", format = "decimal", description = "Valor em reais (R$) com duas casas decimais", example = "1999.99")
+@JsonSerialize(using = MoneyJson.Serializer.class)
+@JsonDeserialize(using = MoneyJson.Deserializer.class)
+public final class Money implements Comparable<Money> {
+
+	public static final int SCALE = 2;
+
+	public static final Money ZERO = new Money(0);
+
+	private final long minorUnits;
+
+	private Money(long minorUnits) {
+		this.minorUnits = minorUnits;
+	}
+
+	public static Money ofMinor(long minorUnits) {
+		return minorUnits == 0 ? ZERO : new Money(minorUnits);
+	}
+
+	/**
+	 * Converte um decimal em centavos, arredondando meio para o par caso tenha
+	 * mais de duas casas decimais.
+	 */
+	public static Money of(BigDecimal value) {
+		if (value == null) return null;
+		return ofMinor(value.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact());
+	}
+
+	public static Money of(String value) {
+		return value == null ? null : of(new BigDecimal(value));
+	}
+
+	public long minorUnits() {
+		return minorUnits;
+	}
+
+	public BigDecimal toBigDecimal() {
+		return BigDecimal.valueOf(minorUnits, SCALE);
+	}
+
+	@Override
+	public int compareTo(Money other) {
+		return Long.compare(minorUnits, other.minorUnits);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof Money other && other.minorUnits == minorUnits;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(minorUnits);
+	}
+
+	/**
+	 * Representação decimal com duas casas (ex.: {@code -12.05}).
+	 */
+	@Override
+	public String toString() {
+		char[] buffer = new char[MoneyJson.MAX_LENGTH];
+		int length = MoneyJson.format(minorUnits, buffer);
+		return new String(buffer, 0, length);
+	}
+}
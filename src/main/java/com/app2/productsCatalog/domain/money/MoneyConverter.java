@@ -0,0 +1,23 @@
+package com.app2.productsCatalog.domain.money;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Mapeia {@link Money} para as colunas {@code DECIMAL(10,2)} existentes.
+ */
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+	@Override
+	public BigDecimal convertToDatabaseColumn(Money attribute) {
+		return attribute != null ? attribute.toBigDecimal() : null;
+	}
+
+	@Override
+	public Money convertToEntityAttribute(BigDecimal dbData) {
+		return Money.of(dbData);
+	}
+}
@@ -0,0 +1,94 @@
+package com.app2.productsCatalog.domain.money;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+/**
+ * Serialização JSON de {@link Money} como número decimal com duas casas.
+ * Os dígitos são escritos direto a partir dos centavos, sem passar por
+ * {@code double} nem {@code BigDecimal}. Nos formatos binários (CBOR, Smile),
+ * que não aceitam número como texto, o valor sai como decimal nativo.
+ */
+public final class MoneyJson {
+
+	static final int MAX_LENGTH = 24;
+
+	private MoneyJson() {
+	}
+
+	/**
+	 * Escreve {@code minorUnits} como decimal no buffer e retorna o tamanho escrito.
+	 */
+	static int format(long minorUnits, char[] buffer) {
+		int position = buffer.length;
+		// Trabalha com o valor negativo para suportar Long.MIN_VALUE
+		long value = minorUnits > 0 ? -minorUnits : minorUnits;
+		for (int i = 0; i < Money.SCALE; i++) {
+			buffer[--position] = (char) ('0' - (value % 10));
+			value /= 10;
+		}
+		buffer[--position] = '.';
+		do {
+			buffer[--position] = (char) ('0' - (value % 10));
+			value /= 10;
+		} while (value != 0);
+		if (minorUnits < 0) buffer[--position] = '-';
+		int length = buffer.length - position;
+		System.arraycopy(buffer, position, buffer, 0, length);
+		return length;
+	}
+
+	public static class Serializer extends StdScalarSerializer<Money> {
+
+		public Serializer() {
+			super(Money.class);
+		}
+
+		@Override
+		public void serialize(Money value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+			if (!gen.canWriteFormattedNumbers()) {
+				gen.writeNumber(value.toBigDecimal());
+				return;
+			}
+			char[] buffer = new char[MAX_LENGTH];
+			int length = format(value.minorUnits(), buffer);
+			gen.writeNumber(buffer, 0, length);
+		}
+	}
+
+	public static class Deserializer extends StdScalarDeserializer<Money> {
+
+		public Deserializer() {
+			super(Money.class);
+		}
+
+		@Override
+		public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+			JsonToken token = p.currentToken();
+			if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+				try {
+					return Money.of(p.getDecimalValue());
+				} catch (ArithmeticException e) {
+					return (Money) ctxt.handleWeirdNumberValue(Money.class, p.getNumberValue(), "out of range for a monetary value");
+				}
+			}
+			if (token == JsonToken.VALUE_STRING) {
+				String text = p.getText().trim();
+				if (text.isEmpty()) return null;
+				try {
+					return Money.of(text);
+				} catch (NumberFormatException | ArithmeticException e) {
+					return (Money) ctxt.handleWeirdStringValue(Money.class, text, "not a valid monetary value");
+				}
+			}
+			return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+		}
+	}
+}
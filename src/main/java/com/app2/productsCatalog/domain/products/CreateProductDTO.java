@@ -1,9 +1,13 @@
 package com.app2.productsCatalog.domain.products;
 
+import java.math.BigDecimal;
+
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 
 @Schema(description = "DTO para criação de produto")
 public record CreateProductDTO(
@@ -31,5 +35,13 @@ public record CreateProductDTO(
     )
     @NotNull
     @Positive
-    Double price
+    @Digits(integer = 8, fraction = 2)
+    BigDecimal price,
+
+    @Schema(
+        description = "Quantidade inicial em estoque (padrão 0)",
+        example = "150"
+    )
+    @PositiveOrZero
+    Integer stock
 ) {}
\ No newline at end of file
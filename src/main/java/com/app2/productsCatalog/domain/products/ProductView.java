@@ -0,0 +1,31 @@
+package com.app2.productsCatalog.domain.products;
+
+import java.util.UUID;
+
+import com.app2.productsCatalog.domain.money.Money;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Produto como exposto na listagem do catálogo. Montado direto da consulta
+ * ({@code SELECT new ...}), sem entidade gerenciada nem cópia para dirty checking.
+ */
+@Schema(description = "Produto do catálogo")
+public record ProductView(
+
+    @Schema(description = "ID único do produto (UUID)", example = "550e8400-e29b-41d4-a716-446655440000")
+    UUID id,
+
+    @Schema(description = "Nome do produto", example = "Smartphone XYZ")
+    String name,
+
+    @Schema(description = "URL da imagem do produto", example = "https://exemplo.com/imagens/smartphone-xyz.jpg")
+    String image_url,
+
+    @Schema(description = "Preço do produto em reais (R$)", example = "1299.99")
+    Money price,
+
+    @Schema(description = "Quantidade disponível em estoque", example = "150")
+    Integer stock
+) {
+}
@@ -7,12 +7,25 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.util.UUID;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.UuidGenerator;
+
+import com.app2.productsCatalog.domain.money.Money;
+import com.app2.productsCatalog.infra.cache.SecondLevelCacheConfiguration;
+import com.app2.productsCatalog.infra.id.UuidV7Generator;
+
 @Schema(
     description = "Entidade que representa um produto no catálogo",
     requiredProperties = {"name", "price"}
 )
 @Entity(name = "products")
 @Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfiguration.PRODUCTS)
+@NaturalIdCache(region = SecondLevelCacheConfiguration.PRODUCTS_BY_NAME)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,7 +37,7 @@ public class Products {
         accessMode = Schema.AccessMode.READ_ONLY
     )
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
     
     @Schema(
@@ -34,6 +47,7 @@ public class Products {
         maxLength = 200,
         required = true
     )
+    @NaturalId
     @Column(nullable = false, length = 200)
     private String name;
     
@@ -52,12 +66,25 @@ public class Products {
         required = true
     )
     @Column(nullable = false, precision = 10, scale = 2)
-    private Double price;
+    private Money price;
+
+    @Schema(
+        description = "Quantidade disponível em estoque",
+        example = "150",
+        minimum = "0"
+    )
+    @Column(nullable = false)
+    private Integer stock = 0;
     
     // Construtor SEM @Schema - não é permitido em construtores
-    public Products(String name, String image_url, Double price) {
+    public Products(String name, String image_url, Money price) {
         this.name = name;
         this.image_url = image_url;
         this.price = price;
     }
+
+    public Products(String name, String image_url, Money price, Integer stock) {
+        this(name, image_url, price);
+        this.stock = stock != null ? stock : 0;
+    }
 }
@@ -0,0 +1,66 @@
+package com.app2.productsCatalog.domain.promotion;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import com.app2.productsCatalog.domain.money.Money;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Regra de promoção ou cupom aplicada no cálculo do total do carrinho")
+@Table(name = "promotions")
+@Entity(name = "promotions")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class Promotion {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.UUID)
+	private UUID id;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private PromotionType type;
+
+	@Schema(description = "Produto ao qual a regra se aplica; nulo para regras do carrinho inteiro")
+	@Column(name = "product_id")
+	private UUID productId;
+
+	@Schema(description = "Código do cupom; quando informado, a regra só vale com o cupom")
+	@Column(name = "coupon_code")
+	private String couponCode;
+
+	@Column(precision = 5, scale = 2)
+	private BigDecimal percentage;
+
+	@Column(name = "discount_value", precision = 10, scale = 2)
+	private Money discountValue;
+
+	@Column(name = "threshold_value", precision = 10, scale = 2)
+	private Money thresholdValue;
+
+	@Column(name = "buy_quantity")
+	private Integer buyQuantity;
+
+	@Column(name = "free_quantity")
+	private Integer freeQuantity;
+
+	@Column(nullable = false)
+	private boolean active = true;
+
+	@Column(name = "updated_at", insertable = false, updatable = false)
+	private Instant updatedAt;
+}
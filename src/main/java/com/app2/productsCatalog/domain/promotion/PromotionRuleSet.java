@@ -0,0 +1,235 @@
+package com.app2.productsCatalog.domain.promotion;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.app2.productsCatalog.domain.money.Money;
+
+/**
+ * Conjunto imutável de promoções pré-compiladas a partir da tabela {@code promotions}.
+ *
+ * As regras ficam indexadas por produto, por código de cupom e, no caso das
+ * regras de valor mínimo, em vetores ordenados pelo limite com o melhor
+ * desconto acumulado. Avaliar um carrinho custa apenas uma busca em mapa e uma
+ * busca binária, independente de quantas regras estão ativas, e não aloca
+ * objetos. Todos os valores são tratados em centavos.
+ *
+ * Regras de produto não se acumulam entre si (vale a melhor); sobre o resultado
+ * aplica-se a melhor regra de valor mínimo e, por fim, o cupom informado.
+ * Regras de valor mínimo valem para o carrinho inteiro; uma {@code THRESHOLD}
+ * com {@code product_id} é recusada na compilação e contada em {@link #rejected()}.
+ */
+public final class PromotionRuleSet {
+
+	public static final PromotionRuleSet EMPTY = compile(List.of());
+
+	private static final int BASIS_POINTS = 10_000;
+
+	private final Map<UUID, ProductRules> byProduct;
+	private final Map<String, Coupon> coupons;
+
+	// Limites em ordem crescente e o maior desconto válido até cada posição
+	private final long[] fixedThresholds;
+	private final long[] fixedDiscounts;
+	private final long[] percentThresholds;
+	private final int[] percentDiscounts;
+
+	private final int size;
+	private final int rejected;
+
+	private PromotionRuleSet(Map<UUID, ProductRules> byProduct, Map<String, Coupon> coupons,
+			long[][] fixed, long[][] percent, int size, int rejected) {
+		this.byProduct = byProduct;
+		this.coupons = coupons;
+		this.fixedThresholds = fixed[0];
+		this.fixedDiscounts = prefixMax(fixed[1]);
+		this.percentThresholds = percent[0];
+		this.percentDiscounts = toInt(prefixMax(percent[1]));
+		this.size = size;
+		this.rejected = rejected;
+	}
+
+	/**
+	 * Calcula o total de uma linha do carrinho com todas as promoções aplicáveis.
+	 *
+	 * @param couponCode cupom informado pelo cliente, ou null
+	 * @return total em centavos, nunca inferior a um centavo quando há itens
+	 */
+	public long total(UUID productId, long unitPrice, int quantity, String couponCode) {
+		long gross = unitPrice * quantity;
+		if (gross <= 0) return gross;
+
+		long total = lineTotal(productId, unitPrice, quantity);
+		total = applyThresholds(total);
+		if (couponCode != null) total = applyCoupon(couponCode, productId, total);
+		return Math.max(total, 1);
+	}
+
+	long lineTotal(UUID productId, long unitPrice, int quantity) {
+		long gross = unitPrice * quantity;
+		ProductRules rules = byProduct.get(productId);
+		if (rules == null) return gross;
+
+		long best = gross - gross * rules.percent / BASIS_POINTS;
+		for (int i = 0; i < rules.buy.length; i++) {
+			int group = rules.buy[i] + rules.free[i];
+			long paid = quantity - (long) (quantity / group) * rules.free[i];
+			best = Math.min(best, paid * unitPrice);
+		}
+		return best;
+	}
+
+	long applyThresholds(long total) {
+		long discount = 0;
+		int fixed = floorIndex(fixedThresholds, total);
+		if (fixed >= 0) discount = fixedDiscounts[fixed];
+		int percent = floorIndex(percentThresholds, total);
+		if (percent >= 0) discount = Math.max(discount, total * percentDiscounts[percent] / BASIS_POINTS);
+		return total - discount;
+	}
+
+	long applyCoupon(String couponCode, UUID productId, long total) {
+		Coupon coupon = coupons.get(couponCode);
+		if (coupon == null) return total;
+		if (coupon.productId != null && !coupon.productId.equals(productId)) return total;
+		if (total < coupon.threshold) return total;
+		long discount = Math.max(coupon.discount, total * coupon.percent / BASIS_POINTS);
+		return total - discount;
+	}
+
+	public boolean hasCoupon(String couponCode) {
+		return coupons.containsKey(couponCode);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Promoções ativas descartadas por não caberem no modelo (limite com produto).
+	 */
+	public int rejected() {
+		return rejected;
+	}
+
+	/**
+	 * Compila as promoções ativas. Regras incompletas ou inativas são ignoradas.
+	 */
+	public static PromotionRuleSet compile(Collection<Promotion> promotions) {
+		Map<UUID, ProductRulesBuilder> products = new HashMap<>();
+		Map<String, Coupon> coupons = new HashMap<>();
+		List<long[]> fixed = new ArrayList<>();
+		List<long[]> percent = new ArrayList<>();
+		int size = 0;
+		int rejected = 0;
+
+		for (Promotion promotion : promotions) {
+			if (!promotion.isActive() || promotion.getType() == null) continue;
+			long threshold = cents(promotion.getThresholdValue());
+			long discount = cents(promotion.getDiscountValue());
+			int basisPoints = basisPoints(promotion.getPercentage());
+
+			if (promotion.getCouponCode() != null) {
+				if (promotion.getType() == PromotionType.BUY_X_GET_Y || (discount == 0 && basisPoints == 0)) continue;
+				coupons.put(promotion.getCouponCode(), new Coupon(promotion.getProductId(), basisPoints, discount, threshold));
+			} else if (promotion.getType() == PromotionType.BUY_X_GET_Y) {
+				Integer buy = promotion.getBuyQuantity();
+				Integer free = promotion.getFreeQuantity();
+				if (promotion.getProductId() == null || buy == null || free == null || buy <= 0 || free <= 0) continue;
+				products.computeIfAbsent(promotion.getProductId(), id -> new ProductRulesBuilder()).addBuyGet(buy, free);
+			} else if (promotion.getType() == PromotionType.PERCENTAGE && promotion.getProductId() != null) {
+				if (basisPoints == 0) continue;
+				products.computeIfAbsent(promotion.getProductId(), id -> new ProductRulesBuilder()).addPercent(basisPoints);
+			} else if (promotion.getType() == PromotionType.THRESHOLD && promotion.getProductId() != null) {
+				// Aplicá-la ao carrinho inteiro daria desconto em compras de outros produtos
+				rejected++;
+				continue;
+			} else {
+				// Regra do carrinho inteiro: PERCENTAGE sem produto equivale a limite zero
+				if (discount > 0) fixed.add(new long[] { threshold, discount });
+				else if (basisPoints > 0) percent.add(new long[] { threshold, basisPoints });
+				else continue;
+			}
+			size++;
+		}
+
+		Map<UUID, ProductRules> byProduct = new HashMap<>(products.size() * 2);
+		products.forEach((id, builder) -> byProduct.put(id, builder.build()));
+		return new PromotionRuleSet(Map.copyOf(byProduct), Map.copyOf(coupons), sorted(fixed), sorted(percent), size, rejected);
+	}
+
+	private static int floorIndex(long[] thresholds, long total) {
+		int index = Arrays.binarySearch(thresholds, total);
+		if (index >= 0) {
+			// Limites repetidos: avança até o último igual
+			while (index + 1 < thresholds.length && thresholds[index + 1] == total) index++;
+			return index;
+		}
+		return -index - 2;
+	}
+
+	private static long[][] sorted(List<long[]> rules) {
+		rules.sort((a, b) -> Long.compare(a[0], b[0]));
+		long[] thresholds = new long[rules.size()];
+		long[] discounts = new long[rules.size()];
+		for (int i = 0; i < rules.size(); i++) {
+			thresholds[i] = rules.get(i)[0];
+			discounts[i] = rules.get(i)[1];
+		}
+		return new long[][] { thresholds, discounts };
+	}
+
+	private static long[] prefixMax(long[] values) {
+		for (int i = 1; i < values.length; i++) {
+			values[i] = Math.max(values[i], values[i - 1]);
+		}
+		return values;
+	}
+
+	private static int[] toInt(long[] values) {
+		int[] result = new int[values.length];
+		for (int i = 0; i < values.length; i++) result[i] = (int) values[i];
+		return result;
+	}
+
+	private static long cents(Money value) {
+		return value != null ? value.minorUnits() : 0;
+	}
+
+	private static int basisPoints(BigDecimal percentage) {
+		return percentage != null ? percentage.movePointRight(2).intValue() : 0;
+	}
+
+	private record ProductRules(int percent, int[] buy, int[] free) {}
+
+	private record Coupon(UUID productId, int percent, long discount, long threshold) {}
+
+	private static final class ProductRulesBuilder {
+		private int percent;
+		private final List<int[]> buyGet = new ArrayList<>();
+
+		void addPercent(int basisPoints) {
+			percent = Math.max(percent, basisPoints);
+		}
+
+		void addBuyGet(int buy, int free) {
+			buyGet.add(new int[] { buy, free });
+		}
+
+		ProductRules build() {
+			int[] buy = new int[buyGet.size()];
+			int[] free = new int[buyGet.size()];
+			for (int i = 0; i < buy.length; i++) {
+				buy[i] = buyGet.get(i)[0];
+				free[i] = buyGet.get(i)[1];
+			}
+			return new ProductRules(percent, buy, free);
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package com.app2.productsCatalog.domain.promotion;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Tipos de promoção suportados")
+public enum PromotionType {
+
+    @Schema(description = "Percentual de desconto sobre o produto (ou sobre o carrinho, quando cupom sem produto)")
+    PERCENTAGE,
+
+    @Schema(description = "Leve X e ganhe Y unidades do mesmo produto")
+    BUY_X_GET_Y,
+
+    @Schema(description = "Desconto (valor fixo ou percentual) quando o total atinge um valor mínimo")
+    THRESHOLD
+}
@@ -0,0 +1,45 @@
+package com.app2.productsCatalog.domain.sales;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import com.app2.productsCatalog.domain.money.Money;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Estimativas em tempo real de compradores distintos e maiores compradores")
+public record LiveClientsReport(
+
+    @Schema(description = "Início da janela móvel considerada: início da hora UTC mais antiga incluída", example = "2024-01-14T11:00:00Z")
+    Instant from,
+
+    @Schema(description = "Fim da janela considerada (UTC)", example = "2024-01-15T10:31:12Z")
+    Instant to,
+
+    @Schema(description = "Número estimado de compradores distintos", example = "1523")
+    long distinctBuyers,
+
+    @Schema(description = "Erro relativo padrão da contagem de compradores (ex.: 0.016 = 1,6%)", example = "0.016")
+    double distinctBuyersRelativeError,
+
+    @Schema(description = "Maiores compradores estimados, do maior para o menor")
+    List<TopSpender> topSpenders,
+
+    @Schema(description = "Superestimativa máxima possível de qualquer valor em topSpenders", example = "35.20")
+    Money topSpendersMaxError
+) {
+
+    @Schema(description = "Comprador com valor gasto estimado")
+    public record TopSpender(
+
+        @Schema(description = "ID do usuário", example = "987e6543-e21b-45d3-b456-426614174999")
+        UUID userId,
+
+        @Schema(description = "Valor estimado gasto na janela (nunca abaixo do real)", example = "5999.70")
+        Money estimatedValue,
+
+        @Schema(description = "Valor garantidamente gasto (estimativa menos o erro do contador)", example = "5950.00")
+        Money guaranteedValue
+    ) {}
+}
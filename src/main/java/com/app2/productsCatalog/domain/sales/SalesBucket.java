@@ -0,0 +1,23 @@
+package com.app2.productsCatalog.domain.sales;
+
+import java.time.Instant;
+
+import com.app2.productsCatalog.domain.money.Money;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Vendas agregadas em um intervalo de tempo")
+public record SalesBucket(
+
+    @Schema(description = "Início do intervalo (UTC)", example = "2024-01-15T10:00:00Z")
+    Instant bucketStart,
+
+    @Schema(description = "Quantidade de itens de carrinho registrados", example = "42")
+    long orders,
+
+    @Schema(description = "Quantidade total de unidades vendidas", example = "57")
+    long items,
+
+    @Schema(description = "Valor total vendido em reais (R$)", example = "12999.90")
+    Money totalValue
+) {}
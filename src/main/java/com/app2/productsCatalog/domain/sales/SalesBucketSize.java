@@ -0,0 +1,27 @@
+package com.app2.productsCatalog.domain.sales;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Granularidade dos buckets de vendas (sempre em UTC)")
+public enum SalesBucketSize {
+
+    @Schema(description = "Buckets de uma hora")
+    HOUR(ChronoUnit.HOURS),
+
+    @Schema(description = "Buckets de um dia")
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    SalesBucketSize(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    @Schema(hidden = true)
+    public Instant bucketStart(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+}
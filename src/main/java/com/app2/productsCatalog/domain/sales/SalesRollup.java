@@ -0,0 +1,36 @@
+package com.app2.productsCatalog.domain.sales;
+
+import com.app2.productsCatalog.domain.money.Money;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totais de vendas pré-agregados por hora e por dia, alimentados pelo
+ * {@code SalesRollupService}. Os painéis consultam esta tabela em vez de
+ * percorrer as linhas de {@code chart}.
+ */
+@Table(name = "sales_rollups")
+@Entity(name = "sales_rollups")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SalesRollup {
+
+	@EmbeddedId
+	private SalesRollupId id;
+
+	@Column(nullable = false)
+	private long orders;
+
+	@Column(nullable = false)
+	private long items;
+
+	@Column(name = "total_value", nullable = false, precision = 16, scale = 2)
+	private Money totalValue;
+}
@@ -0,0 +1,26 @@
+package com.app2.productsCatalog.domain.sales;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SalesRollupId implements Serializable {
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private SalesBucketSize granularity;
+
+	@Column(name = "bucket_start", nullable = false)
+	private Instant bucketStart;
+}
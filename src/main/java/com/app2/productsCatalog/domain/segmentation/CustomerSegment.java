@@ -0,0 +1,37 @@
+package com.app2.productsCatalog.domain.segmentation;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Segmentos de clientes derivados das notas RFM (recência, frequência e valor, de 1 a 5).
+ */
+@Schema(description = "Segmento RFM do cliente")
+public enum CustomerSegment {
+
+    @Schema(description = "Compram com frequência, recentemente e gastam muito")
+    CHAMPIONS,
+
+    @Schema(description = "Compram com frequência")
+    LOYAL,
+
+    @Schema(description = "Clientes recentes com poucas compras")
+    NEW,
+
+    @Schema(description = "Eram frequentes mas não compram há algum tempo")
+    AT_RISK,
+
+    @Schema(description = "Pouco frequentes e sem compras recentes")
+    HIBERNATING,
+
+    @Schema(description = "Demais clientes")
+    REGULAR;
+
+    public static CustomerSegment classify(int recency, int frequency, int monetary) {
+        if (recency >= 4 && frequency >= 4 && monetary >= 4) return CHAMPIONS;
+        if (recency <= 2 && frequency >= 3) return AT_RISK;
+        if (recency <= 2) return HIBERNATING;
+        if (frequency >= 4) return LOYAL;
+        if (recency >= 4 && frequency <= 1) return NEW;
+        return REGULAR;
+    }
+}
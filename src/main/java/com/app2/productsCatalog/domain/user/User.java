@@ -4,17 +4,24 @@ import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.UuidGenerator;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.app2.productsCatalog.infra.cache.SecondLevelCacheConfiguration;
+import com.app2.productsCatalog.infra.id.UuidV7Generator;
+
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -40,6 +47,9 @@ import lombok.NoArgsConstructor;
  */
 @Table(name = "users")
 @Entity(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfiguration.USERS)
+@NaturalIdCache(region = SecondLevelCacheConfiguration.USERS_BY_LOGIN)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -81,25 +91,25 @@ public class User implements UserDetails {
     
     /**
      * Identificador único universal do usuário.
-     * Gerado automaticamente pelo banco de dados usando o padrão UUID.
+     * Gerado pela aplicação como UUID versão 7 (ordenado pelo instante de criação).
      * 
      * Este campo é a chave primária da entidade e garante unicidade
      * mesmo em sistemas distribuídos ou com alta concorrência.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     @Schema(
         description = """
             Identificador único universal (UUID) do usuário.
             
             ### Características:
-            - Gerado automaticamente pelo banco de dados
+            - Gerado automaticamente pela aplicação
             - Garante unicidade global
             - Imutável após criação
             - Utilizado como chave primária
             
             ### Formato:
-            Versão 4 do UUID (aleatório)
+            Versão 7 do UUID (ordenado pelo instante de criação)
             """,
         example = "123e4567-e89b-12d3-a456-426614174000",
         requiredMode = Schema.RequiredMode.REQUIRED,
@@ -131,6 +141,7 @@ public class User implements UserDetails {
         requiredMode = Schema.RequiredMode.REQUIRED,
         maxLength = 255
     )
+    @NaturalId
     private String login;
     
     /**
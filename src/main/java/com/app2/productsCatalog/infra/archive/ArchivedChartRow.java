@@ -0,0 +1,8 @@
+package com.app2.productsCatalog.infra.archive;
+
+import java.util.UUID;
+
+/**
+ * Linha de {@code chart} no formato gravado nos segmentos de arquivo morto.
+ */
+public record ArchivedChartRow(UUID id, UUID userId, int qtdItens, long totalValueMinorUnits, long createdAtMillis) {}
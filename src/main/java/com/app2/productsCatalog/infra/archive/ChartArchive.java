@@ -0,0 +1,168 @@
+package com.app2.productsCatalog.infra.archive;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Segmentos do arquivo morto de {@code chart} e seu catálogo.
+ *
+ * Só os segmentos registrados em {@code chart_archive_segments} fazem parte do
+ * arquivo: o registro é gravado na mesma transação que remove as linhas de
+ * {@code chart}, então um arquivo sem registro é resto de uma transação que
+ * não confirmou e pode ser descartado.
+ *
+ * Os segmentos ficam só em disco, em {@code archive.chart.directory}; o banco
+ * guarda apenas o catálogo e o nó dono de cada arquivo ({@code archive.chart.node}).
+ * Com mais de um nó, o diretório deve ser um volume compartilhado para que
+ * todos leiam o arquivo inteiro. Um segmento que este nó não alcança (outro
+ * nó sem volume compartilhado, nó desativado, arquivo ilegível) é pulado e
+ * informado em {@link ArchiveTotals#unreachable()}, e quem consome os totais
+ * decide se pode seguir sem ele.
+ */
+@Component
+public class ChartArchive {
+
+	private static final Logger log = LoggerFactory.getLogger(ChartArchive.class);
+
+	public static final String SEGMENT_SUFFIX = ".seg";
+
+	public record UserTotals(long items, long valueMinorUnits, long purchases, long lastPurchaseMillis) {
+
+		UserTotals plus(UserTotals other) {
+			return new UserTotals(items + other.items, valueMinorUnits + other.valueMinorUnits,
+					purchases + other.purchases, Math.max(lastPurchaseMillis, other.lastPurchaseMillis));
+		}
+	}
+
+	/**
+	 * Totais dos segmentos lidos e os segmentos do catálogo que ficaram de fora.
+	 */
+	public record ArchiveTotals(Map<UUID, UserTotals> byUser, List<String> unreachable) {
+
+		public boolean isComplete() {
+			return unreachable.isEmpty();
+		}
+	}
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final Path directory;
+
+	private final String node;
+
+	public ChartArchive(@Value("${archive.chart.directory:data/chart-archive}") String directory,
+			@Value("${archive.chart.node:${HOSTNAME:local}}") String node) {
+		this.directory = Paths.get(directory);
+		// O nome do nó entra no nome dos arquivos
+		this.node = node.replaceAll("[^A-Za-z0-9_.-]", "_");
+	}
+
+	public Path directory() {
+		return directory;
+	}
+
+	public Path path(String fileName) {
+		return directory.resolve(fileName);
+	}
+
+	/**
+	 * Nome para um novo segmento deste nó.
+	 */
+	public String newSegmentName() {
+		return filePrefix() + UUID.randomUUID() + SEGMENT_SUFFIX;
+	}
+
+	public List<String> segments() {
+		return jdbcTemplate.queryForList("SELECT file_name FROM chart_archive_segments ORDER BY file_name", String.class);
+	}
+
+	public boolean isEmpty() {
+		return !Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM chart_archive_segments)", Boolean.class));
+	}
+
+	/**
+	 * Registra um segmento já gravado no diretório, tendo este nó como dono.
+	 * Deve rodar na transação que remove as linhas arquivadas.
+	 */
+	public void register(String fileName) throws IOException {
+		ChartSegmentReader segment = new ChartSegmentReader(path(fileName));
+		jdbcTemplate.update("""
+				INSERT INTO chart_archive_segments (file_name, row_count, min_created_at, max_created_at, node)
+				VALUES (?, ?, ?, ?, ?)
+				""", fileName, segment.rows(), new Timestamp(segment.minCreatedAt()), new Timestamp(segment.maxCreatedAt()), node);
+	}
+
+	/**
+	 * Totais por usuário somando os segmentos do catálogo que este nó consegue ler.
+	 */
+	public ArchiveTotals totalsByUser() {
+		Map<UUID, UserTotals> totals = new HashMap<>();
+		List<String> unreachable = new ArrayList<>();
+		for (Map<String, Object> segment : jdbcTemplate.queryForList(
+				"SELECT file_name, node FROM chart_archive_segments ORDER BY file_name")) {
+			String fileName = (String) segment.get("file_name");
+			Path path = path(fileName);
+			if (!Files.exists(path)) {
+				log.warn("Chart archive segment {} (node {}) is not reachable from {}", fileName, segment.get("node"), directory);
+				unreachable.add(fileName);
+				continue;
+			}
+			try {
+				new ChartSegmentReader(path).forEachUserTotal((userId, items, value, purchases, last) ->
+						totals.merge(userId, new UserTotals(items, value, purchases, last), UserTotals::plus));
+			} catch (IOException e) {
+				log.warn("Skipping unreadable chart archive segment {}: {}", fileName, e.getMessage());
+				unreachable.add(fileName);
+			}
+		}
+		return new ArchiveTotals(totals, List.copyOf(unreachable));
+	}
+
+	/**
+	 * Remove arquivos temporários e segmentos deste nó que não chegaram ao
+	 * catálogo. Arquivos de outros nós são mantidos: em um diretório
+	 * compartilhado eles podem pertencer a um arquivamento em andamento.
+	 * Só deve ser chamado quando nenhum arquivamento está em andamento neste nó.
+	 */
+	public int removeOrphans() throws IOException {
+		if (!Files.isDirectory(directory)) return 0;
+		Set<String> registered = new HashSet<>(segments());
+		int removed = 0;
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				String name = file.getFileName().toString();
+				if (!name.startsWith(filePrefix())) continue;
+				boolean orphan = name.endsWith(SEGMENT_SUFFIX + ".tmp")
+						|| (name.endsWith(SEGMENT_SUFFIX) && !registered.contains(name));
+				if (orphan && Files.deleteIfExists(file)) {
+					log.warn("Removed orphan chart archive file {}", file);
+					removed++;
+				}
+			}
+		}
+		return removed;
+	}
+
+	private String filePrefix() {
+		return "chart-" + node + "-";
+	}
+}
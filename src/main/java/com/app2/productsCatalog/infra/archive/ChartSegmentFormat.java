@@ -0,0 +1,27 @@
+package com.app2.productsCatalog.infra.archive;
+
+/**
+ * Layout binário dos segmentos de arquivo morto (big-endian).
+ *
+ * <pre>
+ * magic:int  version:int  rows:int  minCreatedAt:long  maxCreatedAt:long
+ * COLUMNS × (offset:long  compressedLength:int  rawLength:int)
+ * colunas comprimidas, na ordem dos índices abaixo
+ * </pre>
+ */
+final class ChartSegmentFormat {
+
+	static final int MAGIC = 0x43485347; // "CHSG"
+	static final int VERSION = 1;
+
+	static final int USERS = 0;
+	static final int CREATED_AT = 1;
+	static final int ITEMS = 2;
+	static final int VALUES = 3;
+	static final int IDS = 4;
+	static final int COLUMNS = 5;
+
+	static final int HEADER_SIZE = 4 + 4 + 4 + 8 + 8 + COLUMNS * (8 + 4 + 4);
+
+	private ChartSegmentFormat() {}
+}
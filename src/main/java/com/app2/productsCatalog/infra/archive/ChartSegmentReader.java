@@ -0,0 +1,157 @@
+package com.app2.productsCatalog.infra.archive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Lê um segmento gravado por {@link ChartSegmentWriter} via memória mapeada.
+ *
+ * O arquivo é mapeado somente para leitura e cada coluna é descomprimida
+ * diretamente da região mapeada, sem cópia intermediária do arquivo. Agregações
+ * por usuário ({@link #forEachUserTotal}) não tocam a coluna de ids.
+ */
+public final class ChartSegmentReader {
+
+	public interface UserTotalsVisitor {
+		void visit(UUID userId, long items, long valueMinorUnits, long purchases, long lastPurchaseMillis);
+	}
+
+	private final Path path;
+	private final MappedByteBuffer mapped;
+	private final int rows;
+	private final long minCreatedAt;
+	private final long maxCreatedAt;
+
+	public ChartSegmentReader(Path path) throws IOException {
+		this.path = path;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			this.mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (mapped.capacity() < ChartSegmentFormat.HEADER_SIZE || mapped.getInt(0) != ChartSegmentFormat.MAGIC) {
+			throw new IOException("Not a chart archive segment: " + path);
+		}
+		if (mapped.getInt(4) != ChartSegmentFormat.VERSION) {
+			throw new IOException("Unsupported chart archive segment version " + mapped.getInt(4) + ": " + path);
+		}
+		this.rows = mapped.getInt(8);
+		this.minCreatedAt = mapped.getLong(12);
+		this.maxCreatedAt = mapped.getLong(20);
+		for (int index = 0; index < ChartSegmentFormat.COLUMNS; index++) {
+			int entry = 28 + index * 16;
+			long offset = mapped.getLong(entry);
+			int compressedLength = mapped.getInt(entry + 8);
+			if (offset < ChartSegmentFormat.HEADER_SIZE || compressedLength < 0 || mapped.getInt(entry + 12) < 0
+					|| offset + compressedLength > mapped.capacity()) {
+				throw new IOException("Truncated chart archive segment, column " + index + " out of bounds: " + path);
+			}
+		}
+	}
+
+	public int rows() {
+		return rows;
+	}
+
+	public long minCreatedAt() {
+		return minCreatedAt;
+	}
+
+	public long maxCreatedAt() {
+		return maxCreatedAt;
+	}
+
+	/**
+	 * Totais de cada usuário presente no segmento (itens, valor, compras e data da última compra).
+	 */
+	public void forEachUserTotal(UserTotalsVisitor visitor) throws IOException {
+		ByteBuffer users = column(ChartSegmentFormat.USERS);
+		ByteBuffer createdAt = column(ChartSegmentFormat.CREATED_AT);
+		ByteBuffer items = column(ChartSegmentFormat.ITEMS);
+		ByteBuffer values = column(ChartSegmentFormat.VALUES);
+
+		int distinct = users.getInt();
+		ByteBuffer runs = users.duplicate().position(4 + distinct * 16);
+		long previous = 0;
+		for (int u = 0; u < distinct; u++) {
+			UUID userId = new UUID(users.getLong(), users.getLong());
+			long run = readVarint(runs);
+			long totalItems = 0, totalValue = 0, last = Long.MIN_VALUE;
+			for (long i = 0; i < run; i++) {
+				previous += unzigzag(readVarint(createdAt));
+				last = Math.max(last, previous);
+				totalItems += readVarint(items);
+				totalValue += unzigzag(readVarint(values));
+			}
+			visitor.visit(userId, totalItems, totalValue, run, last);
+		}
+	}
+
+	/**
+	 * Todas as linhas do segmento, na ordem (usuário, data).
+	 */
+	public void forEach(Consumer<ArchivedChartRow> consumer) throws IOException {
+		ByteBuffer users = column(ChartSegmentFormat.USERS);
+		ByteBuffer createdAt = column(ChartSegmentFormat.CREATED_AT);
+		ByteBuffer items = column(ChartSegmentFormat.ITEMS);
+		ByteBuffer values = column(ChartSegmentFormat.VALUES);
+		ByteBuffer ids = column(ChartSegmentFormat.IDS);
+
+		int distinct = users.getInt();
+		ByteBuffer runs = users.duplicate().position(4 + distinct * 16);
+		long previous = 0;
+		for (int u = 0; u < distinct; u++) {
+			UUID userId = new UUID(users.getLong(), users.getLong());
+			long run = readVarint(runs);
+			for (long i = 0; i < run; i++) {
+				previous += unzigzag(readVarint(createdAt));
+				consumer.accept(new ArchivedChartRow(new UUID(ids.getLong(), ids.getLong()), userId,
+						(int) readVarint(items), unzigzag(readVarint(values)), previous));
+			}
+		}
+	}
+
+	private ByteBuffer column(int index) throws IOException {
+		int entry = 28 + index * 16;
+		int offset = (int) mapped.getLong(entry);
+		int compressedLength = mapped.getInt(entry + 8);
+		int rawLength = mapped.getInt(entry + 12);
+
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(mapped.slice(offset, compressedLength));
+			byte[] raw = new byte[rawLength];
+			int read = 0;
+			while (read < rawLength && !inflater.finished()) {
+				int n = inflater.inflate(raw, read, rawLength - read);
+				if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+				read += n;
+			}
+			if (read != rawLength) throw new IOException("Truncated column " + index + " in " + path);
+			return ByteBuffer.wrap(raw);
+		} catch (DataFormatException e) {
+			throw new IOException("Corrupted column " + index + " in " + path, e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	private static long readVarint(ByteBuffer buffer) {
+		long value = 0;
+		for (int shift = 0;; shift += 7) {
+			byte b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0) return value;
+		}
+	}
+
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
@@ -0,0 +1,171 @@
+package com.app2.productsCatalog.infra.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.Deflater;
+
+/**
+ * Grava um segmento de arquivo morto de {@code chart}.
+ *
+ * O segmento é colunar: as linhas são ordenadas por usuário e data e cada
+ * coluna é codificada e comprimida (Deflate) separadamente, para que leitores
+ * descomprimam só as colunas que usam.
+ * <ul>
+ * <li>{@link ChartSegmentFormat#USERS}: usuários distintos (16 bytes cada) seguidos do tamanho de cada sequência (varint);</li>
+ * <li>{@link ChartSegmentFormat#CREATED_AT}: milissegundos em delta com a linha anterior (zigzag varint);</li>
+ * <li>{@link ChartSegmentFormat#ITEMS}: quantidade de itens (varint);</li>
+ * <li>{@link ChartSegmentFormat#VALUES}: valor em centavos (zigzag varint);</li>
+ * <li>{@link ChartSegmentFormat#IDS}: id da linha (16 bytes).</li>
+ * </ul>
+ * O arquivo é escrito em um temporário, sincronizado no disco e só então
+ * renomeado, então um segmento com o nome final está sempre completo.
+ */
+public final class ChartSegmentWriter {
+
+	private ChartSegmentWriter() {}
+
+	/**
+	 * @throws IllegalArgumentException se alguma linha não tem id ou usuário
+	 */
+	public static void write(Path target, List<ArchivedChartRow> rows) throws IOException {
+		for (ArchivedChartRow row : rows) {
+			if (row.id() == null || row.userId() == null) throw new IllegalArgumentException("Linha de chart sem id ou usuário: " + row);
+		}
+		List<ArchivedChartRow> sorted = new ArrayList<>(rows);
+		sorted.sort(Comparator.comparing(ArchivedChartRow::userId).thenComparingLong(ArchivedChartRow::createdAtMillis));
+
+		byte[][] columns = new byte[ChartSegmentFormat.COLUMNS][];
+		columns[ChartSegmentFormat.USERS] = users(sorted);
+		columns[ChartSegmentFormat.CREATED_AT] = createdAt(sorted);
+		columns[ChartSegmentFormat.ITEMS] = items(sorted);
+		columns[ChartSegmentFormat.VALUES] = values(sorted);
+		columns[ChartSegmentFormat.IDS] = ids(sorted);
+
+		long minCreatedAt = Long.MAX_VALUE, maxCreatedAt = Long.MIN_VALUE;
+		for (ArchivedChartRow row : sorted) {
+			minCreatedAt = Math.min(minCreatedAt, row.createdAtMillis());
+			maxCreatedAt = Math.max(maxCreatedAt, row.createdAtMillis());
+		}
+
+		byte[][] compressed = new byte[ChartSegmentFormat.COLUMNS][];
+		for (int i = 0; i < columns.length; i++) compressed[i] = deflate(columns[i]);
+
+		ByteBuffer header = ByteBuffer.allocate(ChartSegmentFormat.HEADER_SIZE);
+		header.putInt(ChartSegmentFormat.MAGIC).putInt(ChartSegmentFormat.VERSION)
+				.putInt(sorted.size()).putLong(minCreatedAt).putLong(maxCreatedAt);
+		long offset = ChartSegmentFormat.HEADER_SIZE;
+		for (int i = 0; i < columns.length; i++) {
+			header.putLong(offset).putInt(compressed[i].length).putInt(columns[i].length);
+			offset += compressed[i].length;
+		}
+		header.flip();
+
+		Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE)) {
+			while (header.hasRemaining()) channel.write(header);
+			for (byte[] column : compressed) {
+				ByteBuffer buffer = ByteBuffer.wrap(column);
+				while (buffer.hasRemaining()) channel.write(buffer);
+			}
+			channel.force(true);
+		}
+		Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static byte[] users(List<ArchivedChartRow> rows) {
+		List<UUID> distinct = new ArrayList<>();
+		List<Integer> runs = new ArrayList<>();
+		for (ArchivedChartRow row : rows) {
+			if (!distinct.isEmpty() && distinct.get(distinct.size() - 1).equals(row.userId())) {
+				runs.set(runs.size() - 1, runs.get(runs.size() - 1) + 1);
+			} else {
+				distinct.add(row.userId());
+				runs.add(1);
+			}
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream(4 + distinct.size() * 18);
+		writeInt(out, distinct.size());
+		for (UUID user : distinct) {
+			writeLong(out, user.getMostSignificantBits());
+			writeLong(out, user.getLeastSignificantBits());
+		}
+		for (int run : runs) writeVarint(out, run);
+		return out.toByteArray();
+	}
+
+	private static byte[] createdAt(List<ArchivedChartRow> rows) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(rows.size() * 4);
+		long previous = 0;
+		for (ArchivedChartRow row : rows) {
+			writeVarint(out, zigzag(row.createdAtMillis() - previous));
+			previous = row.createdAtMillis();
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] items(List<ArchivedChartRow> rows) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(rows.size());
+		for (ArchivedChartRow row : rows) writeVarint(out, row.qtdItens());
+		return out.toByteArray();
+	}
+
+	private static byte[] values(List<ArchivedChartRow> rows) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(rows.size() * 3);
+		for (ArchivedChartRow row : rows) writeVarint(out, zigzag(row.totalValueMinorUnits()));
+		return out.toByteArray();
+	}
+
+	private static byte[] ids(List<ArchivedChartRow> rows) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(rows.size() * 16);
+		for (ArchivedChartRow row : rows) {
+			writeLong(out, row.id().getMostSignificantBits());
+			writeLong(out, row.id().getLeastSignificantBits());
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] deflate(byte[] raw) {
+		Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		try {
+			deflater.setInput(raw);
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 2));
+			byte[] buffer = new byte[8192];
+			while (!deflater.finished()) out.write(buffer, 0, deflater.deflate(buffer));
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static void writeVarint(ByteArrayOutputStream out, long value) {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	private static void writeInt(ByteArrayOutputStream out, int value) {
+		for (int shift = 24; shift >= 0; shift -= 8) out.write(value >>> shift);
+	}
+
+	private static void writeLong(ByteArrayOutputStream out, long value) {
+		for (int shift = 56; shift >= 0; shift -= 8) out.write((int) (value >>> shift));
+	}
+}
@@ -0,0 +1,24 @@
+package com.app2.productsCatalog.infra.cache;
+
+/**
+ * Linha alterada em outra transação (possivelmente em outro nó), recebida pelo
+ * {@link CacheInvalidationBus}.
+ *
+ * @param table tabela de origem ({@code products}, {@code users})
+ * @param operation {@code I}, {@code U} ou {@code D}
+ * @param key chave primária da linha
+ */
+public record CacheInvalidation(String table, char operation, String key) {
+
+	/**
+	 * Interpreta o payload {@code <tabela>:<operação>:<id>} publicado pelos triggers.
+	 *
+	 * @return null se o payload não estiver no formato esperado
+	 */
+	static CacheInvalidation parse(String payload) {
+		int first = payload.indexOf(':');
+		int second = payload.indexOf(':', first + 1);
+		if (first <= 0 || second != first + 2 || second == payload.length() - 1) return null;
+		return new CacheInvalidation(payload.substring(0, first), payload.charAt(first + 1), payload.substring(second + 1));
+	}
+}
@@ -0,0 +1,203 @@
+package com.app2.productsCatalog.infra.cache;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Barramento de invalidação de caches entre nós, sobre {@code LISTEN/NOTIFY} do
+ * PostgreSQL, sem broker externo.
+ *
+ * Os triggers de {@code V15} publicam no canal {@link #CHANNEL} cada linha
+ * alterada em {@code products} e {@code users}, dentro da transação que a
+ * alterou; o PostgreSQL só entrega a notificação no commit. Cada nó mantém uma
+ * conexão dedicada, fora do pool, escutando o canal e repassa as linhas aos
+ * assinantes da tabela.
+ *
+ * Notificações emitidas enquanto a conexão estava caída são perdidas, então
+ * toda (re)conexão termina com um {@code flush} completo dos assinantes.
+ */
+@Component
+public class CacheInvalidationBus {
+
+	private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+	public static final String CHANNEL = "cache_invalidation";
+
+	public interface Subscriber extends Consumer<CacheInvalidation> {
+
+		/**
+		 * Descarta tudo o que o assinante guarda: chamado quando notificações podem ter sido perdidas.
+		 */
+		void flush();
+	}
+
+	@Autowired
+	private DataSourceProperties dataSourceProperties;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${cache.invalidation.enabled:true}")
+	private boolean enabled;
+
+	@Value("${cache.invalidation.poll-timeout-ms:10000}")
+	private int pollTimeoutMs;
+
+	@Value("${cache.invalidation.reconnect-delay-ms:1000}")
+	private long reconnectDelayMs;
+
+	private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+	private volatile boolean connected;
+	private volatile boolean stopped;
+	private volatile Connection connection;
+	private Thread listener;
+	private Counter received;
+	private Counter flushes;
+
+	@PostConstruct
+	void start() {
+		received = Counter.builder("cache.invalidation.received").register(meterRegistry);
+		flushes = Counter.builder("cache.invalidation.flushes").register(meterRegistry);
+		Gauge.builder("cache.invalidation.connected", this, bus -> bus.connected ? 1 : 0).register(meterRegistry);
+		if (!enabled) return;
+
+		listener = new Thread(this::listen, "cache-invalidation-listener");
+		listener.setDaemon(true);
+		listener.start();
+	}
+
+	@PreDestroy
+	void stop() throws InterruptedException {
+		stopped = true;
+		if (listener == null) return;
+		listener.interrupt();
+		closeQuietly(connection);
+		listener.join(5000);
+	}
+
+	/**
+	 * Registra um assinante para as linhas alteradas de {@code table}. Os
+	 * assinantes são chamados na thread do listener e devem ser rápidos.
+	 */
+	public void subscribe(String table, Subscriber subscriber) {
+		subscribers.computeIfAbsent(table, t -> new CopyOnWriteArrayList<>()).add(subscriber);
+	}
+
+	public boolean isConnected() {
+		return connected;
+	}
+
+	private void listen() {
+		while (!stopped) {
+			try (Connection conn = connect()) {
+				connection = conn;
+				try (Statement statement = conn.createStatement()) {
+					statement.execute("LISTEN " + CHANNEL);
+				}
+				connected = true;
+				log.info("Listening for cache invalidations on channel {}", CHANNEL);
+				flushAll();
+				poll(conn);
+			} catch (SQLException e) {
+				if (!stopped) log.warn("Cache invalidation listener disconnected: {}", e.getMessage());
+			} finally {
+				connected = false;
+				connection = null;
+			}
+			if (!stopped) sleep(reconnectDelayMs);
+		}
+	}
+
+	private void poll(Connection conn) throws SQLException {
+		PGConnection pg = conn.unwrap(PGConnection.class);
+		try (Statement ping = conn.createStatement()) {
+			while (!stopped) {
+				PGNotification[] notifications = pg.getNotifications(pollTimeoutMs);
+				if (notifications == null || notifications.length == 0) {
+					// Sem tráfego não há leitura do socket: a consulta detecta uma conexão morta
+					ping.execute("SELECT 1");
+					continue;
+				}
+				for (PGNotification notification : notifications) dispatch(notification.getParameter());
+			}
+		}
+	}
+
+	private void dispatch(String payload) {
+		CacheInvalidation invalidation = CacheInvalidation.parse(payload);
+		if (invalidation == null) {
+			log.warn("Ignoring malformed cache invalidation '{}'", payload);
+			return;
+		}
+		received.increment();
+		for (Subscriber subscriber : subscribers.getOrDefault(invalidation.table(), List.of())) {
+			try {
+				subscriber.accept(invalidation);
+			} catch (RuntimeException e) {
+				log.error("Cache invalidation subscriber failed for {}", invalidation, e);
+			}
+		}
+	}
+
+	private void flushAll() {
+		flushes.increment();
+		subscribers.values().stream().flatMap(List::stream).distinct().forEach(subscriber -> {
+			try {
+				subscriber.flush();
+			} catch (RuntimeException e) {
+				log.error("Cache flush failed", e);
+			}
+		});
+	}
+
+	private Connection connect() throws SQLException {
+		Properties properties = new Properties();
+		properties.setProperty("user", dataSourceProperties.determineUsername());
+		String password = dataSourceProperties.determinePassword();
+		if (password != null) properties.setProperty("password", password);
+		properties.setProperty("ApplicationName", "cache-invalidation-listener");
+		properties.setProperty("tcpKeepAlive", "true");
+		return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+	}
+
+	private void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			stopped = true;
+		}
+	}
+
+	private static void closeQuietly(Connection connection) {
+		if (connection == null) return;
+		try {
+			connection.close();
+		} catch (SQLException ignored) {
+		}
+	}
+}
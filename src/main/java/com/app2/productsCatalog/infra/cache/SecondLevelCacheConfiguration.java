@@ -0,0 +1,60 @@
+package com.app2.productsCatalog.infra.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Cache de segundo nível do Hibernate (JCache sobre Caffeine) para {@code Products}
+ * e {@code User} e para as buscas pelos seus identificadores naturais (nome e login).
+ *
+ * Cada região é criada aqui com limite de entradas e TTL próprios, lidos de
+ * {@code second-level-cache.<região>.max-entries} e {@code .ttl}; o Hibernate só
+ * usa regiões já existentes ({@code missing_cache_strategy=fail}). As estatísticas
+ * por região são publicadas como métricas {@code hibernate.second.level.cache.*}
+ * e {@code hibernate.cache.natural.id.*}.
+ */
+@Configuration
+public class SecondLevelCacheConfiguration {
+
+	public static final String PRODUCTS = "products";
+	public static final String PRODUCTS_BY_NAME = "products-by-name";
+	public static final String USERS = "users";
+	public static final String USERS_BY_LOGIN = "users-by-login";
+
+	private static final List<String> REGIONS = List.of(PRODUCTS, PRODUCTS_BY_NAME, USERS, USERS_BY_LOGIN);
+
+	// Um provider por contexto: o provider padrão é global na JVM e as regiões colidiriam
+	@Bean(destroyMethod = "close")
+	public CacheManager secondLevelCacheManager(Environment environment) {
+		CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+		for (String region : REGIONS) {
+			long maxEntries = environment.getProperty("second-level-cache." + region + ".max-entries", Long.class, 10_000L);
+			Duration ttl = environment.getProperty("second-level-cache." + region + ".ttl", Duration.class, Duration.ofMinutes(10));
+
+			CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+			configuration.setMaximumSize(OptionalLong.of(maxEntries));
+			configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+			// As entradas do Hibernate já são estados desmontados e imutáveis; copiar a cada leitura é desperdício
+			configuration.setStoreByValue(false);
+			cacheManager.createCache(region, configuration);
+		}
+		return cacheManager;
+	}
+
+	@Bean
+	public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager secondLevelCacheManager) {
+		return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+	}
+}
@@ -0,0 +1,55 @@
+package com.app2.productsCatalog.infra.cache;
+
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.app2.productsCatalog.domain.products.Products;
+import com.app2.productsCatalog.domain.user.User;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Remove do cache de segundo nível deste nó as linhas de {@code products} e
+ * {@code users} alteradas em qualquer nó.
+ */
+@Component
+public class SecondLevelCacheInvalidator {
+
+	@Autowired
+	private CacheInvalidationBus bus;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@PostConstruct
+	void subscribe() {
+		bus.subscribe("products", subscriber(Products.class));
+		bus.subscribe("users", subscriber(User.class));
+	}
+
+	private CacheInvalidationBus.Subscriber subscriber(Class<?> entity) {
+		return new CacheInvalidationBus.Subscriber() {
+			@Override
+			public void accept(CacheInvalidation invalidation) {
+				// Inserções não invalidam nada: buscas sem resultado não são cacheadas
+				if (invalidation.operation() == 'I') return;
+				entityManagerFactory.getCache().evict(entity, UUID.fromString(invalidation.key()));
+				// Os identificadores naturais são imutáveis; só uma remoção deixa a região de busca desatualizada
+				if (invalidation.operation() == 'D') naturalIds().evictNaturalIdData(entity);
+			}
+
+			@Override
+			public void flush() {
+				entityManagerFactory.getCache().evict(entity);
+				naturalIds().evictNaturalIdData(entity);
+			}
+		};
+	}
+
+	private org.hibernate.Cache naturalIds() {
+		return entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class);
+	}
+}
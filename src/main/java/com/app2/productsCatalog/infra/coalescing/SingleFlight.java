@@ -0,0 +1,90 @@
+package com.app2.productsCatalog.infra.coalescing;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Agrupa chamadas concorrentes com a mesma chave em uma única execução.
+ *
+ * A primeira chamada para uma chave executa o {@code loader}; as que chegam
+ * enquanto ela está em andamento aguardam e recebem o mesmo resultado, ou a
+ * mesma exceção. Nada é guardado depois que a execução termina: isto não é um
+ * cache, só evita trabalho duplicado simultâneo.
+ *
+ * Quem aguarda desiste após {@code timeout} e executa o {@code loader} por
+ * conta própria, de modo que uma execução travada não segura as demais.
+ *
+ * Métricas: {@code coalescing.calls} com {@code outcome} {@code executed},
+ * {@code shared} ou {@code timed_out}; a razão de agrupamento é
+ * {@code shared / (executed + shared + timed_out)}.
+ */
+public class SingleFlight<K, V> {
+
+	private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+	private final long timeoutNanos;
+	private final Counter executed;
+	private final Counter shared;
+	private final Counter timedOut;
+
+	public SingleFlight(String name, Duration timeout, MeterRegistry meterRegistry) {
+		this.timeoutNanos = timeout.toNanos();
+		this.executed = counter(meterRegistry, name, "executed");
+		this.shared = counter(meterRegistry, name, "shared");
+		this.timedOut = counter(meterRegistry, name, "timed_out");
+		Gauge.builder("coalescing.in.flight", inFlight, ConcurrentHashMap::size).tag("name", name).register(meterRegistry);
+	}
+
+	public V execute(K key, Supplier<V> loader) {
+		CompletableFuture<V> mine = new CompletableFuture<>();
+		CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+		if (running == null) return lead(key, mine, loader);
+
+		try {
+			V result = running.get(timeoutNanos, TimeUnit.NANOSECONDS);
+			shared.increment();
+			return result;
+		} catch (TimeoutException e) {
+			timedOut.increment();
+			return loader.get();
+		} catch (ExecutionException e) {
+			shared.increment();
+			throw propagate(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for in-flight call " + key, e);
+		}
+	}
+
+	private V lead(K key, CompletableFuture<V> mine, Supplier<V> loader) {
+		executed.increment();
+		try {
+			V result = loader.get();
+			mine.complete(result);
+			return result;
+		} catch (RuntimeException | Error e) {
+			mine.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, mine);
+		}
+	}
+
+	private static RuntimeException propagate(Throwable cause) {
+		if (cause instanceof RuntimeException runtime) return runtime;
+		if (cause instanceof Error error) throw error;
+		return new IllegalStateException(cause);
+	}
+
+	private static Counter counter(MeterRegistry meterRegistry, String name, String outcome) {
+		return Counter.builder("coalescing.calls").tag("name", name).tag("outcome", outcome).register(meterRegistry);
+	}
+}
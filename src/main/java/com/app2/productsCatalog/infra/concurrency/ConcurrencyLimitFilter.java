@@ -0,0 +1,111 @@
+package com.app2.productsCatalog.infra.concurrency;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Limita o número de requisições em andamento com um limite adaptativo
+ * ({@link VegasLimit}) calculado a partir da latência observada.
+ *
+ * Roda antes da cadeia do Spring Security (e portanto do {@code SecurityFilter}),
+ * para que uma requisição recusada não chegue a consultar o banco. Quem passa
+ * do limite da sua classe ({@link RequestPriority}) recebe 503 imediatamente,
+ * sem fila: esperar só alongaria a cauda da latência enquanto o banco está lento.
+ * O health check do actuator nunca é recusado.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${concurrency.limit.enabled:true}")
+	private boolean enabled;
+
+	@Value("${concurrency.limit.initial:20}")
+	private int initialLimit;
+
+	@Value("${concurrency.limit.min:4}")
+	private int minLimit;
+
+	@Value("${concurrency.limit.max:200}")
+	private int maxLimit;
+
+	@Value("${concurrency.limit.window:1s}")
+	private Duration window;
+
+	@Value("${concurrency.limit.min-window-samples:10}")
+	private int minWindowSamples;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private VegasLimit limit;
+	private Counter[] rejected;
+
+	@PostConstruct
+	void init() {
+		limit = new VegasLimit(initialLimit, minLimit, maxLimit, window.toNanos(), minWindowSamples);
+		Gauge.builder("concurrency.limit", limit, VegasLimit::limit).register(meterRegistry);
+		Gauge.builder("concurrency.in.flight", inFlight, AtomicInteger::get).register(meterRegistry);
+		rejected = new Counter[RequestPriority.values().length];
+		for (RequestPriority priority : RequestPriority.values()) {
+			rejected[priority.ordinal()] = Counter.builder("concurrency.rejected")
+					.tag("priority", priority.name()).register(meterRegistry);
+		}
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !enabled || request.getRequestURI().startsWith("/actuator/health");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+		RequestPriority priority = RequestPriority.of(request);
+		int admittedWith = tryAcquire(priority);
+		if (admittedWith < 0) {
+			rejected[priority.ordinal()].increment();
+			// Sem sendError: o despacho para /error passaria de novo pela aplicação
+			response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+			response.setHeader("Retry-After", "1");
+			return;
+		}
+
+		long start = System.nanoTime();
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			inFlight.decrementAndGet();
+			long now = System.nanoTime();
+			limit.onSample(now, now - start, admittedWith);
+		}
+	}
+
+	// Retorna as requisições em andamento já contando esta, ou -1 se ela deve ser recusada
+	private int tryAcquire(RequestPriority priority) {
+		int allowed = Math.max(1, (int) (limit.limit() * priority.share()));
+		while (true) {
+			int current = inFlight.get();
+			if (current >= allowed) return -1;
+			if (inFlight.compareAndSet(current, current + 1)) return current + 1;
+		}
+	}
+}
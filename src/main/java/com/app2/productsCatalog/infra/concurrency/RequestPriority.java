@@ -0,0 +1,45 @@
+package com.app2.productsCatalog.infra.concurrency;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Classes de prioridade das rotas para o descarte de carga. Cada classe só é
+ * admitida enquanto as requisições em andamento ocupam menos que
+ * {@link #share} do limite atual, então sob sobrecarga os relatórios são
+ * recusados primeiro e a finalização de compras por último.
+ */
+public enum RequestPriority {
+
+	/** Finalização de compra e autenticação: o que gera receita ou desbloqueia o resto. */
+	CHECKOUT(1.0),
+
+	/** Catálogo, histórico do usuário e demais leituras do dia a dia. */
+	CATALOG(0.9),
+
+	/** Relatórios administrativos, cadastro de produtos e documentação. */
+	REPORTS(0.6);
+
+	private final double share;
+
+	RequestPriority(double share) {
+		this.share = share;
+	}
+
+	public double share() {
+		return share;
+	}
+
+	public static RequestPriority of(HttpServletRequest request) {
+		String path = request.getRequestURI();
+		if ("POST".equals(request.getMethod())
+				&& (path.equals("/product/chart/add") || path.equals("/auth/login") || path.equals("/auth/register"))) {
+			return CHECKOUT;
+		}
+		if (path.equals("/product/add") || path.startsWith("/product/clients") || path.startsWith("/product/sales")
+				|| path.startsWith("/auth/admin") || path.startsWith("/actuator") || path.startsWith("/swagger-ui")
+				|| path.startsWith("/v3/api-docs") || path.startsWith("/api-docs")) {
+			return REPORTS;
+		}
+		return CATALOG;
+	}
+}
@@ -0,0 +1,95 @@
+package com.app2.productsCatalog.infra.concurrency;
+
+/**
+ * Limite de concorrência adaptativo no estilo TCP Vegas.
+ *
+ * As latências são agregadas em janelas. A menor média de janela vista é a
+ * latência sem carga; a razão entre ela e a média da janela atual estima
+ * quantas requisições estão na fila, e não executando:
+ * {@code fila = limite × (1 − sem carga / atual)}. Com fila pequena
+ * (até {@code 3·log10(limite)}) o limite cresce; acima de {@code 6·log10(limite)}
+ * ele diminui proporcionalmente ao excesso, até a metade por janela.
+ *
+ * A latência sem carga é refeita periodicamente, para acompanhar mudanças
+ * permanentes (novo plano de consulta, mais dados), e o limite só cresce se
+ * a carga chegou a usar ao menos metade dele.
+ */
+public class VegasLimit {
+
+	private static final int PROBE_WINDOWS = 300;
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final long windowNanos;
+	private final int minWindowSamples;
+
+	private volatile int limit;
+	private double noLoadRtt;
+	private int windowsSinceProbe;
+
+	private long windowStart;
+	private long windowRttSum;
+	private int windowSamples;
+	private int windowMaxInFlight;
+
+	public VegasLimit(int initialLimit, int minLimit, int maxLimit, long windowNanos, int minWindowSamples) {
+		this.limit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.windowNanos = windowNanos;
+		this.minWindowSamples = minWindowSamples;
+		this.windowStart = System.nanoTime();
+	}
+
+	public int limit() {
+		return limit;
+	}
+
+	/**
+	 * Registra a latência de uma requisição concluída.
+	 *
+	 * @param now instante de término ({@link System#nanoTime()})
+	 * @param rttNanos duração da requisição
+	 * @param inFlight requisições em andamento quando ela foi admitida, incluindo ela
+	 */
+	public synchronized void onSample(long now, long rttNanos, int inFlight) {
+		windowRttSum += rttNanos;
+		windowSamples++;
+		windowMaxInFlight = Math.max(windowMaxInFlight, inFlight);
+		if (now - windowStart < windowNanos || windowSamples < minWindowSamples) return;
+
+		double rtt = (double) windowRttSum / windowSamples;
+		int maxInFlight = windowMaxInFlight;
+		windowStart = now;
+		windowRttSum = 0;
+		windowSamples = 0;
+		windowMaxInFlight = 0;
+		update(rtt, maxInFlight);
+	}
+
+	private void update(double rtt, int maxInFlight) {
+		if (noLoadRtt == 0 || rtt < noLoadRtt || ++windowsSinceProbe >= PROBE_WINDOWS) {
+			if (windowsSinceProbe >= PROBE_WINDOWS) windowsSinceProbe = 0;
+			noLoadRtt = rtt;
+			return;
+		}
+
+		int current = limit;
+		double log = Math.max(1, Math.log10(current));
+		double queue = current * (1 - noLoadRtt / rtt);
+		double next;
+		if (queue > 6 * log) {
+			next = current - Math.max(log, Math.min(current / 2.0, (queue - 6 * log) / 2));
+		} else if (maxInFlight * 2 < current) {
+			// Carga abaixo da metade do limite não diz nada sobre a capacidade
+			return;
+		} else if (queue <= log) {
+			next = current + 6 * log;
+		} else if (queue < 3 * log) {
+			next = current + log;
+		} else {
+			return;
+		}
+		limit = (int) Math.max(minLimit, Math.min(maxLimit, Math.round(next)));
+	}
+}
@@ -0,0 +1,113 @@
+package com.app2.productsCatalog.infra.datasource;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Modo de instrumentação ({@code datasource.hold-time.enabled}) que mede, por
+ * endpoint, quanto tempo cada conexão fica emprestada do pool
+ * ({@code datasource.connection.hold}) e quanto desse tempo foi gasto
+ * executando comandos ({@code datasource.connection.busy}).
+ *
+ * A diferença entre os dois é tempo em que a conexão está presa sem uso
+ * (serialização, chamadas externas, lógica fora do banco). Pela lei de Little
+ * o pool precisa de cerca de {@code requisições/s × hold médio} conexões, então
+ * é o {@code hold} — e não o tempo das consultas — que dimensiona o pool.
+ *
+ * O endpoint é o padrão da rota ({@code GET /product/clients}) no momento em
+ * que a conexão é devolvida; {@code unmatched} para conexões usadas antes do
+ * roteamento (filtros) e {@code none} fora de uma requisição (jobs).
+ */
+public class ConnectionHoldTimeDataSource extends DelegatingDataSource {
+
+	private final MeterRegistry meterRegistry;
+
+	public ConnectionHoldTimeDataSource(DataSource target, MeterRegistry meterRegistry) {
+		super(target);
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return track(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return track(super.getConnection(username, password));
+	}
+
+	private Connection track(Connection connection) {
+		Usage usage = new Usage(System.nanoTime());
+		return JdbcProxies.proxy(Connection.class, connection, (target, method, args) -> {
+			String name = method.getName();
+			if (name.equals("close")) {
+				try {
+					return method.invoke(target, args);
+				} finally {
+					usage.record();
+				}
+			}
+			Object result = method.invoke(target, args);
+			if (result instanceof CallableStatement statement) return time(CallableStatement.class, statement, usage);
+			if (result instanceof PreparedStatement statement) return time(PreparedStatement.class, statement, usage);
+			if (result instanceof Statement statement) return time(Statement.class, statement, usage);
+			return result;
+		});
+	}
+
+	private static <T extends Statement> T time(Class<T> type, T statement, Usage usage) {
+		return JdbcProxies.proxy(type, statement, (target, method, args) -> {
+			if (!method.getName().startsWith("execute")) return method.invoke(target, args);
+			long start = System.nanoTime();
+			try {
+				return method.invoke(target, args);
+			} finally {
+				usage.busyNanos += System.nanoTime() - start;
+			}
+		});
+	}
+
+	private final class Usage {
+
+		private final long acquiredAt;
+		private long busyNanos;
+		private boolean recorded;
+
+		Usage(long acquiredAt) {
+			this.acquiredAt = acquiredAt;
+		}
+
+		void record() {
+			if (recorded) return;
+			recorded = true;
+			String endpoint = currentEndpoint();
+			Timer.builder("datasource.connection.hold").tag("endpoint", endpoint).register(meterRegistry)
+					.record(System.nanoTime() - acquiredAt, TimeUnit.NANOSECONDS);
+			Timer.builder("datasource.connection.busy").tag("endpoint", endpoint).register(meterRegistry)
+					.record(busyNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	static String currentEndpoint() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (!(attributes instanceof ServletRequestAttributes servlet)) return "none";
+		Object pattern = servlet.getRequest().getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		return pattern == null ? "unmatched" : servlet.getRequest().getMethod() + " " + pattern;
+	}
+}
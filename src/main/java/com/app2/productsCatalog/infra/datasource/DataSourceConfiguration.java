@@ -0,0 +1,96 @@
+package com.app2.productsCatalog.infra.datasource;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Pool primário ({@code spring.datasource.*}) e pools das réplicas de leitura
+ * ({@code datasource.replicas.*}), expostos à aplicação como um único
+ * {@link DataSource} que roteia transações somente leitura para as réplicas.
+ * Sem réplicas configuradas, tudo vai para o primário.
+ */
+@Configuration
+public class DataSourceConfiguration {
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("primary");
+		return dataSource;
+	}
+
+	@Bean
+	public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource, MeterRegistry meterRegistry,
+			@Value("${datasource.replicas.urls:}") List<String> urls,
+			@Value("${datasource.replicas.username:${spring.datasource.username:}}") String username,
+			@Value("${datasource.replicas.password:${spring.datasource.password:}}") String password,
+			@Value("${datasource.replicas.maximum-pool-size:5}") int maximumPoolSize,
+			@Value("${datasource.replicas.connection-timeout:2s}") Duration connectionTimeout,
+			@Value("${datasource.replicas.max-lag:5s}") Duration maxLag,
+			@Value("${datasource.replicas.lag-query:}") String lagQuery) {
+		Map<String, DataSource> replicas = new LinkedHashMap<>();
+		for (String url : urls) {
+			if (url.isBlank()) continue;
+			String name = "replica-" + (replicas.size() + 1);
+			HikariDataSource replica = new HikariDataSource();
+			replica.setPoolName(name);
+			replica.setJdbcUrl(url.trim());
+			replica.setUsername(username);
+			replica.setPassword(password);
+			replica.setReadOnly(true);
+			replica.setMaximumPoolSize(maximumPoolSize);
+			// Limita a espera da verificação de saúde feita abaixo, na criação do bean:
+			// uma réplica inacessível atrasa a subida por esse tempo, não pelos 30s padrão
+			replica.setConnectionTimeout(connectionTimeout.toMillis());
+			// Uma réplica fora do ar não pode impedir a aplicação de subir
+			replica.setInitializationFailTimeout(-1);
+			replica.setMetricRegistry(meterRegistry);
+			replicas.put(name, replica);
+		}
+
+		ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLag,
+				lagQuery.isBlank() ? ReplicaRoutingDataSource.POSTGRES_LAG_QUERY : lagQuery);
+		for (ReplicaRoutingDataSource.Replica replica : routing.replicas()) {
+			Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy() ? 1 : 0)
+					.tag("pool", replica.name()).register(meterRegistry);
+			Gauge.builder("datasource.replica.lag", replica, ReplicaRoutingDataSource.Replica::lagSeconds)
+					.tag("pool", replica.name()).baseUnit("seconds").register(meterRegistry);
+		}
+		routing.checkHealth();
+		return routing;
+	}
+
+	/**
+	 * O gerenciador de transações pede a conexão antes de aplicar o
+	 * {@code readOnly}; o proxy adia a obtenção até o primeiro comando, quando a
+	 * transação já está marcada e o roteamento pode escolher o pool certo.
+	 * Entre os dois fica o {@code statement_timeout} da classe de carga e, com
+	 * {@code datasource.hold-time.enabled}, a medição de tempo de empréstimo.
+	 */
+	@Bean
+	@Primary
+	public DataSource dataSource(ReplicaRoutingDataSource routingDataSource, MeterRegistry meterRegistry,
+			@Value("${datasource.hold-time.enabled:false}") boolean holdTimeEnabled) {
+		DataSource dataSource = new StatementTimeoutDataSource(routingDataSource);
+		if (holdTimeEnabled) dataSource = new ConnectionHoldTimeDataSource(dataSource, meterRegistry);
+		return new LazyConnectionDataSourceProxy(dataSource);
+	}
+}
@@ -0,0 +1,39 @@
+package com.app2.productsCatalog.infra.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Proxies dinâmicos para instrumentar objetos JDBC ({@code Connection},
+ * {@code Statement}...), que têm métodos demais para um decorator escrito à mão.
+ *
+ * O handler recebe o objeto real e chama {@code method.invoke(target, args)}
+ * quando quiser; a {@link InvocationTargetException} é desembrulhada aqui, para
+ * que quem chama o proxy veja a {@code SQLException} original. {@code unwrap}
+ * para um tipo que o objeto real já implementa devolve o próprio objeto real.
+ */
+public final class JdbcProxies {
+
+	@FunctionalInterface
+	public interface Handler<T> {
+		Object handle(T target, Method method, Object[] args) throws Throwable;
+	}
+
+	private JdbcProxies() {
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+		InvocationHandler invocationHandler = (proxy, method, args) -> {
+			if (method.getName().equals("unwrap") && args[0] instanceof Class<?> c && c.isInstance(target)) return target;
+			try {
+				return handler.handle(target, method, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		};
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, invocationHandler);
+	}
+}
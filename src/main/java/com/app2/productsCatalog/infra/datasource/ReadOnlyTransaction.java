@@ -0,0 +1,21 @@
+package com.app2.productsCatalog.infra.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Transação somente leitura. Quando não há transação em andamento, as
+ * consultas podem ser atendidas por uma réplica ({@link ReplicaRoutingDataSource});
+ * dentro de uma transação de escrita o método simplesmente participa dela.
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface ReadOnlyTransaction {
+}
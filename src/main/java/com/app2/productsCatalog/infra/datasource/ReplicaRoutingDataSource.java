@@ -0,0 +1,165 @@
+package com.app2.productsCatalog.infra.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Encaminha transações somente leitura para réplicas e todo o resto para o primário.
+ *
+ * Cada réplica tem um estado de saúde atualizado por {@link #checkHealth()}: ela
+ * só recebe leituras se respondeu à consulta de atraso e o atraso está dentro de
+ * {@code maxLag}. Sem réplica saudável, ou se a conexão com a réplica escolhida
+ * falhar, a leitura vai para o primário.
+ *
+ * O roteamento consulta {@link TransactionSynchronizationManager} no momento em
+ * que a conexão é obtida, então este DataSource deve ser envolvido por um
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: o
+ * gerenciador de transações pede a conexão antes de marcar a transação como
+ * somente leitura.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+	/**
+	 * Atraso de replicação em segundos no PostgreSQL: zero no primário ou quando
+	 * todo o WAL recebido já foi aplicado (primário ocioso).
+	 */
+	public static final String POSTGRES_LAG_QUERY = """
+			SELECT CASE
+				WHEN NOT pg_is_in_recovery() THEN 0
+				WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+				ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+			END
+			""";
+
+	public static final class Replica {
+
+		private final String name;
+		private final DataSource dataSource;
+		private volatile boolean healthy = true;
+		private volatile double lagSeconds;
+
+		Replica(String name, DataSource dataSource) {
+			this.name = name;
+			this.dataSource = dataSource;
+		}
+
+		public String name() {
+			return name;
+		}
+
+		public boolean healthy() {
+			return healthy;
+		}
+
+		public double lagSeconds() {
+			return lagSeconds;
+		}
+	}
+
+	private final DataSource primary;
+	private final List<Replica> replicas = new ArrayList<>();
+	private final double maxLagSeconds;
+	private final String lagQuery;
+	private final AtomicInteger next = new AtomicInteger();
+
+	public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag, String lagQuery) {
+		this.primary = primary;
+		replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+		this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+		this.lagQuery = lagQuery;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		Replica replica = TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? pickReplica() : null;
+		if (replica != null) {
+			try {
+				return replica.dataSource.getConnection();
+			} catch (SQLException e) {
+				markUnhealthy(replica, e);
+			}
+		}
+		return primary.getConnection();
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		throw new SQLFeatureNotSupportedException("Credentials are configured per pool");
+	}
+
+	/**
+	 * Mede o atraso de cada réplica e atualiza quais podem receber leituras.
+	 */
+	@Scheduled(fixedDelayString = "${datasource.replicas.health-check-interval-ms:5000}")
+	public void checkHealth() {
+		for (Replica replica : replicas) {
+			try (Connection connection = replica.dataSource.getConnection();
+					Statement statement = connection.createStatement();
+					ResultSet rs = statement.executeQuery(lagQuery)) {
+				rs.next();
+				replica.lagSeconds = rs.getDouble(1);
+				boolean healthy = replica.lagSeconds <= maxLagSeconds;
+				if (healthy != replica.healthy) {
+					log.warn("Replica {} is now {} (lag {}s, tolerance {}s)", replica.name,
+							healthy ? "in rotation" : "out of rotation", replica.lagSeconds, maxLagSeconds);
+				}
+				replica.healthy = healthy;
+			} catch (SQLException e) {
+				markUnhealthy(replica, e);
+			}
+		}
+	}
+
+	public List<Replica> replicas() {
+		return List.copyOf(replicas);
+	}
+
+	public DataSource primary() {
+		return primary;
+	}
+
+	/**
+	 * Fecha os pools das réplicas; o primário tem o próprio ciclo de vida.
+	 */
+	@Override
+	public void close() throws Exception {
+		for (Replica replica : replicas) {
+			if (replica.dataSource instanceof AutoCloseable closeable) closeable.close();
+		}
+	}
+
+	// Round-robin entre as réplicas saudáveis
+	private Replica pickReplica() {
+		int size = replicas.size();
+		if (size == 0) return null;
+		int start = Math.floorMod(next.getAndIncrement(), size);
+		for (int i = 0; i < size; i++) {
+			Replica replica = replicas.get((start + i) % size);
+			if (replica.healthy) return replica;
+		}
+		return null;
+	}
+
+	private void markUnhealthy(Replica replica, SQLException cause) {
+		if (replica.healthy) log.warn("Replica {} is now out of rotation: {}", replica.name, cause.getMessage());
+		replica.healthy = false;
+	}
+}
@@ -0,0 +1,62 @@
+package com.app2.productsCatalog.infra.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.app2.productsCatalog.infra.workload.Workloads;
+
+/**
+ * Aplica o {@code statement_timeout} da classe de carga em execução
+ * ({@link Workloads#currentStatementTimeout()}) em cada conexão entregue;
+ * fora de uma classe de carga vale o padrão do servidor.
+ *
+ * O valor fica na sessão da conexão física, então o {@code SET} só é enviado
+ * quando ela muda de classe. Como fica atrás do
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * nada é enviado quando a transação é atendida pelo cache.
+ */
+public class StatementTimeoutDataSource extends DelegatingDataSource {
+
+	private static final Duration SERVER_DEFAULT = Duration.ZERO;
+
+	// Conexão física -> timeout aplicado; as conexões do pool são reaproveitadas
+	private final Map<Connection, Duration> applied = Collections.synchronizedMap(new WeakHashMap<>());
+
+	public StatementTimeoutDataSource(DataSource target) {
+		super(target);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		Connection connection = super.getConnection();
+		try {
+			apply(connection);
+		} catch (SQLException | RuntimeException e) {
+			connection.close();
+			throw e;
+		}
+		return connection;
+	}
+
+	private void apply(Connection connection) throws SQLException {
+		Duration timeout = Workloads.currentStatementTimeout();
+		if (timeout == null) timeout = SERVER_DEFAULT;
+		// O Hikari devolve a conexão física; sem pool a própria conexão já é a física
+		Connection physical = connection.unwrap(Connection.class);
+		if (timeout.equals(applied.getOrDefault(physical, SERVER_DEFAULT))) return;
+
+		try (Statement statement = connection.createStatement()) {
+			statement.execute(timeout.isZero() ? "SET statement_timeout TO DEFAULT" : "SET statement_timeout = " + timeout.toMillis());
+		}
+		applied.put(physical, timeout);
+	}
+}
@@ -0,0 +1,38 @@
+package com.app2.productsCatalog.infra.health;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import com.app2.productsCatalog.service.CatalogSnapshotService;
+import com.app2.productsCatalog.service.StartupWarmup;
+
+/**
+ * Indicador {@code warmup}, incluído no grupo de readiness: fica
+ * {@code OUT_OF_SERVICE} enquanto o {@link StartupWarmup} roda, para que o
+ * balanceador só envie tráfego a instâncias aquecidas. A exceção é uma
+ * instância que responde o catálogo pelo snapshot em disco
+ * ({@link CatalogSnapshotService}): ela fica UP durante o aquecimento, que
+ * prepara o caminho do banco para quando o snapshot for reconciliado. Não faz
+ * parte do liveness, então um aquecimento lento nunca reinicia a instância.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+	@Autowired
+	private StartupWarmup warmup;
+
+	@Autowired
+	private CatalogSnapshotService catalogSnapshot;
+
+	@Override
+	public Health health() {
+		if (!warmup.isReady()) {
+			if (catalogSnapshot.serving() != null) return Health.up().withDetail("warmup", "running, serving catalog snapshot").build();
+			return Health.outOfService().withDetail("warmup", "running").build();
+		}
+		String outcome = warmup.outcome();
+		return Health.up().withDetail("warmup", outcome == null ? "timed out" : outcome).build();
+	}
+}
@@ -0,0 +1,58 @@
+package com.app2.productsCatalog.infra.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+/**
+ * Gerador de UUID versão 7 (RFC 9562): 48 bits de timestamp em milissegundos,
+ * 12 bits de contador e 62 bits aleatórios.
+ *
+ * Chaves geradas em sequência ficam em ordem crescente, então as inserções vão
+ * para o fim do índice da chave primária em vez de espalhar escritas pela
+ * árvore inteira. O par (timestamp, contador) é avançado com CAS em um único
+ * {@link AtomicLong}: os valores são estritamente crescentes entre threads
+ * dentro do mesmo milissegundo e, se o contador estourar ou o relógio voltar,
+ * o timestamp avança logicamente em vez de repetir valores.
+ *
+ * Usado nas entidades via {@code @UuidGenerator(algorithm = UuidV7Generator.class)}.
+ */
+public final class UuidV7Generator implements UuidValueGenerator {
+
+	private static final int COUNTER_BITS = 12;
+
+	// timestamp << COUNTER_BITS | contador do último valor emitido
+	private static final AtomicLong last = new AtomicLong();
+
+	public static UUID next() {
+		long sequence = nextSequence(System.currentTimeMillis());
+		long msb = (sequence >>> COUNTER_BITS) << 16 | 0x7000L | (sequence & 0xFFFL);
+		long lsb = ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+		return new UUID(msb, lsb);
+	}
+
+	static long nextSequence(long nowMillis) {
+		long candidate = nowMillis << COUNTER_BITS;
+		while (true) {
+			long previous = last.get();
+			long next = candidate > previous ? candidate : previous + 1;
+			if (last.compareAndSet(previous, next)) return next;
+		}
+	}
+
+	/**
+	 * Milissegundos desde a época Unix contidos em um UUID versão 7.
+	 */
+	public static long timestamp(UUID uuid) {
+		if (uuid.version() != 7) throw new IllegalArgumentException("UUID não é da versão 7: " + uuid);
+		return uuid.getMostSignificantBits() >>> 16;
+	}
+
+	@Override
+	public UUID generateUuid(SharedSessionContractImplementor session) {
+		return next();
+	}
+}
@@ -0,0 +1,221 @@
+package com.app2.productsCatalog.infra.idempotency;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Suporte ao header {@code Idempotency-Key} nos endpoints de escrita.
+ *
+ * A primeira requisição com uma chave é executada normalmente e sua resposta
+ * é armazenada; repetições recebem a resposta original sem chegar ao
+ * controller, e duplicatas concorrentes aguardam a execução em andamento.
+ * Respostas 5xx não são armazenadas para que o cliente possa tentar de novo.
+ *
+ * Roda depois da cadeia do Spring Security, então a chave é sempre associada
+ * ao usuário autenticado e nunca reaproveitada entre usuários diferentes.
+ * Chamadas anônimas compartilham o mesmo principal e o comprador vai no corpo,
+ * por isso a chave também guarda o hash SHA-256 do corpo: a mesma chave com
+ * outro corpo recebe 422 em vez da resposta de outra requisição.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+	public static final String HEADER = "Idempotency-Key";
+
+	private static final int MAX_KEY_LENGTH = 255;
+
+	@Autowired
+	private IdempotencyStore store;
+
+	@Value("${idempotency.paths:/product/add,/product/chart/add}")
+	private List<String> paths;
+
+	@Value("${idempotency.in-flight-timeout:10s}")
+	private Duration inFlightTimeout;
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !"POST".equals(request.getMethod())
+				|| request.getHeader(HEADER) == null
+				|| !paths.contains(request.getRequestURI());
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+		String idempotencyKey = request.getHeader(HEADER).trim();
+		if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+			response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid " + HEADER + " header");
+			return;
+		}
+		String key = principal() + ":" + request.getRequestURI() + ":" + idempotencyKey;
+		CachedBodyRequest cached = new CachedBodyRequest(request);
+		String requestHash = hash(cached.body);
+
+		while (true) {
+			IdempotentResponse stored = store.find(key);
+			if (stored != null) {
+				if (!stored.matches(requestHash)) {
+					rejectMismatch(response);
+					return;
+				}
+				replay(stored, response);
+				return;
+			}
+
+			IdempotencyStore.Execution running = store.begin(key, requestHash);
+			if (running == null) {
+				execute(key, requestHash, cached, response, filterChain);
+				return;
+			}
+			if (!requestHash.equals(running.requestHash())) {
+				rejectMismatch(response);
+				return;
+			}
+
+			IdempotentResponse shared = await(running.result());
+			if (shared == null && !running.result().isDone()) {
+				response.sendError(HttpStatus.CONFLICT.value(), "A request with the same " + HEADER + " is still in progress");
+				return;
+			}
+			if (shared != null) {
+				replay(shared, response);
+				return;
+			}
+			// A execução em andamento falhou: tenta assumir a chave novamente
+		}
+	}
+
+	private void execute(String key, String requestHash, HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+		ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+		boolean stored = false;
+		try {
+			filterChain.doFilter(request, wrapper);
+			if (wrapper.getStatus() < 500) {
+				store.complete(key, requestHash, wrapper.getStatus(), wrapper.getContentType(), wrapper.getContentAsByteArray());
+				stored = true;
+			}
+		} finally {
+			if (!stored) store.abandon(key);
+			wrapper.copyBodyToResponse();
+		}
+	}
+
+	private IdempotentResponse await(CompletableFuture<IdempotentResponse> running) throws ServletException {
+		try {
+			return running.get(inFlightTimeout.toMillis(), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ServletException(e);
+		} catch (ExecutionException e) {
+			return null;
+		}
+	}
+
+	private void rejectMismatch(HttpServletResponse response) throws IOException {
+		response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), HEADER + " was already used with a different request body");
+	}
+
+	private void replay(IdempotentResponse stored, HttpServletResponse response) throws IOException {
+		response.setStatus(stored.status());
+		if (stored.contentType() != null) response.setContentType(stored.contentType());
+		response.setHeader("Idempotent-Replayed", "true");
+		if (stored.body() != null && stored.body().length > 0) {
+			response.setContentLength(stored.body().length);
+			response.getOutputStream().write(stored.body());
+		}
+	}
+
+	private String principal() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		return authentication != null && authentication.isAuthenticated() ? authentication.getName() : "anonymous";
+	}
+
+	private static String hash(byte[] body) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	// O corpo é lido uma vez para o hash e reentregue ao controller
+	private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+		private final byte[] body;
+
+		CachedBodyRequest(HttpServletRequest request) throws IOException {
+			super(request);
+			this.body = StreamUtils.copyToByteArray(request.getInputStream());
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			ByteArrayInputStream input = new ByteArrayInputStream(body);
+			return new ServletInputStream() {
+				@Override
+				public int read() {
+					return input.read();
+				}
+
+				@Override
+				public int read(byte[] buffer, int offset, int length) {
+					return input.read(buffer, offset, length);
+				}
+
+				@Override
+				public boolean isFinished() {
+					return input.available() == 0;
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				@Override
+				public void setReadListener(ReadListener listener) {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+
+		@Override
+		public BufferedReader getReader() {
+			Charset charset = getCharacterEncoding() != null ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+			return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+		}
+	}
+}
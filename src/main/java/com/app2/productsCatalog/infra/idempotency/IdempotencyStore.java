@@ -0,0 +1,159 @@
+package com.app2.productsCatalog.infra.idempotency;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Armazena as respostas já produzidas por chave de idempotência.
+ *
+ * As respostas ficam em um mapa LRU limitado em memória com TTL. Quando
+ * {@code idempotency.persistent=true} elas também são gravadas na tabela
+ * {@code idempotency_keys}, sobrevivendo a reinícios da aplicação.
+ * Requisições ainda em execução são registradas à parte, com o hash do corpo,
+ * para que duplicatas concorrentes aguardem o resultado da primeira.
+ */
+@Component
+public class IdempotencyStore {
+
+	private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Value("${idempotency.ttl:24h}")
+	private Duration ttl;
+
+	@Value("${idempotency.persistent:false}")
+	private boolean persistent;
+
+	/**
+	 * Execução em andamento de uma chave; {@code result} completa com null se ela for abandonada.
+	 */
+	public record Execution(String requestHash, CompletableFuture<IdempotentResponse> result) {}
+
+	private final Map<String, IdempotentResponse> completed;
+
+	private final ConcurrentHashMap<String, Execution> inFlight = new ConcurrentHashMap<>();
+
+	public IdempotencyStore(@Value("${idempotency.max-entries:10000}") int maxEntries) {
+		this.completed = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, IdempotentResponse> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Retorna a resposta já registrada para a chave, ou null se não houver (ou se expirou).
+	 */
+	public IdempotentResponse find(String key) {
+		long now = System.currentTimeMillis();
+		synchronized (completed) {
+			IdempotentResponse response = completed.get(key);
+			if (response != null) {
+				if (!response.isExpired(now)) return response;
+				completed.remove(key);
+			}
+		}
+		if (!persistent) return null;
+
+		List<IdempotentResponse> rows = jdbcTemplate.query(
+				"SELECT request_hash, status, content_type, body, expires_at FROM idempotency_keys WHERE key = ? AND expires_at > now()",
+				(rs, i) -> new IdempotentResponse(rs.getString("request_hash"), rs.getInt("status"), rs.getString("content_type"),
+						rs.getBytes("body"), rs.getTimestamp("expires_at").getTime()),
+				key);
+		if (rows.isEmpty()) return null;
+
+		IdempotentResponse response = rows.get(0);
+		synchronized (completed) {
+			completed.put(key, response);
+		}
+		return response;
+	}
+
+	/**
+	 * Tenta assumir a execução da chave.
+	 *
+	 * Uma execução pode terminar entre o {@link #find} do chamador e esta
+	 * chamada; por isso, depois de registrar a chave, a resposta armazenada é
+	 * consultada de novo. {@link #complete} grava a resposta antes de liberar a
+	 * chave, então quem a assume depois disso sempre encontra a resposta.
+	 *
+	 * @return null se o chamador passou a ser o responsável pela execução, ou a
+	 *         execução já em andamento (ou já concluída, com o resultado pronto)
+	 */
+	public Execution begin(String key, String requestHash) {
+		Execution mine = new Execution(requestHash, new CompletableFuture<>());
+		Execution running = inFlight.putIfAbsent(key, mine);
+		if (running != null) return running;
+
+		IdempotentResponse stored;
+		try {
+			stored = find(key);
+		} catch (RuntimeException e) {
+			abandon(key);
+			throw e;
+		}
+		if (stored == null) return null;
+
+		inFlight.remove(key, mine);
+		mine.result().complete(stored);
+		return new Execution(stored.requestHash(), mine.result());
+	}
+
+	/**
+	 * Registra a resposta da execução e libera as duplicatas que aguardavam.
+	 */
+	public void complete(String key, String requestHash, int status, String contentType, byte[] body) {
+		IdempotentResponse response = new IdempotentResponse(requestHash, status, contentType, body, System.currentTimeMillis() + ttl.toMillis());
+		synchronized (completed) {
+			completed.put(key, response);
+		}
+		if (persistent) persist(key, response);
+
+		Execution execution = inFlight.remove(key);
+		if (execution != null) execution.result().complete(response);
+	}
+
+	/**
+	 * Descarta a execução sem registrar resposta (falha ou erro do servidor),
+	 * permitindo que a próxima tentativa execute a requisição novamente.
+	 */
+	public void abandon(String key) {
+		Execution execution = inFlight.remove(key);
+		if (execution != null) execution.result().complete(null);
+	}
+
+	private void persist(String key, IdempotentResponse response) {
+		try {
+			jdbcTemplate.update(
+					"INSERT INTO idempotency_keys (key, request_hash, status, content_type, body, expires_at) VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (key) DO NOTHING",
+					key, response.requestHash(), response.status(), response.contentType(), response.body(), new Timestamp(response.expiresAt()));
+		} catch (RuntimeException e) {
+			log.warn("Failed to persist idempotency key {}", key, e);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:600000}")
+	public void purgeExpired() {
+		long now = System.currentTimeMillis();
+		synchronized (completed) {
+			completed.values().removeIf(response -> response.isExpired(now));
+		}
+		if (persistent) jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at <= now()");
+	}
+}
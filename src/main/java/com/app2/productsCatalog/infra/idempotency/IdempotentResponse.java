@@ -0,0 +1,18 @@
+package com.app2.productsCatalog.infra.idempotency;
+
+/**
+ * Resposta original armazenada para uma chave de idempotência,
+ * reenviada sem alterações quando a mesma requisição é repetida.
+ * {@code requestHash} identifica o corpo da requisição que a produziu
+ * (null nas linhas gravadas antes dele existir).
+ */
+public record IdempotentResponse(String requestHash, int status, String contentType, byte[] body, long expiresAt) {
+
+	public boolean isExpired(long now) {
+		return now >= expiresAt;
+	}
+
+	public boolean matches(String hash) {
+		return requestHash == null || requestHash.equals(hash);
+	}
+}
@@ -0,0 +1,95 @@
+package com.app2.productsCatalog.infra.rollup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de vendas por minuto em um buffer circular.
+ *
+ * O registro de uma venda só incrementa os {@link LongAdder} do slot do
+ * minuto corrente, sem bloqueio. {@link #drain()} coleta e zera os totais
+ * acumulados desde a última coleta; quando um slot precisa ser reutilizado por
+ * um minuto mais novo antes de ser coletado, seus totais são guardados à parte
+ * para não se perderem.
+ *
+ * A coleta não é atômica em relação a {@link #record}: cada contador é zerado
+ * com {@link LongAdder#sumThenReset()} separadamente, então uma venda registrada
+ * durante a coleta pode ter o pedido contado nesta coleta e os itens ou o valor
+ * só na próxima. Nenhum incremento se perde ({@code sumThenReset} troca cada
+ * célula por zero atomicamente) e as somas de todas as coletas batem com o que
+ * foi registrado; a divergência fica limitada às vendas em andamento durante uma
+ * coleta e é corrigida na seguinte. Da mesma forma, um registro que leu o minuto do slot
+ * antes de outra thread reutilizá-lo é contado no minuto novo.
+ */
+public final class MinuteRingBuffer {
+
+	public record MinuteTotals(long epochMinute, long orders, long items, long valueMinorUnits) {}
+
+	private final Slot[] slots;
+
+	private final ConcurrentLinkedQueue<MinuteTotals> evicted = new ConcurrentLinkedQueue<>();
+
+	public MinuteRingBuffer(int minutes) {
+		if (minutes <= 0) throw new IllegalArgumentException("O buffer precisa de pelo menos um minuto");
+		this.slots = new Slot[minutes];
+		for (int i = 0; i < minutes; i++) slots[i] = new Slot();
+	}
+
+	public void record(long epochMillis, int items, long valueMinorUnits) {
+		long minute = epochMillis / 60_000;
+		Slot slot = slots[(int) (minute % slots.length)];
+		if (slot.minute != minute) rotate(slot, minute);
+		slot.orders.increment();
+		slot.items.add(items);
+		slot.value.add(valueMinorUnits);
+	}
+
+	private void rotate(Slot slot, long minute) {
+		synchronized (slot) {
+			if (slot.minute == minute) return;
+			MinuteTotals previous = slot.drain();
+			if (previous != null) evicted.add(previous);
+			slot.minute = minute;
+		}
+	}
+
+	/**
+	 * Retorna os totais acumulados desde a última chamada, por minuto, e zera os contadores.
+	 */
+	public List<MinuteTotals> drain() {
+		List<MinuteTotals> drained = new ArrayList<>();
+		MinuteTotals totals;
+		while ((totals = evicted.poll()) != null) drained.add(totals);
+		for (Slot slot : slots) {
+			synchronized (slot) {
+				totals = slot.drain();
+			}
+			if (totals != null) drained.add(totals);
+		}
+		return drained;
+	}
+
+	/**
+	 * Devolve totais que não puderam ser persistidos, para a próxima coleta.
+	 */
+	public void restore(List<MinuteTotals> totals) {
+		evicted.addAll(totals);
+	}
+
+	private static final class Slot {
+		volatile long minute = -1;
+		final LongAdder orders = new LongAdder();
+		final LongAdder items = new LongAdder();
+		final LongAdder value = new LongAdder();
+
+		MinuteTotals drain() {
+			long o = orders.sumThenReset();
+			long i = items.sumThenReset();
+			long v = value.sumThenReset();
+			if (o == 0 && i == 0 && v == 0) return null;
+			return new MinuteTotals(minute, o, i, v);
+		}
+	}
+}
@@ -45,7 +45,12 @@ public class SecurityConfiguration {
 					.requestMatchers(HttpMethod.POST, "/product/add").hasRole("ADMIN")
 					.requestMatchers(HttpMethod.GET, "/product").permitAll()
 					.requestMatchers(HttpMethod.POST,"/product/chart/add").permitAll()
+					.requestMatchers(HttpMethod.GET, "/product/chart/mine").authenticated()
 					.requestMatchers(HttpMethod.GET, "/product/clients").hasRole("ADMIN")
+					.requestMatchers(HttpMethod.GET, "/product/sales").hasRole("ADMIN")
+					.requestMatchers(HttpMethod.GET, "/product/clients/live").hasRole("ADMIN")
+					.requestMatchers("/actuator/health/**").permitAll()
+					.requestMatchers("/actuator/metrics/**").hasRole("ADMIN")
 					
 					.anyRequest().authenticated())
 			.addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class);
@@ -8,7 +8,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.app2.productsCatalog.repository.UserRepository;
+import com.app2.productsCatalog.service.AuthorizationService;
 import com.app2.productsCatalog.service.TokenService;
 
 import jakarta.servlet.FilterChain;
@@ -23,7 +23,7 @@ public class SecurityFilter extends OncePerRequestFilter{
 	TokenService tokenService;
 	
 	@Autowired
-	UserRepository userRepository;
+	AuthorizationService authorizationService;
 
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -31,7 +31,7 @@ public class SecurityFilter extends OncePerRequestFilter{
 		if(token != null && !token.isBlank()) {
 			var login = tokenService.validateToken(token);
 			if(login != null) {
-				var user = userRepository.findByLogin(login);
+				var user = authorizationService.loadUserByUsername(login);
 				if(user != null) {
 					var authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()); 
 					
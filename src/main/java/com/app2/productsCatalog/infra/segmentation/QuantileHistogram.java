@@ -0,0 +1,66 @@
+package com.app2.productsCatalog.infra.segmentation;
+
+/**
+ * Histograma de memória fixa para quantis aproximados de valores não negativos.
+ *
+ * Os buckets crescem geometricamente (razão {@code 1 + 1/SUB_BUCKETS}), então o
+ * erro relativo de um quantil fica abaixo de ~3% em qualquer escala. Histogramas
+ * calculados em paralelo são combinados com {@link #merge}.
+ */
+public final class QuantileHistogram {
+
+	private static final int SUB_BUCKETS = 32;
+	private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+	private final long[] counts = new long[BUCKETS];
+	private long total;
+
+	public void add(long value) {
+		counts[bucket(Math.max(value, 0))]++;
+		total++;
+	}
+
+	public QuantileHistogram merge(QuantileHistogram other) {
+		for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+		total += other.total;
+		return this;
+	}
+
+	/**
+	 * Limites superiores aproximados dos quantis {@code 1/n, 2/n, ..., (n-1)/n}.
+	 */
+	public long[] cutPoints(int n) {
+		long[] cuts = new long[n - 1];
+		long seen = 0;
+		int next = 0;
+		for (int i = 0; i < BUCKETS && next < cuts.length; i++) {
+			seen += counts[i];
+			while (next < cuts.length && seen * n >= total * (next + 1)) {
+				cuts[next++] = upperBound(i);
+			}
+		}
+		while (next < cuts.length) cuts[next++] = Long.MAX_VALUE;
+		return cuts;
+	}
+
+	public long total() {
+		return total;
+	}
+
+	// Valores < SUB_BUCKETS têm bucket exato; acima disso, SUB_BUCKETS buckets por potência de 2
+	private static int bucket(long value) {
+		if (value < SUB_BUCKETS) return (int) value;
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - Integer.numberOfTrailingZeros(SUB_BUCKETS);
+		int sub = (int) (value >>> shift) - SUB_BUCKETS;
+		return (shift + 1) * SUB_BUCKETS + sub;
+	}
+
+	private static long upperBound(int bucket) {
+		if (bucket < SUB_BUCKETS) return bucket;
+		int shift = bucket / SUB_BUCKETS - 1;
+		long sub = bucket % SUB_BUCKETS + SUB_BUCKETS;
+		long upper = ((sub + 1) << shift) - 1;
+		return upper < 0 ? Long.MAX_VALUE : upper;
+	}
+}
@@ -0,0 +1,95 @@
+package com.app2.productsCatalog.infra.segmentation;
+
+import java.util.UUID;
+
+/**
+ * Acumulador de recência, frequência e valor por usuário com chaves primitivas.
+ *
+ * Tabela hash de endereçamento aberto indexada pelos dois {@code long} do
+ * UUID, com os valores em vetores paralelos: não há um objeto por usuário nem
+ * boxing, o que mantém o consumo em torno de 40 bytes por usuário.
+ */
+public final class RfmAccumulator {
+
+	public interface Visitor {
+		void visit(UUID userId, long lastPurchaseEpochSecond, long frequency, long monetaryMinorUnits);
+	}
+
+	private static final float LOAD_FACTOR = 0.6f;
+
+	private long[] msb;
+	private long[] lsb;
+	private long[] last;
+	private long[] frequency;
+	private long[] monetary;
+	private boolean[] used;
+	private int size;
+
+	public RfmAccumulator(int expectedUsers) {
+		int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedUsers / LOAD_FACTOR)) - 1) << 1;
+		allocate(capacity);
+	}
+
+	public void add(long userMsb, long userLsb, long purchaseEpochSecond, long valueMinorUnits) {
+		int slot = slot(userMsb, userLsb);
+		if (!used[slot]) {
+			used[slot] = true;
+			msb[slot] = userMsb;
+			lsb[slot] = userLsb;
+			last[slot] = purchaseEpochSecond;
+			if (++size > used.length * LOAD_FACTOR) {
+				resize();
+				slot = slot(userMsb, userLsb);
+			}
+		} else if (purchaseEpochSecond > last[slot]) {
+			last[slot] = purchaseEpochSecond;
+		}
+		frequency[slot]++;
+		monetary[slot] += valueMinorUnits;
+	}
+
+	public void forEach(Visitor visitor) {
+		for (int i = 0; i < used.length; i++) {
+			if (used[i]) visitor.visit(new UUID(msb[i], lsb[i]), last[i], frequency[i], monetary[i]);
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	private int slot(long keyMsb, long keyLsb) {
+		int mask = used.length - 1;
+		long h = (keyMsb ^ Long.rotateLeft(keyLsb, 32)) * 0x9E3779B97F4A7C15L;
+		int slot = (int) (h ^ (h >>> 32)) & mask;
+		while (used[slot] && (msb[slot] != keyMsb || lsb[slot] != keyLsb)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void resize() {
+		long[] oldMsb = msb, oldLsb = lsb, oldLast = last, oldFrequency = frequency, oldMonetary = monetary;
+		boolean[] oldUsed = used;
+		allocate(used.length << 1);
+		for (int i = 0; i < oldUsed.length; i++) {
+			if (!oldUsed[i]) continue;
+			int slot = slot(oldMsb[i], oldLsb[i]);
+			used[slot] = true;
+			msb[slot] = oldMsb[i];
+			lsb[slot] = oldLsb[i];
+			last[slot] = oldLast[i];
+			frequency[slot] = oldFrequency[i];
+			monetary[slot] = oldMonetary[i];
+		}
+	}
+
+	private void allocate(int capacity) {
+		msb = new long[capacity];
+		lsb = new long[capacity];
+		last = new long[capacity];
+		frequency = new long[capacity];
+		monetary = new long[capacity];
+		used = new boolean[capacity];
+	}
+}
@@ -0,0 +1,39 @@
+package com.app2.productsCatalog.infra.serialization;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Codificações binárias (CBOR e Smile) das respostas, escolhidas pelo header
+ * {@code Accept}; sem ele, ou com {@code application/json}, a resposta
+ * continua em JSON.
+ *
+ * Os conversores usam o mesmo {@link Jackson2ObjectMapperBuilder} do JSON,
+ * então nomes de campos, módulos e serializadores (como o de {@code Money})
+ * são os mesmos nos três formatos. Declarados como beans, eles substituem os
+ * conversores padrão do Spring MVC para esses tipos na mesma posição, depois
+ * do JSON.
+ */
+@Configuration
+public class BinaryContentConfiguration {
+
+	public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+	public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+	}
+
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+	}
+}
@@ -0,0 +1,92 @@
+package com.app2.productsCatalog.infra.sketch;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Contagem aproximada de elementos distintos (HyperLogLog) em memória fixa.
+ *
+ * Com precisão {@code p} usa {@code 2^p} registradores e tem erro relativo
+ * padrão de {@code 1.04 / sqrt(2^p)}. Atualizações são lock-free e dois
+ * sketches com a mesma precisão podem ser combinados com {@link #merge}.
+ */
+public final class HyperLogLog {
+
+	private final int precision;
+	private final AtomicIntegerArray registers;
+
+	public HyperLogLog(int precision) {
+		if (precision < 4 || precision > 18) throw new IllegalArgumentException("Precisão deve estar entre 4 e 18");
+		this.precision = precision;
+		this.registers = new AtomicIntegerArray(1 << precision);
+	}
+
+	public void add(UUID value) {
+		addHash(hash(value));
+	}
+
+	void addHash(long hash) {
+		int index = (int) (hash >>> (64 - precision));
+		// Posição do primeiro bit 1 nos bits restantes (com sentinela para não passar de 64 - p + 1)
+		int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+		int current;
+		while (rank > (current = registers.get(index))) {
+			if (registers.compareAndSet(index, current, rank)) return;
+		}
+	}
+
+	public long estimate() {
+		int m = registers.length();
+		double sum = 0;
+		int zeros = 0;
+		for (int i = 0; i < m; i++) {
+			int r = registers.get(i);
+			sum += 1.0 / (1L << r);
+			if (r == 0) zeros++;
+		}
+		double alpha = 0.7213 / (1 + 1.079 / m);
+		double estimate = alpha * m * m / sum;
+		// Correção para cardinalidades pequenas (linear counting)
+		if (estimate <= 2.5 * m && zeros > 0) estimate = m * Math.log((double) m / zeros);
+		return Math.round(estimate);
+	}
+
+	/**
+	 * Erro relativo padrão da estimativa (um desvio padrão).
+	 */
+	public double relativeError() {
+		return 1.04 / Math.sqrt(registers.length());
+	}
+
+	/**
+	 * Incorpora os registradores de outro sketch (união dos conjuntos).
+	 */
+	public void merge(HyperLogLog other) {
+		if (other.precision != precision) throw new IllegalArgumentException("Sketches com precisões diferentes");
+		for (int i = 0; i < registers.length(); i++) {
+			int rank = other.registers.get(i);
+			int current;
+			while (rank > (current = registers.get(i))) {
+				if (registers.compareAndSet(i, current, rank)) break;
+			}
+		}
+	}
+
+	public int precision() {
+		return precision;
+	}
+
+	static long hash(UUID value) {
+		return mix(value.getMostSignificantBits() ^ mix(value.getLeastSignificantBits()));
+	}
+
+	// Finalizador do MurmurHash3 (fmix64)
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
@@ -0,0 +1,160 @@
+package com.app2.productsCatalog.infra.sketch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Heavy hitters ponderados (algoritmo Space-Saving) com {@code capacity} contadores.
+ *
+ * Cada contador guarda uma estimativa que nunca subestima o peso real da chave
+ * e superestima no máximo pelo seu {@code error}; no pior caso o erro é
+ * {@code totalWeight / capacity}. Os contadores ficam em um heap de mínimo
+ * indexado, então cada atualização custa O(log capacity). Dois sumários podem
+ * ser combinados com {@link #merge}. Não é thread-safe: o chamador sincroniza.
+ */
+public final class SpaceSaving {
+
+	public record Counter(UUID key, long estimate, long error) {}
+
+	private final int capacity;
+	private final UUID[] keys;
+	private final long[] counts;
+	private final long[] errors;
+	private final Map<UUID, Integer> positions;
+	private int size;
+	private long totalWeight;
+
+	public SpaceSaving(int capacity) {
+		if (capacity <= 0) throw new IllegalArgumentException("Capacidade deve ser maior que zero");
+		this.capacity = capacity;
+		this.keys = new UUID[capacity];
+		this.counts = new long[capacity];
+		this.errors = new long[capacity];
+		this.positions = new HashMap<>(capacity * 2);
+	}
+
+	public void add(UUID key, long weight) {
+		if (weight <= 0) return;
+		totalWeight += weight;
+		Integer position = positions.get(key);
+		if (position != null) {
+			counts[position] += weight;
+			siftDown(position);
+		} else if (size < capacity) {
+			put(size, key, weight, 0);
+			siftUp(size++);
+		} else {
+			// Substitui o menor contador, herdando seu valor como erro
+			long min = counts[0];
+			positions.remove(keys[0]);
+			put(0, key, min + weight, min);
+			siftDown(0);
+		}
+	}
+
+	/**
+	 * Incorpora outro sumário. Chaves ausentes de um lado recebem o menor
+	 * contador daquele lado (se ele estava cheio), preservando os limites de erro.
+	 */
+	public void merge(SpaceSaving other) {
+		long ownMin = size == capacity ? counts[0] : 0;
+		long otherMin = other.size == other.capacity ? other.counts[0] : 0;
+		Map<UUID, long[]> combined = new HashMap<>((size + other.size) * 2);
+		for (int i = 0; i < size; i++) {
+			Integer otherPosition = other.positions.get(keys[i]);
+			long count = counts[i] + (otherPosition != null ? other.counts[otherPosition] : otherMin);
+			long error = errors[i] + (otherPosition != null ? other.errors[otherPosition] : otherMin);
+			combined.put(keys[i], new long[] { count, error });
+		}
+		for (int i = 0; i < other.size; i++) {
+			if (positions.containsKey(other.keys[i])) continue;
+			combined.put(other.keys[i], new long[] { other.counts[i] + ownMin, other.errors[i] + ownMin });
+		}
+
+		List<Map.Entry<UUID, long[]>> entries = new ArrayList<>(combined.entrySet());
+		entries.sort(Comparator.comparingLong((Map.Entry<UUID, long[]> e) -> e.getValue()[0]).reversed());
+		positions.clear();
+		size = 0;
+		for (int i = 0; i < Math.min(capacity, entries.size()); i++) {
+			Map.Entry<UUID, long[]> entry = entries.get(i);
+			put(size, entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+			siftUp(size++);
+		}
+		totalWeight += other.totalWeight;
+	}
+
+	/**
+	 * Os {@code k} maiores contadores, em ordem decrescente de estimativa.
+	 */
+	public List<Counter> top(int k) {
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++) order[i] = i;
+		Arrays.sort(order, (a, b) -> Long.compare(counts[b], counts[a]));
+		List<Counter> top = new ArrayList<>(Math.min(k, size));
+		for (int i = 0; i < Math.min(k, size); i++) {
+			top.add(new Counter(keys[order[i]], counts[order[i]], errors[order[i]]));
+		}
+		return top;
+	}
+
+	/**
+	 * Limite superior do erro de qualquer estimativa: {@code totalWeight / capacity}.
+	 */
+	public long maxError() {
+		return totalWeight / capacity;
+	}
+
+	public long totalWeight() {
+		return totalWeight;
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	private void put(int position, UUID key, long count, long error) {
+		keys[position] = key;
+		counts[position] = count;
+		errors[position] = error;
+		positions.put(key, position);
+	}
+
+	private void siftUp(int position) {
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (counts[parent] <= counts[position]) return;
+			swap(parent, position);
+			position = parent;
+		}
+	}
+
+	private void siftDown(int position) {
+		while (true) {
+			int left = 2 * position + 1;
+			if (left >= size) return;
+			int smallest = left + 1 < size && counts[left + 1] < counts[left] ? left + 1 : left;
+			if (counts[position] <= counts[smallest]) return;
+			swap(position, smallest);
+			position = smallest;
+		}
+	}
+
+	private void swap(int a, int b) {
+		UUID key = keys[a];
+		long count = counts[a];
+		long error = errors[a];
+		keys[a] = keys[b];
+		counts[a] = counts[b];
+		errors[a] = errors[b];
+		keys[b] = key;
+		counts[b] = count;
+		errors[b] = error;
+		positions.put(keys[a], a);
+		positions.put(keys[b], b);
+	}
+}
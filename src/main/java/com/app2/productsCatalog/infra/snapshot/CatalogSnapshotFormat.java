@@ -0,0 +1,23 @@
+package com.app2.productsCatalog.infra.snapshot;
+
+/**
+ * Layout binário do snapshot do catálogo (big-endian).
+ *
+ * <pre>
+ * magic:int  version:int  catalogVersion:long  writtenAt:long  rows:int  bodyLength:int  crc32:int
+ * rows × (idMsb:long  idLsb:long  priceMinorUnits:long  stock:int  name:string  imageUrl:string)
+ * </pre>
+ * Cada string é {@code length:int} seguido de UTF-8; {@code -1} representa null.
+ * O CRC cobre o corpo inteiro.
+ */
+final class CatalogSnapshotFormat {
+
+	static final int MAGIC = 0x4354534E; // "CTSN"
+	static final int VERSION = 1;
+
+	static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 4 + 4;
+
+	static final int NULL_LENGTH = -1;
+
+	private CatalogSnapshotFormat() {}
+}
@@ -0,0 +1,100 @@
+package com.app2.productsCatalog.infra.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+import com.app2.productsCatalog.domain.money.Money;
+import com.app2.productsCatalog.domain.products.ProductView;
+
+/**
+ * Lê um snapshot gravado por {@link CatalogSnapshotWriter} via memória mapeada.
+ *
+ * O cabeçalho e o CRC do corpo são validados na abertura; um arquivo truncado
+ * ou de outro formato falha com {@link IOException} em vez de servir um
+ * catálogo parcial.
+ */
+public final class CatalogSnapshotReader {
+
+	private final Path path;
+	private final MappedByteBuffer mapped;
+	private final long catalogVersion;
+	private final long writtenAt;
+	private final int rows;
+
+	public CatalogSnapshotReader(Path path) throws IOException {
+		this.path = path;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			this.mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (mapped.capacity() < CatalogSnapshotFormat.HEADER_SIZE || mapped.getInt(0) != CatalogSnapshotFormat.MAGIC) {
+			throw new IOException("Not a catalog snapshot: " + path);
+		}
+		if (mapped.getInt(4) != CatalogSnapshotFormat.VERSION) {
+			throw new IOException("Unsupported catalog snapshot version " + mapped.getInt(4) + ": " + path);
+		}
+		this.catalogVersion = mapped.getLong(8);
+		this.writtenAt = mapped.getLong(16);
+		this.rows = mapped.getInt(24);
+		int bodyLength = mapped.getInt(28);
+		if (mapped.capacity() != CatalogSnapshotFormat.HEADER_SIZE + bodyLength) {
+			throw new IOException("Truncated catalog snapshot: " + path);
+		}
+		CRC32 crc = new CRC32();
+		crc.update(body());
+		if ((int) crc.getValue() != mapped.getInt(32)) throw new IOException("Corrupted catalog snapshot: " + path);
+	}
+
+	public long catalogVersion() {
+		return catalogVersion;
+	}
+
+	public long writtenAt() {
+		return writtenAt;
+	}
+
+	public int rows() {
+		return rows;
+	}
+
+	/**
+	 * Produtos do snapshot, na ordem em que foram gravados.
+	 */
+	public List<ProductView> products() throws IOException {
+		ByteBuffer body = body();
+		List<ProductView> products = new ArrayList<>(rows);
+		try {
+			for (int i = 0; i < rows; i++) {
+				UUID id = new UUID(body.getLong(), body.getLong());
+				Money price = Money.ofMinor(body.getLong());
+				int stock = body.getInt();
+				String name = readString(body);
+				String imageUrl = readString(body);
+				products.add(new ProductView(id, name, imageUrl, price, stock));
+			}
+		} catch (RuntimeException e) {
+			throw new IOException("Corrupted catalog snapshot: " + path, e);
+		}
+		return products;
+	}
+
+	private ByteBuffer body() {
+		return mapped.slice(CatalogSnapshotFormat.HEADER_SIZE, mapped.capacity() - CatalogSnapshotFormat.HEADER_SIZE);
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length == CatalogSnapshotFormat.NULL_LENGTH) return null;
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,71 @@
+package com.app2.productsCatalog.infra.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import com.app2.productsCatalog.domain.products.ProductView;
+
+/**
+ * Grava o snapshot do catálogo lido por {@link CatalogSnapshotReader}.
+ *
+ * O arquivo é escrito em um temporário, sincronizado no disco e só então
+ * renomeado, então o snapshot com o nome final está sempre completo.
+ */
+public final class CatalogSnapshotWriter {
+
+	private CatalogSnapshotWriter() {}
+
+	public static void write(Path target, long catalogVersion, List<ProductView> products) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream(products.size() * 96);
+		DataOutputStream out = new DataOutputStream(body);
+		for (ProductView product : products) {
+			out.writeLong(product.id().getMostSignificantBits());
+			out.writeLong(product.id().getLeastSignificantBits());
+			out.writeLong(product.price().minorUnits());
+			out.writeInt(product.stock());
+			writeString(out, product.name());
+			writeString(out, product.image_url());
+		}
+		out.flush();
+		byte[] bytes = body.toByteArray();
+
+		CRC32 crc = new CRC32();
+		crc.update(bytes);
+		ByteBuffer header = ByteBuffer.allocate(CatalogSnapshotFormat.HEADER_SIZE);
+		header.putInt(CatalogSnapshotFormat.MAGIC).putInt(CatalogSnapshotFormat.VERSION)
+				.putLong(catalogVersion).putLong(System.currentTimeMillis())
+				.putInt(products.size()).putInt(bytes.length).putInt((int) crc.getValue());
+		header.flip();
+
+		Files.createDirectories(target.toAbsolutePath().getParent());
+		Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE)) {
+			while (header.hasRemaining()) channel.write(header);
+			ByteBuffer buffer = ByteBuffer.wrap(bytes);
+			while (buffer.hasRemaining()) channel.write(buffer);
+			channel.force(true);
+		}
+		Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(CatalogSnapshotFormat.NULL_LENGTH);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+}
@@ -0,0 +1,89 @@
+package com.app2.productsCatalog.infra.stock;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contador de unidades dividido em faixas (stripes) independentes.
+ * Cada thread começa pela sua própria faixa e só percorre as demais quando
+ * ela está vazia, de modo que reservas concorrentes do mesmo produto não
+ * disputam a mesma variável atômica nem a mesma linha de cache.
+ */
+public final class StripedCounter {
+
+	// Espaçamento entre faixas (16 longs = 128 bytes) para evitar false sharing
+	private static final int PAD = 16;
+
+	private final AtomicLongArray cells;
+	private final int mask;
+
+	public StripedCounter(int stripes) {
+		if (stripes <= 0) throw new IllegalArgumentException("Stripes deve ser maior que zero");
+		int size = 1;
+		while (size < stripes) size <<= 1;
+		this.mask = size - 1;
+		this.cells = new AtomicLongArray(size * PAD);
+	}
+
+	/**
+	 * Tenta retirar {@code units} unidades sem bloquear.
+	 *
+	 * @return true se todas as unidades foram retiradas, false se o total disponível não era suficiente
+	 */
+	public boolean tryAcquire(long units) {
+		if (units <= 0) return true;
+		int home = home();
+		long remaining = units;
+		for (int i = 0; i <= mask && remaining > 0; i++) {
+			int index = ((home + i) & mask) * PAD;
+			long current;
+			do {
+				current = cells.get(index);
+			} while (current > 0 && !cells.compareAndSet(index, current, current - Math.min(current, remaining)));
+			if (current > 0) remaining -= Math.min(current, remaining);
+		}
+		if (remaining == 0) return true;
+
+		// Não havia o suficiente: devolve o que foi retirado parcialmente
+		long partial = units - remaining;
+		if (partial > 0) cells.getAndAdd(home * PAD, partial);
+		return false;
+	}
+
+	/**
+	 * Adiciona unidades distribuindo-as entre todas as faixas.
+	 */
+	public void add(long units) {
+		if (units <= 0) return;
+		int stripes = mask + 1;
+		long share = units / stripes;
+		long rest = units % stripes;
+		for (int i = 0; i < stripes; i++) {
+			long value = share + (i < rest ? 1 : 0);
+			if (value > 0) cells.getAndAdd(i * PAD, value);
+		}
+	}
+
+	/**
+	 * Zera todas as faixas e retorna o total que estava disponível.
+	 */
+	public long drain() {
+		long total = 0;
+		for (int i = 0; i <= mask; i++) {
+			total += cells.getAndSet(i * PAD, 0);
+		}
+		return total;
+	}
+
+	public long sum() {
+		long total = 0;
+		for (int i = 0; i <= mask; i++) {
+			total += cells.get(i * PAD);
+		}
+		return total;
+	}
+
+	private int home() {
+		long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+}
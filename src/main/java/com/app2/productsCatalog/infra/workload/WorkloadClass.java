@@ -0,0 +1,36 @@
+package com.app2.productsCatalog.infra.workload;
+
+/**
+ * Classes de carga com conexões e timeouts próprios (propriedades
+ * {@code workload.<classe>.*}), para que uma delas lenta não esgote o pool
+ * das demais. As métricas são comuns às classes e as separam pela tag
+ * {@code workload}, com o valor de {@link #key}: {@code workload.*{workload=<classe>}}.
+ */
+public enum WorkloadClass {
+
+	/** Busca do usuário a cada requisição autenticada e no login. */
+	AUTH("auth"),
+
+	/**
+	 * Catálogo, cadastro de produtos e histórico do usuário. O histórico fica
+	 * aqui por ser uma leitura curta e paginada, da mesma ordem de custo do
+	 * catálogo; não justifica vagas próprias.
+	 */
+	CATALOG("catalog"),
+
+	/** Inclusão de itens no carrinho; cada vaga usa até duas conexões (retirada de estoque). */
+	CART("cart"),
+
+	/** Relatórios administrativos. */
+	REPORTS("reports");
+
+	private final String key;
+
+	WorkloadClass(String key) {
+		this.key = key;
+	}
+
+	public String key() {
+		return key;
+	}
+}
@@ -0,0 +1,17 @@
+package com.app2.productsCatalog.infra.workload;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Todas as conexões da classe de carga estão em uso e nenhuma foi liberada dentro do tempo de espera.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class WorkloadSaturatedException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public WorkloadSaturatedException(WorkloadClass workload) {
+		super("No connection available for workload " + workload.key());
+	}
+}
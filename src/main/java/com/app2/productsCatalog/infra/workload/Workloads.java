@@ -0,0 +1,166 @@
+package com.app2.productsCatalog.infra.workload;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bulkheads de conexão por classe de carga ({@link WorkloadClass}).
+ *
+ * {@link #execute} ocupa uma vaga da classe durante toda a transação; são
+ * {@code workload.<classe>.max-connections} conexões divididas em vagas de
+ * {@code connections-per-permit} conexões. Se nenhuma vaga abrir em
+ * {@code acquire-timeout} a chamada falha com {@link WorkloadSaturatedException}
+ * (503) sem tocar no pool. A transação recebe o {@code transaction-timeout} da
+ * classe e cada comando o {@code statement-timeout}, aplicado na conexão por
+ * {@link com.app2.productsCatalog.infra.datasource.StatementTimeoutDataSource}.
+ *
+ * Chamadas aninhadas na mesma thread reaproveitam a vaga já ocupada: uma
+ * transação {@code REQUIRES_NEW} dentro de outra não pode esperar por uma vaga
+ * que ela mesma segura. Como ela abre uma segunda conexão, a classe que faz
+ * isso declara duas conexões por vaga. As conexões somadas devem caber no
+ * pool, deixando folga para os jobs, que não passam por aqui.
+ *
+ * Métricas por classe: {@code workload.connections.active},
+ * {@code workload.rejected} e {@code workload.timeouts}.
+ */
+@Component
+public class Workloads {
+
+	private static final ThreadLocal<Duration> STATEMENT_TIMEOUT = new ThreadLocal<>();
+	private static final ThreadLocal<Map<WorkloadClass, Integer>> HELD = ThreadLocal.withInitial(() -> new EnumMap<>(WorkloadClass.class));
+
+	private static final Logger log = LoggerFactory.getLogger(Workloads.class);
+
+	private record Bulkhead(Semaphore permits, int size, Duration acquireTimeout, Duration statementTimeout,
+			TransactionTemplate readOnly, TransactionTemplate readWrite, Counter rejected, Counter timeouts) {}
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private Environment environment;
+
+	private final Map<WorkloadClass, Bulkhead> bulkheads = new EnumMap<>(WorkloadClass.class);
+
+	@PostConstruct
+	void init() {
+		int connections = 0;
+		for (WorkloadClass workload : WorkloadClass.values()) {
+			String prefix = "workload." + workload.key() + ".";
+			int maxConnections = environment.getProperty(prefix + "max-connections", Integer.class, 2);
+			int connectionsPerPermit = environment.getProperty(prefix + "connections-per-permit", Integer.class, 1);
+			int size = Math.max(1, maxConnections / connectionsPerPermit);
+			connections += size * connectionsPerPermit;
+			Duration acquireTimeout = environment.getProperty(prefix + "acquire-timeout", Duration.class, Duration.ofMillis(100));
+			Duration statementTimeout = environment.getProperty(prefix + "statement-timeout", Duration.class, Duration.ofSeconds(5));
+			Duration transactionTimeout = environment.getProperty(prefix + "transaction-timeout", Duration.class, Duration.ofSeconds(10));
+
+			Semaphore permits = new Semaphore(size, true);
+			Gauge.builder("workload.connections.active", permits, p -> (size - p.availablePermits()) * connectionsPerPermit)
+					.tag("workload", workload.key()).register(meterRegistry);
+			bulkheads.put(workload, new Bulkhead(permits, size, acquireTimeout, statementTimeout,
+					template(true, transactionTimeout), template(false, transactionTimeout),
+					Counter.builder("workload.rejected").tag("workload", workload.key()).register(meterRegistry),
+					Counter.builder("workload.timeouts").tag("workload", workload.key()).register(meterRegistry)));
+		}
+
+		Integer poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class);
+		if (poolSize != null && connections > poolSize) {
+			log.warn("Workload classes may hold {} connections but the primary pool has only {}", connections, poolSize);
+		}
+	}
+
+	/**
+	 * Executa {@code callback} em uma transação da classe {@code workload}.
+	 *
+	 * @param readOnly transações somente leitura podem ir para uma réplica
+	 * @throws WorkloadSaturatedException se a classe não tiver vaga
+	 */
+	public <T> T execute(WorkloadClass workload, boolean readOnly, TransactionCallback<T> callback) {
+		Bulkhead bulkhead = bulkheads.get(workload);
+		Map<WorkloadClass, Integer> held = HELD.get();
+		int depth = held.getOrDefault(workload, 0);
+		if (depth == 0) acquire(workload, bulkhead);
+
+		Duration previousTimeout = STATEMENT_TIMEOUT.get();
+		held.put(workload, depth + 1);
+		STATEMENT_TIMEOUT.set(bulkhead.statementTimeout());
+		try {
+			return (readOnly ? bulkhead.readOnly() : bulkhead.readWrite()).execute(callback);
+		} catch (RuntimeException e) {
+			if (isTimeout(e)) bulkhead.timeouts().increment();
+			throw e;
+		} finally {
+			if (previousTimeout == null) STATEMENT_TIMEOUT.remove();
+			else STATEMENT_TIMEOUT.set(previousTimeout);
+			if (depth == 0) {
+				held.remove(workload);
+				bulkhead.permits().release();
+			} else {
+				held.put(workload, depth);
+			}
+		}
+	}
+
+	/**
+	 * Timeout de comando da classe em execução nesta thread, ou null fora de {@link #execute}.
+	 */
+	public static Duration currentStatementTimeout() {
+		return STATEMENT_TIMEOUT.get();
+	}
+
+	private void acquire(WorkloadClass workload, Bulkhead bulkhead) {
+		boolean acquired;
+		try {
+			acquired = bulkhead.permits().tryAcquire(bulkhead.acquireTimeout().toNanos(), TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			acquired = false;
+		}
+		if (!acquired) {
+			bulkhead.rejected().increment();
+			throw new WorkloadSaturatedException(workload);
+		}
+	}
+
+	private TransactionTemplate template(boolean readOnly, Duration timeout) {
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		template.setReadOnly(readOnly);
+		// O Spring só aceita segundos inteiros
+		template.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+		return template;
+	}
+
+	// 57014 = query_canceled, usado pelo PostgreSQL quando o statement_timeout estoura
+	private static boolean isTimeout(Throwable e) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause instanceof QueryTimeoutException || cause instanceof TransactionTimedOutException
+					|| cause instanceof jakarta.persistence.QueryTimeoutException) return true;
+			if (cause instanceof SQLException sql && "57014".equals(sql.getSQLState())) return true;
+		}
+		return false;
+	}
+}
@@ -1,31 +1,80 @@
 package com.app2.productsCatalog.repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.app2.productsCatalog.domain.chart.Chart;
+import com.app2.productsCatalog.domain.money.Money;
 
 public interface ChartRepository extends JpaRepository<Chart, UUID>{
 	
-	interface UserSummary{
-		String getUserName();
-		UUID getUserId();
-		Integer getTotalItems();
-		Double getTotalValue();
+	/**
+	 * Linha do resumo de clientes. As consultas nativas instanciam a classe pelo
+	 * construtor com os tipos das colunas (bigint e numeric); numa projeção por
+	 * interface o Spring Data não converte {@code BigDecimal} em {@link Money}.
+	 * {@code totalItems} fica como {@code Long}, o tipo de {@code SUM} sobre
+	 * {@code bigint}: um cliente acima de {@code Integer.MAX_VALUE} itens não
+	 * pode derrubar a página inteira.
+	 */
+	final class UserSummary{
+		private final String userName;
+		private final UUID userId;
+		private final Long totalItems;
+		private final Money totalValue;
+
+		public UserSummary(String userName, UUID userId, Long totalItems, BigDecimal totalValue){
+			this.userName = userName;
+			this.userId = userId;
+			this.totalItems = totalItems;
+			this.totalValue = Money.of(totalValue);
+		}
+
+		public String getUserName(){
+			return userName;
+		}
+
+		public UUID getUserId(){
+			return userId;
+		}
+
+		public Long getTotalItems(){
+			return totalItems;
+		}
+
+		public Money getTotalValue(){
+			return totalValue;
+		}
+	}
+
+	interface PurchaseHistoryEntry{
+		UUID getId();
+		Instant getCreatedAt();
+		Integer getQtdItens();
+		Money getTotalValue();
 	}
-	@Query(value = """
-			SELECT
-				u.login as userName,
-				c.user_id as userId,
-				SUM(c.qtd_itens) as totalItems,
-				SUM(c.total_value) as totalValue
+	@Query("""
+			SELECT c.id as id, c.createdAt as createdAt, c.qtdItens as qtdItens, c.totalValue as totalValue
+			FROM chart c
+			WHERE c.userId = :userId
+			ORDER BY c.createdAt DESC, c.id DESC
+			""")
+	List<PurchaseHistoryEntry> findHistoryFirstPage(@Param("userId") UUID userId, Limit limit);
+
+	@Query("""
+			SELECT c.id as id, c.createdAt as createdAt, c.qtdItens as qtdItens, c.totalValue as totalValue
 			FROM chart c
-			JOIN users u ON c.user_id = u.id
-			GROUP BY c.user_id, u.login
-			""",
-			nativeQuery = true)
-	List<UserSummary> getUserPurchaseSummary();
+			WHERE c.userId = :userId
+				AND c.createdAt <= :createdAt
+				AND (c.createdAt < :createdAt OR c.id < :id)
+			ORDER BY c.createdAt DESC, c.id DESC
+			""")
+	List<PurchaseHistoryEntry> findHistoryAfter(@Param("userId") UUID userId, @Param("createdAt") Instant createdAt, @Param("id") UUID id, Limit limit);
 }
@@ -1,9 +1,21 @@
 package com.app2.productsCatalog.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import com.app2.productsCatalog.domain.products.ProductView;
 import com.app2.productsCatalog.domain.products.Products;
 
-public interface ProductsRepository extends JpaRepository<Products, String>{
-	Products findByName(String name);
+public interface ProductsRepository extends JpaRepository<Products, String>, ProductsRepositoryCustom{
+
+	// Projeção por construtor: nada entra no contexto de persistência nem no cache de segundo nível
+	@Query("SELECT new com.app2.productsCatalog.domain.products.ProductView(p.id, p.name, p.image_url, p.price, p.stock) FROM products p ORDER BY p.name")
+	List<ProductView> findAllViews();
+
+	// Percorre a chave primária, então o custo é o do limite e não o do catálogo
+	@Query("SELECT p FROM products p ORDER BY p.id")
+	List<Products> findFirstById(Limit limit);
 }
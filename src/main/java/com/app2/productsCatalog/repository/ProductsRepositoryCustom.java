@@ -0,0 +1,26 @@
+package com.app2.productsCatalog.repository;
+
+import java.util.UUID;
+
+import com.app2.productsCatalog.domain.products.Products;
+
+public interface ProductsRepositoryCustom {
+
+	/**
+	 * Busca pelo identificador natural, passando pelo cache de segundo nível.
+	 */
+	Products findByName(String name);
+
+	/**
+	 * Retira {@code quantity} unidades do estoque se houver o suficiente, em uma
+	 * transação própria já confirmada no retorno.
+	 *
+	 * @return 1 se retirou, 0 se o estoque é insuficiente
+	 */
+	int claimStock(UUID id, long quantity);
+
+	/**
+	 * Devolve {@code quantity} unidades ao estoque, em uma transação própria.
+	 */
+	int releaseStock(UUID id, long quantity);
+}
@@ -0,0 +1,63 @@
+package com.app2.productsCatalog.repository;
+
+import java.util.UUID;
+
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app2.productsCatalog.domain.products.Products;
+import com.app2.productsCatalog.infra.datasource.ReadOnlyTransaction;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+
+class ProductsRepositoryCustomImpl implements ProductsRepositoryCustom {
+
+	// Espaço que não corresponde a nenhuma entidade: sem espaço declarado o Hibernate
+	// esvaziaria todas as regiões do cache, e com "products" a região inteira do catálogo
+	private static final String STOCK_QUERY_SPACE = "products_stock";
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Override
+	@ReadOnlyTransaction
+	public Products findByName(String name) {
+		return entityManager.unwrap(Session.class).bySimpleNaturalId(Products.class).load(name);
+	}
+
+	@Override
+	public int claimStock(UUID id, long quantity) {
+		return updateStock("UPDATE products SET stock = stock - :quantity WHERE id = :id AND stock >= :quantity", id, quantity);
+	}
+
+	@Override
+	public int releaseStock(UUID id, long quantity) {
+		return updateStock("UPDATE products SET stock = stock + :quantity WHERE id = :id", id, quantity);
+	}
+
+	// Só o produto alterado sai do cache, depois do commit; os demais nós o descartam pelo NOTIFY da linha
+	private int updateStock(String sql, UUID id, long quantity) {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		Integer updated = transaction.execute(status -> entityManager.createNativeQuery(sql)
+				.unwrap(NativeQuery.class)
+				.addSynchronizedQuerySpace(STOCK_QUERY_SPACE)
+				.setParameter("id", id)
+				.setParameter("quantity", quantity)
+				.executeUpdate());
+		if (updated != null && updated > 0) entityManagerFactory.getCache().evict(Products.class, id);
+		return updated == null ? 0 : updated;
+	}
+}
@@ -0,0 +1,17 @@
+package com.app2.productsCatalog.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.app2.productsCatalog.domain.promotion.Promotion;
+
+public interface PromotionRepository extends JpaRepository<Promotion, UUID>{
+
+	List<Promotion> findByActiveTrue();
+
+	@Query(value = "SELECT CONCAT(COUNT(*), '/', MAX(updated_at)) FROM promotions", nativeQuery = true)
+	String currentVersion();
+}
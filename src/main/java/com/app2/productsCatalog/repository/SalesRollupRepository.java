@@ -0,0 +1,48 @@
+package com.app2.productsCatalog.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.app2.productsCatalog.domain.sales.SalesBucket;
+import com.app2.productsCatalog.domain.sales.SalesBucketSize;
+import com.app2.productsCatalog.domain.sales.SalesRollup;
+import com.app2.productsCatalog.domain.sales.SalesRollupId;
+
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, SalesRollupId>{
+
+	@Modifying
+	@Transactional
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "sales_rollups"))
+	@Query(value = """
+			INSERT INTO sales_rollups (granularity, bucket_start, orders, items, total_value)
+			VALUES (:granularity, :bucketStart, :orders, :items, :value)
+			ON CONFLICT (granularity, bucket_start) DO UPDATE SET
+				orders = sales_rollups.orders + EXCLUDED.orders,
+				items = sales_rollups.items + EXCLUDED.items,
+				total_value = sales_rollups.total_value + EXCLUDED.total_value
+			""",
+			nativeQuery = true)
+	int increment(@Param("granularity") String granularity, @Param("bucketStart") Instant bucketStart,
+			@Param("orders") long orders, @Param("items") long items, @Param("value") BigDecimal value);
+
+	@Query("""
+			SELECT new com.app2.productsCatalog.domain.sales.SalesBucket(r.id.bucketStart, r.orders, r.items, r.totalValue)
+			FROM sales_rollups r
+			WHERE r.id.granularity = :granularity
+				AND r.id.bucketStart >= :from
+				AND r.id.bucketStart < :to
+			ORDER BY r.id.bucketStart
+			""")
+	List<SalesBucket> findBuckets(@Param("granularity") SalesBucketSize granularity, @Param("from") Instant from, @Param("to") Instant to);
+}
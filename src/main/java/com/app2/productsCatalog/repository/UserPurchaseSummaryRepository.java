@@ -0,0 +1,213 @@
+package com.app2.productsCatalog.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.app2.productsCatalog.domain.chart.UserPurchaseSummary;
+import com.app2.productsCatalog.repository.ChartRepository.UserSummary;
+
+import jakarta.persistence.QueryHint;
+
+public interface UserPurchaseSummaryRepository extends JpaRepository<UserPurchaseSummary, UUID>{
+
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_purchase_summary"))
+	@Query(value = """
+			INSERT INTO user_purchase_summary (user_id, total_items, total_value, purchase_count, last_purchase_at)
+			VALUES (:userId, :items, :value, 1, now())
+			ON CONFLICT (user_id) DO UPDATE SET
+				total_items = user_purchase_summary.total_items + EXCLUDED.total_items,
+				total_value = user_purchase_summary.total_value + EXCLUDED.total_value,
+				purchase_count = user_purchase_summary.purchase_count + 1,
+				last_purchase_at = GREATEST(user_purchase_summary.last_purchase_at, EXCLUDED.last_purchase_at)
+			""",
+			nativeQuery = true)
+	int increment(@Param("userId") UUID userId, @Param("items") long items, @Param("value") BigDecimal value);
+
+	@Query(value = """
+			SELECT
+				u.login as userName,
+				s.user_id as userId,
+				s.total_items as totalItems,
+				s.total_value as totalValue
+			FROM user_purchase_summary s
+			JOIN users u ON s.user_id = u.id
+			WHERE (s.total_value, s.user_id) < (:totalValue, :userId)
+			ORDER BY s.total_value DESC, s.user_id DESC
+			LIMIT :limit
+			""",
+			nativeQuery = true)
+	List<UserSummary> findTopByTotalValue(@Param("totalValue") BigDecimal totalValue, @Param("userId") UUID userId, @Param("limit") int limit);
+
+	@Query(value = """
+			SELECT
+				u.login as userName,
+				s.user_id as userId,
+				s.total_items as totalItems,
+				s.total_value as totalValue
+			FROM user_purchase_summary s
+			JOIN users u ON s.user_id = u.id
+			WHERE (s.total_items, s.user_id) < (:totalItems, :userId)
+			ORDER BY s.total_items DESC, s.user_id DESC
+			LIMIT :limit
+			""",
+			nativeQuery = true)
+	List<UserSummary> findTopByTotalItems(@Param("totalItems") long totalItems, @Param("userId") UUID userId, @Param("limit") int limit);
+
+	@Query(value = """
+			SELECT
+				u.login as userName,
+				s.user_id as userId,
+				s.total_items as totalItems,
+				s.total_value as totalValue
+			FROM users u
+			JOIN user_purchase_summary s ON s.user_id = u.id
+			WHERE u.login > :login
+			ORDER BY u.login
+			LIMIT :limit
+			""",
+			nativeQuery = true)
+	List<UserSummary> findPageByLogin(@Param("login") String login, @Param("limit") int limit);
+
+	/**
+	 * Bloqueia escritas em {@code chart} até o fim da transação, para que nenhum
+	 * incremento concorrente seja sobrescrito por {@link #rebuildFromHistory()}.
+	 */
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "chart"))
+	@Query(value = "LOCK TABLE chart IN SHARE MODE", nativeQuery = true)
+	void lockHistory();
+
+	/**
+	 * Recalcula todos os totais a partir de {@code chart}.
+	 */
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_purchase_summary"))
+	@Query(value = """
+			INSERT INTO user_purchase_summary (user_id, total_items, total_value, purchase_count, last_purchase_at)
+			SELECT user_id, SUM(qtd_itens), SUM(total_value), COUNT(*), MAX(created_at)
+			FROM chart
+			GROUP BY user_id
+			ON CONFLICT (user_id) DO UPDATE SET
+				total_items = EXCLUDED.total_items,
+				total_value = EXCLUDED.total_value,
+				purchase_count = EXCLUDED.purchase_count,
+				last_purchase_at = EXCLUDED.last_purchase_at
+			""",
+			nativeQuery = true)
+	int rebuildFromHistory();
+
+	/**
+	 * Como {@link #rebuildFromHistory()}, somando também os totais do arquivo morto
+	 * carregados na tabela temporária {@code archived_chart_totals}.
+	 */
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_purchase_summary"))
+	@Query(value = """
+			INSERT INTO user_purchase_summary (user_id, total_items, total_value, purchase_count, last_purchase_at)
+			SELECT user_id, SUM(total_items), SUM(total_value), SUM(purchase_count), MAX(last_purchase_at)
+			FROM (
+				SELECT user_id, qtd_itens as total_items, total_value, 1 as purchase_count, created_at as last_purchase_at
+				FROM chart
+				UNION ALL
+				SELECT user_id, total_items, total_value, purchase_count, last_purchase_at
+				FROM archived_chart_totals
+			) h
+			GROUP BY user_id
+			ON CONFLICT (user_id) DO UPDATE SET
+				total_items = EXCLUDED.total_items,
+				total_value = EXCLUDED.total_value,
+				purchase_count = EXCLUDED.purchase_count,
+				last_purchase_at = EXCLUDED.last_purchase_at
+			""",
+			nativeQuery = true)
+	int rebuildFromHistoryAndArchive();
+
+	/**
+	 * Remove os resumos de usuários que não têm mais nenhuma compra em {@code chart}
+	 * (ex.: linhas apagadas), que o upsert de {@link #rebuildFromHistory()} não alcança.
+	 */
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_purchase_summary"))
+	@Query(value = """
+			DELETE FROM user_purchase_summary s
+			WHERE NOT EXISTS (SELECT 1 FROM chart c WHERE c.user_id = s.user_id)
+			""",
+			nativeQuery = true)
+	int deleteWithoutHistory();
+
+	/**
+	 * Como {@link #deleteWithoutHistory()}, mantendo os usuários que só têm
+	 * compras no arquivo morto ({@code archived_chart_totals}).
+	 */
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_purchase_summary"))
+	@Query(value = """
+			DELETE FROM user_purchase_summary s
+			WHERE NOT EXISTS (SELECT 1 FROM chart c WHERE c.user_id = s.user_id)
+				AND NOT EXISTS (SELECT 1 FROM archived_chart_totals a WHERE a.user_id = s.user_id)
+			""",
+			nativeQuery = true)
+	int deleteWithoutHistoryOrArchive();
+
+	interface SummaryMismatch{
+		UUID getUserId();
+		Long getSummaryItems();
+		Long getActualItems();
+		BigDecimal getSummaryValue();
+		BigDecimal getActualValue();
+	}
+	@Query(value = """
+			SELECT
+				COALESCE(s.user_id, a.user_id) as userId,
+				s.total_items as summaryItems,
+				a.total_items as actualItems,
+				s.total_value as summaryValue,
+				a.total_value as actualValue
+			FROM user_purchase_summary s
+			FULL OUTER JOIN (
+				SELECT user_id, SUM(qtd_itens) as total_items, SUM(total_value) as total_value
+				FROM chart
+				GROUP BY user_id
+			) a ON a.user_id = s.user_id
+			WHERE s.user_id IS NULL
+				OR a.user_id IS NULL
+				OR s.total_items <> a.total_items
+				OR s.total_value <> a.total_value
+			""",
+			nativeQuery = true)
+	List<SummaryMismatch> findMismatches();
+
+	@Query(value = """
+			SELECT
+				COALESCE(s.user_id, a.user_id) as userId,
+				s.total_items as summaryItems,
+				a.total_items as actualItems,
+				s.total_value as summaryValue,
+				a.total_value as actualValue
+			FROM user_purchase_summary s
+			FULL OUTER JOIN (
+				SELECT user_id, SUM(total_items) as total_items, SUM(total_value) as total_value
+				FROM (
+					SELECT user_id, qtd_itens as total_items, total_value FROM chart
+					UNION ALL
+					SELECT user_id, total_items, total_value FROM archived_chart_totals
+				) h
+				GROUP BY user_id
+			) a ON a.user_id = s.user_id
+			WHERE s.user_id IS NULL
+				OR a.user_id IS NULL
+				OR s.total_items <> a.total_items
+				OR s.total_value <> a.total_value
+			""",
+			nativeQuery = true)
+	List<SummaryMismatch> findMismatchesWithArchive();
+}
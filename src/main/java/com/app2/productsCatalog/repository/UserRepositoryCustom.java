@@ -0,0 +1,11 @@
+package com.app2.productsCatalog.repository;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+public interface UserRepositoryCustom {
+
+	/**
+	 * Busca pelo identificador natural, passando pelo cache de segundo nível.
+	 */
+	UserDetails findByLogin(String login);
+}
@@ -0,0 +1,22 @@
+package com.app2.productsCatalog.repository;
+
+import org.hibernate.Session;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.app2.productsCatalog.domain.user.User;
+import com.app2.productsCatalog.infra.datasource.ReadOnlyTransaction;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	@ReadOnlyTransaction
+	public UserDetails findByLogin(String login) {
+		return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).load(login);
+	}
+}
@@ -7,6 +7,8 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import com.app2.productsCatalog.infra.workload.WorkloadClass;
+import com.app2.productsCatalog.infra.workload.Workloads;
 import com.app2.productsCatalog.repository.UserRepository;
 
 
@@ -16,10 +18,13 @@ public class AuthorizationService implements UserDetailsService{
 	@Autowired
 	UserRepository repository;
 
+	@Autowired
+	private Workloads workloads;
+
 
 	@Override
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-		return repository.findByLogin(username);
+		return workloads.execute(WorkloadClass.AUTH, true, status -> repository.findByLogin(username));
 	}
 
 }
@@ -0,0 +1,212 @@
+package com.app2.productsCatalog.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app2.productsCatalog.domain.money.Money;
+import com.app2.productsCatalog.domain.products.ProductView;
+import com.app2.productsCatalog.infra.cache.CacheInvalidation;
+import com.app2.productsCatalog.infra.cache.CacheInvalidationBus;
+import com.app2.productsCatalog.infra.snapshot.CatalogSnapshotReader;
+import com.app2.productsCatalog.infra.snapshot.CatalogSnapshotWriter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Snapshot binário do catálogo em disco ({@code catalog.snapshot.path}) para
+ * reinícios com o catálogo já disponível.
+ *
+ * Na inicialização o snapshot é mapeado em memória e passa a responder
+ * {@code GET /product} antes de qualquer consulta ao banco. Enquanto ele
+ * responde, o readiness fica UP mesmo com o {@link StartupWarmup} em
+ * andamento (ver {@code WarmupHealthIndicator}): é isso que permite à instância
+ * receber tráfego logo após o reinício. A reconciliação com o banco só roda
+ * quando o aquecimento termina (ou na inicialização, se ele estiver
+ * desligado): compara a versão do snapshot com a de {@code catalog_version}
+ * (V16), regrava o arquivo e devolve as leituras ao banco, já aquecido.
+ * Qualquer alteração em {@code products} notificada pelo
+ * {@link CacheInvalidationBus} antes disso também descarta o snapshot.
+ *
+ * O estoque não entra na versão, então o gravado pode estar defasado. Para
+ * limitar isso o arquivo é regravado a cada {@code catalog.snapshot.interval-ms},
+ * mesmo sem mudança de versão, e na inicialização um arquivo mais antigo que
+ * {@code catalog.snapshot.max-age} é ignorado. A compra nunca usa esse valor:
+ * a retirada de estoque é um UPDATE condicional no banco.
+ *
+ * Métricas: {@code catalog.snapshot.serving} e {@code catalog.snapshot.writes}.
+ */
+@Service
+public class CatalogSnapshotService {
+
+	private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+	private record Capture(long version, List<ProductView> products) {}
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private CacheInvalidationBus bus;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${catalog.snapshot.enabled:true}")
+	private boolean enabled;
+
+	@Value("${catalog.snapshot.path:data/catalog.snapshot}")
+	private String path;
+
+	@Value("${catalog.snapshot.max-age:15m}")
+	private Duration maxAge;
+
+	@Value("${warmup.enabled:true}")
+	private boolean warmupEnabled;
+
+	private volatile List<ProductView> serving;
+
+	private volatile long writtenVersion = -1;
+
+	private Counter writes;
+
+	@PostConstruct
+	void load() {
+		writes = Counter.builder("catalog.snapshot.writes").register(meterRegistry);
+		Gauge.builder("catalog.snapshot.serving", this, s -> s.serving != null ? 1 : 0).register(meterRegistry);
+		if (!enabled) return;
+
+		bus.subscribe("products", new CacheInvalidationBus.Subscriber() {
+			@Override
+			public void accept(CacheInvalidation invalidation) {
+				discard("product " + invalidation.key() + " changed");
+			}
+
+			// Reconexões não dizem o que mudou; a reconciliação compara as versões
+			@Override
+			public void flush() {
+			}
+		});
+
+		Path file = Paths.get(path);
+		if (!Files.exists(file)) return;
+		try {
+			long start = System.currentTimeMillis();
+			CatalogSnapshotReader snapshot = new CatalogSnapshotReader(file);
+			long age = System.currentTimeMillis() - snapshot.writtenAt();
+			if (age > maxAge.toMillis()) {
+				log.info("Ignoring catalog snapshot written {} s ago, older than {}", age / 1000, maxAge);
+				return;
+			}
+			serving = List.copyOf(snapshot.products());
+			writtenVersion = snapshot.catalogVersion();
+			log.info("Serving catalog snapshot version {} ({} products, loaded in {} ms)", snapshot.catalogVersion(),
+					snapshot.rows(), System.currentTimeMillis() - start);
+		} catch (IOException e) {
+			log.warn("Ignoring unreadable catalog snapshot {}: {}", file, e.getMessage());
+		}
+	}
+
+	/**
+	 * Catálogo do snapshot enquanto ele ainda não foi reconciliado com o banco, ou null.
+	 */
+	public List<ProductView> serving() {
+		return serving;
+	}
+
+	// Com o aquecimento ligado, quem reconcilia é o StartupWarmup, ao terminar
+	@EventListener(ApplicationReadyEvent.class)
+	void reconcileOnStartup() {
+		if (!warmupEnabled) reconcileInBackground();
+	}
+
+	/**
+	 * Reconcilia em uma thread própria; sem efeito se o snapshot estiver desligado.
+	 */
+	public void reconcileInBackground() {
+		if (!enabled) return;
+		Thread reconciler = new Thread(() -> {
+			try {
+				reconcile();
+			} catch (RuntimeException e) {
+				discard("reconciliation failed: " + e.getMessage());
+			}
+		}, "catalog-snapshot-reconcile");
+		reconciler.setDaemon(true);
+		reconciler.start();
+	}
+
+	/**
+	 * Compara o snapshot com o banco, regrava o arquivo (o estoque pode ter
+	 * mudado mesmo com a versão igual) e passa a responder as leituras pelo banco.
+	 */
+	public void reconcile() {
+		Capture capture = capture();
+		boolean current = capture.version() == writtenVersion;
+		write(capture);
+		serving = null;
+		log.info("Catalog snapshot reconciled with version {} ({})", capture.version(), current ? "current" : "changed");
+	}
+
+	// Regrava mesmo sem mudança de versão: é o que limita a defasagem do estoque
+	@Scheduled(fixedDelayString = "${catalog.snapshot.interval-ms:300000}", initialDelayString = "${catalog.snapshot.interval-ms:300000}")
+	public void refresh() {
+		if (!enabled) return;
+		write(capture());
+	}
+
+	private void discard(String reason) {
+		if (serving == null) return;
+		serving = null;
+		log.info("Discarding catalog snapshot: {}", reason);
+	}
+
+	// Versão e linhas na mesma fotografia do banco
+	private Capture capture() {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setReadOnly(true);
+		transaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+		return transaction.execute(status -> new Capture(version(), jdbcTemplate.query(
+				"SELECT id, name, image_url, price, stock FROM products ORDER BY name",
+				(rs, i) -> new ProductView(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3),
+						Money.of(rs.getBigDecimal(4)), rs.getInt(5)))));
+	}
+
+	private long version() {
+		return jdbcTemplate.queryForObject("SELECT version FROM catalog_version", Long.class);
+	}
+
+	private synchronized void write(Capture capture) {
+		try {
+			CatalogSnapshotWriter.write(Paths.get(path), capture.version(), capture.products());
+			writtenVersion = capture.version();
+			writes.increment();
+			log.info("Catalog snapshot written: version {}, {} products", capture.version(), capture.products().size());
+		} catch (IOException e) {
+			log.warn("Failed to write catalog snapshot {}: {}", path, e.getMessage());
+		}
+	}
+}
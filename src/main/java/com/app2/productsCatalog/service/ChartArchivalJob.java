@@ -0,0 +1,145 @@
+package com.app2.productsCatalog.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app2.productsCatalog.domain.money.Money;
+import com.app2.productsCatalog.infra.archive.ArchivedChartRow;
+import com.app2.productsCatalog.infra.archive.ChartArchive;
+import com.app2.productsCatalog.infra.archive.ChartSegmentWriter;
+
+/**
+ * Move as linhas de {@code chart} mais antigas que {@code archive.chart.max-age}
+ * para segmentos comprimidos ({@link ChartArchive}).
+ *
+ * Cada lote de até {@code archive.chart.batch-size} linhas é removido com
+ * {@code DELETE ... RETURNING} e gravado em um segmento; o segmento é
+ * sincronizado no disco e registrado no catálogo antes do commit, então uma
+ * falha em qualquer ponto desfaz o lote inteiro e as linhas continuam em
+ * {@code chart}.
+ */
+@Component
+public class ChartArchivalJob {
+
+	private static final Logger log = LoggerFactory.getLogger(ChartArchivalJob.class);
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ChartArchive archive;
+
+	@Value("${archive.chart.enabled:false}")
+	private boolean enabled;
+
+	@Value("${archive.chart.max-age:365d}")
+	private Duration maxAge;
+
+	@Value("${archive.chart.batch-size:5000}")
+	private int batchSize;
+
+	@Value("${archive.chart.max-batches-per-run:200}")
+	private int maxBatchesPerRun;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	@Scheduled(cron = "${archive.chart.cron:0 0 4 * * *}")
+	public void scheduledRun() {
+		if (enabled) run();
+	}
+
+	/**
+	 * Arquiva lotes até não restarem linhas expiradas ou até o limite de lotes por execução.
+	 *
+	 * @return quantidade de linhas arquivadas
+	 */
+	public long run() {
+		if (!running.compareAndSet(false, true)) {
+			log.info("Chart archival already running, skipping");
+			return 0;
+		}
+		try {
+			Files.createDirectories(archive.directory());
+			archive.removeOrphans();
+
+			Instant cutoff = Instant.now().minus(maxAge);
+			long start = System.currentTimeMillis();
+			long archived = 0;
+			for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+				int rows = archiveBatch(cutoff);
+				archived += rows;
+				if (rows < batchSize) break;
+			}
+			if (archived > 0) {
+				log.info("Chart archival moved {} rows older than {} in {} ms", archived, cutoff, System.currentTimeMillis() - start);
+			}
+			return archived;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Chart archival failed", e);
+		} finally {
+			running.set(false);
+		}
+	}
+
+	private int archiveBatch(Instant cutoff) {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		Integer rows = transaction.execute(status -> {
+			List<ArchivedChartRow> batch = jdbcTemplate.query("""
+					DELETE FROM chart
+					WHERE (id, created_at) IN (
+						SELECT id, created_at FROM chart WHERE created_at < ? LIMIT ?
+					)
+					RETURNING id, user_id, qtd_itens, total_value, created_at
+					""",
+					(rs, i) -> new ArchivedChartRow(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class), rs.getInt(3),
+							Money.of(rs.getBigDecimal(4)).minorUnits(), rs.getTimestamp(5).getTime()),
+					Timestamp.from(cutoff), batchSize);
+			if (batch.isEmpty()) return 0;
+
+			String fileName = archive.newSegmentName();
+			Path path = archive.path(fileName);
+			try {
+				ChartSegmentWriter.write(path, batch);
+				archive.register(fileName);
+			} catch (IOException e) {
+				deleteQuietly(path, e);
+				throw new UncheckedIOException("Failed to write chart archive segment " + fileName, e);
+			} catch (RuntimeException e) {
+				deleteQuietly(path, e);
+				throw e;
+			}
+			return batch.size();
+		});
+		return rows == null ? 0 : rows;
+	}
+
+	// O lote será desfeito: o segmento gravado não pode ficar para trás
+	private static void deleteQuietly(Path path, Exception cause) {
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException e) {
+			cause.addSuppressed(e);
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package com.app2.productsCatalog.service;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Manutenção das partições mensais de {@code chart} (ver {@code V12__partition-chart-by-month.sql}).
+ *
+ * Pré-cria as partições dos próximos {@code chart.partitions.months-ahead} meses
+ * e, se {@code chart.partitions.retention-months} for maior que zero, desanexa
+ * as partições inteiramente mais antigas que a retenção. Partições desanexadas
+ * continuam existindo como tabelas comuns até serem arquivadas ou removidas.
+ */
+@Component
+public class ChartPartitionMaintenance {
+
+	private static final Logger log = LoggerFactory.getLogger(ChartPartitionMaintenance.class);
+
+	private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Value("${chart.partitions.months-ahead:3}")
+	private int monthsAhead;
+
+	@Value("${chart.partitions.retention-months:0}")
+	private int retentionMonths;
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(cron = "${chart.partitions.cron:0 30 2 * * *}")
+	public void maintain() {
+		YearMonth current = YearMonth.now(ZoneOffset.UTC);
+		List<String> created = createAhead(current);
+		List<String> detached = retentionMonths > 0 ? detachBefore(current.minusMonths(retentionMonths)) : List.of();
+		if (!created.isEmpty() || !detached.isEmpty()) {
+			log.info("Chart partitions maintained: created {}, detached {}", created, detached);
+		}
+	}
+
+	/**
+	 * Garante as partições de {@code current} até {@code current + monthsAhead}.
+	 */
+	public List<String> createAhead(YearMonth current) {
+		List<String> created = new ArrayList<>();
+		for (int i = 0; i <= monthsAhead; i++) {
+			YearMonth month = current.plusMonths(i);
+			if (exists(partitionName(month))) continue;
+			created.add(jdbcTemplate.queryForObject("SELECT create_chart_partition(?)", String.class,
+					month.atDay(1)));
+		}
+		return created;
+	}
+
+	/**
+	 * Desanexa as partições mensais cujo mês é anterior a {@code oldestKept}.
+	 */
+	public List<String> detachBefore(YearMonth oldestKept) {
+		List<String> detached = new ArrayList<>();
+		for (String partition : attachedPartitions()) {
+			YearMonth month = monthOf(partition);
+			if (month == null || !month.isBefore(oldestKept)) continue;
+			jdbcTemplate.execute("ALTER TABLE chart DETACH PARTITION \"" + partition + "\"");
+			detached.add(partition);
+		}
+		return detached;
+	}
+
+	public List<String> attachedPartitions() {
+		return jdbcTemplate.queryForList("""
+				SELECT c.relname
+				FROM pg_inherits i
+				JOIN pg_class c ON c.oid = i.inhrelid
+				WHERE i.inhparent = 'chart'::regclass
+				ORDER BY c.relname
+				""", String.class);
+	}
+
+	public static String partitionName(YearMonth month) {
+		return "chart_" + month.format(PARTITION_SUFFIX);
+	}
+
+	static YearMonth monthOf(String partition) {
+		if (!partition.matches("chart_\\d{4}_\\d{2}")) return null;
+		return YearMonth.parse(partition.substring("chart_".length()), PARTITION_SUFFIX);
+	}
+
+	private boolean exists(String table) {
+		return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+	}
+}
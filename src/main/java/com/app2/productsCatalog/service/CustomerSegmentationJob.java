@@ -0,0 +1,255 @@
+package com.app2.productsCatalog.service;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app2.productsCatalog.domain.money.Money;
+import com.app2.productsCatalog.domain.segmentation.CustomerSegment;
+import com.app2.productsCatalog.infra.segmentation.QuantileHistogram;
+import com.app2.productsCatalog.infra.segmentation.RfmAccumulator;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Segmentação RFM (recência, frequência e valor) de todos os clientes.
+ *
+ * O job percorre {@code chart} em partições pelo último byte de {@code user_id}
+ * (índice {@code idx_chart_user_bucket}), de modo que cada partição contém
+ * usuários disjuntos e só ela precisa estar em memória. Os bits altos não
+ * servem: em UUIDv7 eles são o timestamp, e os usuários de anos inteiros
+ * cairiam na mesma partição. O último byte é aleatório nas duas versões. As partições são processadas em paralelo em um {@link ForkJoinPool}
+ * dedicado, em duas passadas:
+ * <ol>
+ * <li>calcula R, F e M de cada usuário e alimenta histogramas de tamanho fixo,
+ * dos quais saem os quintis globais;</li>
+ * <li>recalcula a partição, atribui as notas de 1 a 5 e grava os segmentos em
+ * {@code customer_segments} com upserts em lote.</li>
+ * </ol>
+ * A memória é limitada por {@code parallelism × usuários por partição}, não
+ * pelo total de usuários.
+ */
+@Component
+public class CustomerSegmentationJob {
+
+	private static final Logger log = LoggerFactory.getLogger(CustomerSegmentationJob.class);
+
+	private static final String UPSERT = """
+			INSERT INTO customer_segments (user_id, recency_days, frequency, monetary, r_score, f_score, m_score, segment, computed_at)
+			VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+			ON CONFLICT (user_id) DO UPDATE SET
+				recency_days = EXCLUDED.recency_days,
+				frequency = EXCLUDED.frequency,
+				monetary = EXCLUDED.monetary,
+				r_score = EXCLUDED.r_score,
+				f_score = EXCLUDED.f_score,
+				m_score = EXCLUDED.m_score,
+				segment = EXCLUDED.segment,
+				computed_at = EXCLUDED.computed_at
+			""";
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${segmentation.enabled:true}")
+	private boolean enabled;
+
+	@Value("${segmentation.partitions:256}")
+	private int partitions;
+
+	@Value("${segmentation.parallelism:4}")
+	private int parallelism;
+
+	@Value("${segmentation.fetch-size:10000}")
+	private int fetchSize;
+
+	@Value("${segmentation.batch-size:1000}")
+	private int batchSize;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+	private final AtomicLong rowsScanned = new AtomicLong();
+	private final AtomicLong usersWritten = new AtomicLong();
+	private final AtomicInteger partitionsDone = new AtomicInteger();
+
+	private JdbcTemplate jdbcTemplate;
+	private Timer duration;
+
+	@PostConstruct
+	void init() {
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.setFetchSize(fetchSize);
+		// Um byte de user_id comporta no máximo 256 partições
+		partitions = Integer.highestOneBit(Math.max(1, Math.min(256, partitions)));
+
+		Gauge.builder("segmentation.rows.scanned", rowsScanned, AtomicLong::get).register(meterRegistry);
+		Gauge.builder("segmentation.users.written", usersWritten, AtomicLong::get).register(meterRegistry);
+		Gauge.builder("segmentation.partitions.completed", partitionsDone, AtomicInteger::get).register(meterRegistry);
+		Gauge.builder("segmentation.running", running, r -> r.get() ? 1 : 0).register(meterRegistry);
+		duration = Timer.builder("segmentation.duration").register(meterRegistry);
+	}
+
+	@Scheduled(cron = "${segmentation.cron:0 0 3 * * *}")
+	public void scheduledRun() {
+		if (enabled) run();
+	}
+
+	/**
+	 * Executa a segmentação completa. Ignora a chamada se já houver uma execução em andamento.
+	 *
+	 * @return true se a execução ocorreu
+	 */
+	public boolean run() {
+		if (!running.compareAndSet(false, true)) {
+			log.info("Customer segmentation already running, skipping");
+			return false;
+		}
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		long start = System.nanoTime();
+		long now = System.currentTimeMillis() / 1000;
+		try {
+			rowsScanned.set(0);
+			usersWritten.set(0);
+			partitionsDone.set(0);
+
+			QuantileHistogram[] histograms = pool.submit(() -> IntStream.range(0, partitions).parallel()
+					.mapToObj(p -> histograms(scan(p), now))
+					.reduce(CustomerSegmentationJob::merge)
+					.orElseGet(CustomerSegmentationJob::emptyHistograms)).get();
+			long[][] cuts = { histograms[0].cutPoints(5), histograms[1].cutPoints(5), histograms[2].cutPoints(5) };
+			log.info("Customer segmentation pass 1 done: {} users, {} rows in {} ms",
+					histograms[0].total(), rowsScanned.get(), (System.nanoTime() - start) / 1_000_000);
+
+			partitionsDone.set(0);
+			Timestamp computedAt = new Timestamp(now * 1000);
+			pool.submit(() -> IntStream.range(0, partitions).parallel()
+					.forEach(p -> write(scan(p), cuts, now, computedAt))).get();
+
+			long elapsed = System.nanoTime() - start;
+			duration.record(elapsed, TimeUnit.NANOSECONDS);
+			log.info("Customer segmentation finished: {} users written, {} rows scanned in {} ms ({} rows/s)",
+					usersWritten.get(), rowsScanned.get(), elapsed / 1_000_000,
+					rowsScanned.get() * 1_000_000_000L / Math.max(elapsed, 1));
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Customer segmentation interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Customer segmentation failed", e.getCause());
+		} finally {
+			pool.shutdown();
+			running.set(false);
+		}
+	}
+
+	/**
+	 * Lê a partição {@code index} com um cursor no servidor (fetch size) e acumula R, F e M.
+	 */
+	RfmAccumulator scan(int index) {
+		int width = 256 / partitions;
+		RfmAccumulator accumulator = new RfmAccumulator(1024);
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setReadOnly(true);
+		transaction.executeWithoutResult(status -> jdbcTemplate.query(
+				"SELECT user_id, created_at, total_value FROM chart WHERE get_byte(uuid_send(user_id), 15) BETWEEN ? AND ?",
+				rs -> {
+					UUID userId = rs.getObject(1, UUID.class);
+					accumulator.add(userId.getMostSignificantBits(), userId.getLeastSignificantBits(),
+							rs.getTimestamp(2).getTime() / 1000, Money.of(rs.getBigDecimal(3)).minorUnits());
+					rowsScanned.incrementAndGet();
+				},
+				index * width, (index + 1) * width - 1));
+		return accumulator;
+	}
+
+	private QuantileHistogram[] histograms(RfmAccumulator accumulator, long now) {
+		QuantileHistogram[] histograms = emptyHistograms();
+		accumulator.forEach((userId, lastPurchase, frequency, monetary) -> {
+			histograms[0].add(recencyDays(now, lastPurchase));
+			histograms[1].add(frequency);
+			histograms[2].add(monetary);
+		});
+		progress();
+		return histograms;
+	}
+
+	private void write(RfmAccumulator accumulator, long[][] cuts, long now, Timestamp computedAt) {
+		List<Object[]> batch = new ArrayList<>(batchSize);
+		accumulator.forEach((userId, lastPurchase, frequency, monetary) -> {
+			int recency = recencyDays(now, lastPurchase);
+			// Recência menor é melhor: a nota é invertida
+			int r = 6 - score(recency, cuts[0]);
+			int f = score(frequency, cuts[1]);
+			int m = score(monetary, cuts[2]);
+			batch.add(new Object[] { userId, recency, frequency, Money.ofMinor(monetary).toBigDecimal(),
+					r, f, m, CustomerSegment.classify(r, f, m).name(), computedAt });
+			if (batch.size() == batchSize) flush(batch);
+		});
+		flush(batch);
+		progress();
+	}
+
+	private void flush(List<Object[]> batch) {
+		if (batch.isEmpty()) return;
+		jdbcTemplate.batchUpdate(UPSERT, batch, batch.size(), (PreparedStatement ps, Object[] row) -> {
+			for (int i = 0; i < row.length; i++) ps.setObject(i + 1, row[i]);
+		});
+		usersWritten.addAndGet(batch.size());
+		batch.clear();
+	}
+
+	private void progress() {
+		int done = partitionsDone.incrementAndGet();
+		if (done % Math.max(1, partitions / 10) == 0) {
+			log.info("Customer segmentation progress: {}/{} partitions, {} rows scanned", done, partitions, rowsScanned.get());
+		}
+	}
+
+	private static int score(long value, long[] cuts) {
+		int score = 1;
+		for (long cut : cuts) if (value > cut) score++;
+		return score;
+	}
+
+	private static int recencyDays(long now, long lastPurchase) {
+		return (int) Math.max(0, (now - lastPurchase) / 86_400);
+	}
+
+	private static QuantileHistogram[] merge(QuantileHistogram[] a, QuantileHistogram[] b) {
+		for (int i = 0; i < a.length; i++) a[i].merge(b[i]);
+		return a;
+	}
+
+	private static QuantileHistogram[] emptyHistograms() {
+		return new QuantileHistogram[] { new QuantileHistogram(), new QuantileHistogram(), new QuantileHistogram() };
+	}
+}
@@ -1,29 +1,50 @@
 package com.app2.productsCatalog.service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import com.app2.productsCatalog.domain.chart.Chart;
+import com.app2.productsCatalog.domain.chart.ClientSummaryPage;
+import com.app2.productsCatalog.domain.chart.ClientSummarySort;
 import com.app2.productsCatalog.domain.chart.CreateChartDTO;
+import com.app2.productsCatalog.domain.chart.PurchaseHistoryPage;
+import com.app2.productsCatalog.domain.money.Money;
 import com.app2.productsCatalog.domain.products.CreateProductDTO;
+import com.app2.productsCatalog.domain.products.ProductView;
 import com.app2.productsCatalog.domain.products.Products;
+import com.app2.productsCatalog.domain.sales.LiveClientsReport;
+import com.app2.productsCatalog.domain.sales.SalesBucket;
+import com.app2.productsCatalog.domain.sales.SalesBucketSize;
 import com.app2.productsCatalog.domain.user.User;
+import com.app2.productsCatalog.infra.coalescing.SingleFlight;
+import com.app2.productsCatalog.infra.workload.WorkloadClass;
+import com.app2.productsCatalog.infra.workload.Workloads;
 import com.app2.productsCatalog.repository.ChartRepository;
-import com.app2.productsCatalog.repository.ChartRepository.UserSummary;
+import com.app2.productsCatalog.repository.ChartRepository.PurchaseHistoryEntry;
 import com.app2.productsCatalog.repository.ProductsRepository;
 import com.app2.productsCatalog.repository.UserRepository;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 
 @Service
 public class ProductsService {
+
+	private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+	private static final int MAX_CLIENTS_PAGE_SIZE = 1000;
 	
 	@Autowired
 	private UserRepository userRepository;
@@ -33,42 +54,150 @@ public class ProductsService {
 	
 	@Autowired
 	private ChartRepository chartRepository;
+
+	@Autowired
+	private StockReservationService stockReservation;
+
+	@Autowired
+	private PromotionEngine promotionEngine;
+
+	@Autowired
+	private PurchaseSummaryService purchaseSummaryService;
+
+	@Autowired
+	private SalesRollupService salesRollupService;
+
+	@Autowired
+	private SalesSketchService salesSketchService;
+
+	@Autowired
+	private Workloads workloads;
+
+	@Autowired
+	private CatalogSnapshotService catalogSnapshot;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${coalescing.timeout:5s}")
+	private Duration coalescingTimeout;
+
+	private record ClientsPageKey(ClientSummarySort sort, Integer limit, String cursor) {}
+
+	private SingleFlight<String, List<ProductView>> productsFlight;
+	private SingleFlight<ClientsPageKey, ClientSummaryPage> clientsFlight;
+
+	@PostConstruct
+	void init() {
+		productsFlight = new SingleFlight<>("products", coalescingTimeout, meterRegistry);
+		clientsFlight = new SingleFlight<>("clients", coalescingTimeout, meterRegistry);
+	}
 	
-	@Transactional
 	public ResponseEntity addProduct(CreateProductDTO data) {
-		if(this.repository.findByName(data.name()) != null) return ResponseEntity.status(HttpStatus.CONFLICT).body("The Name has Already Exists in other Product!");
-		Products newProduct = new Products(data.name(), data.image_url(), data.price());
-		
-		this.repository.save(newProduct);
-		return ResponseEntity.ok().build();
+		return workloads.execute(WorkloadClass.CATALOG, false, status -> {
+			if(this.repository.findByName(data.name()) != null) return ResponseEntity.status(HttpStatus.CONFLICT).body("The Name has Already Exists in other Product!");
+			Products newProduct = new Products(data.name(), data.image_url(), Money.of(data.price()), data.stock());
+
+			try {
+				this.repository.saveAndFlush(newProduct);
+			} catch (DataIntegrityViolationException e) {
+				// Cadastro concorrente com o mesmo nome: barrado pelo índice único
+				status.setRollbackOnly();
+				return ResponseEntity.status(HttpStatus.CONFLICT).body("The Name has Already Exists in other Product!");
+			}
+			return ResponseEntity.ok().build();
+		});
 	}
 	
-	public List<Products> showProducts() {
-		List<Products> products = repository.findAll();
+	/**
+	 * Chamadas simultâneas compartilham a mesma consulta ({@link SingleFlight}).
+	 * Logo após um reinício o catálogo vem do snapshot em disco ({@link CatalogSnapshotService}).
+	 */
+	public List<ProductView> showProducts() {
+		List<ProductView> snapshot = catalogSnapshot.serving();
+		if (snapshot != null) return snapshot;
+
+		List<ProductView> products = productsFlight.execute("all", () -> workloads.execute(WorkloadClass.CATALOG, true,
+				status -> List.copyOf(repository.findAllViews())));
 		return products;
 	}
 	
-	@Transactional 
 	public ResponseEntity addProductsInChart(CreateChartDTO data) {
+		return workloads.execute(WorkloadClass.CART, false, status -> addToChart(data));
+	}
+
+	private ResponseEntity addToChart(CreateChartDTO data) {
 		UserDetails user = userRepository.findByLogin(data.nome());
 		if(user == null) return ResponseEntity.notFound().build();
 		
 		if(user instanceof User) {
 			User userA = (User) user;
 			UUID idString = userA.getId();
-			Chart newChart = new Chart(idString, data.total_value(), data.qtd_itens());
+			Money totalValue = Money.of(data.total_value());
+
+			if(data.product_name() != null) {
+				Products product = repository.findByName(data.product_name());
+				if(product == null) return ResponseEntity.badRequest().body("Product '" + data.product_name() + "' not found!");
+				if(!stockReservation.reserve(product.getId(), data.qtd_itens())) return ResponseEntity.unprocessableEntity().body("Insufficient stock for product '" + data.product_name() + "'!");
+
+				long unitPrice = product.getPrice().minorUnits();
+				totalValue = Money.ofMinor(promotionEngine.total(product.getId(), unitPrice, data.qtd_itens(), data.coupon()));
+			}
+
+			Chart newChart = new Chart(idString, totalValue, data.qtd_itens());
 			chartRepository.save(newChart);
+			purchaseSummaryService.record(idString, data.qtd_itens(), totalValue);
+			salesRollupService.record(Instant.now(), data.qtd_itens(), totalValue);
+			salesSketchService.record(idString, totalValue);
 			return ResponseEntity.ok().build();
 		}
 	
 		return ResponseEntity.badRequest().build();	
 	}
 	
-	@Transactional
-	public List<UserSummary> showClients(){
-		List<UserSummary> charts = chartRepository.getUserPurchaseSummary();
+	/**
+	 * Chamadas simultâneas para a mesma página compartilham a mesma consulta ({@link SingleFlight}).
+	 * Sem {@code limit} devolve todos os clientes a partir do cursor, sem próxima página.
+	 */
+	public ClientSummaryPage showClients(ClientSummarySort sort, Integer limit, String cursor){
+		Integer pageSize = limit != null ? Math.max(1, Math.min(limit, MAX_CLIENTS_PAGE_SIZE)) : null;
+		ClientSummaryPage clients = clientsFlight.execute(new ClientsPageKey(sort, pageSize, cursor),
+				() -> workloads.execute(WorkloadClass.REPORTS, true, status -> purchaseSummaryService.page(sort, pageSize, cursor)));
+
+		return clients;
+	}
+
+	public List<SalesBucket> showSales(Instant from, Instant to, SalesBucketSize bucket) {
+		return workloads.execute(WorkloadClass.REPORTS, true, status -> salesRollupService.buckets(from, to, bucket));
+	}
+
+	public LiveClientsReport showLiveClients(int hours, int top) {
+		return salesSketchService.report(hours, top);
+	}
+
+	// Fica no primário: o usuário espera ver a compra que acabou de fazer. A classe é a
+	// do catálogo (ver WorkloadClass.CATALOG)
+	public PurchaseHistoryPage showPurchaseHistory(User user, String cursor, int size) {
+		return workloads.execute(WorkloadClass.CATALOG, false, status -> purchaseHistory(user, cursor, size));
+	}
+
+	private PurchaseHistoryPage purchaseHistory(User user, String cursor, int size) {
+		int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+		Limit limit = Limit.of(pageSize + 1);
+
+		List<PurchaseHistoryEntry> entries;
+		if(cursor == null || cursor.isBlank()) {
+			entries = chartRepository.findHistoryFirstPage(user.getId(), limit);
+		} else {
+			PurchaseHistoryPage.Cursor position = PurchaseHistoryPage.Cursor.decode(cursor);
+			entries = chartRepository.findHistoryAfter(user.getId(), position.createdAt(), position.id(), limit);
+		}
+
+		if(entries.size() <= pageSize) return new PurchaseHistoryPage(entries, null);
 
-		return charts;
+		List<PurchaseHistoryEntry> page = entries.subList(0, pageSize);
+		PurchaseHistoryEntry last = page.get(pageSize - 1);
+		return new PurchaseHistoryPage(page, new PurchaseHistoryPage.Cursor(last.getCreatedAt(), last.getId()).encode());
 	}
 
 }
@@ -0,0 +1,55 @@
+package com.app2.productsCatalog.service;
+
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.app2.productsCatalog.domain.promotion.PromotionRuleSet;
+import com.app2.productsCatalog.repository.PromotionRepository;
+
+/**
+ * Mantém o {@link PromotionRuleSet} compilado a partir das promoções ativas.
+ * A versão da tabela é verificada periodicamente e, quando muda, um novo
+ * conjunto é compilado e trocado atomicamente; o checkout nunca consulta o banco.
+ */
+@Service
+public class PromotionEngine {
+
+	private static final Logger log = LoggerFactory.getLogger(PromotionEngine.class);
+
+	@Autowired
+	private PromotionRepository repository;
+
+	private volatile PromotionRuleSet rules = PromotionRuleSet.EMPTY;
+
+	private volatile String version;
+
+	@Scheduled(fixedDelayString = "${promotions.refresh-interval-ms:30000}")
+	public void refresh() {
+		String current = repository.currentVersion();
+		if (current.equals(version)) return;
+
+		PromotionRuleSet compiled = PromotionRuleSet.compile(repository.findByActiveTrue());
+		rules = compiled;
+		version = current;
+		log.info("Promotion rules recompiled: {} active rules (version {})", compiled.size(), current);
+		if (compiled.rejected() > 0) {
+			log.warn("Ignored {} THRESHOLD promotions with a product_id: thresholds apply to the whole cart", compiled.rejected());
+		}
+	}
+
+	/**
+	 * Total em centavos de uma linha do carrinho com as promoções aplicadas.
+	 */
+	public long total(UUID productId, long unitPrice, int quantity, String couponCode) {
+		return rules.total(productId, unitPrice, quantity, couponCode);
+	}
+
+	public PromotionRuleSet current() {
+		return rules;
+	}
+}
@@ -0,0 +1,31 @@
+package com.app2.productsCatalog.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Execução pontual do backfill e/ou da verificação do resumo de compras na
+ * inicialização, habilitada pelas propriedades
+ * {@code purchase-summary.backfill-on-startup} e {@code purchase-summary.verify-on-startup}.
+ */
+@Component
+public class PurchaseSummaryJob implements ApplicationRunner {
+
+	@Autowired
+	private PurchaseSummaryService purchaseSummaryService;
+
+	@Value("${purchase-summary.backfill-on-startup:false}")
+	private boolean backfillOnStartup;
+
+	@Value("${purchase-summary.verify-on-startup:false}")
+	private boolean verifyOnStartup;
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (backfillOnStartup) purchaseSummaryService.backfill();
+		if (verifyOnStartup) purchaseSummaryService.verify();
+	}
+}
@@ -0,0 +1,165 @@
+package com.app2.productsCatalog.service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.app2.productsCatalog.domain.chart.ClientSummaryPage;
+import com.app2.productsCatalog.domain.chart.ClientSummarySort;
+import com.app2.productsCatalog.domain.money.Money;
+import com.app2.productsCatalog.infra.archive.ChartArchive;
+import com.app2.productsCatalog.repository.ChartRepository.UserSummary;
+import com.app2.productsCatalog.repository.UserPurchaseSummaryRepository;
+import com.app2.productsCatalog.repository.UserPurchaseSummaryRepository.SummaryMismatch;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Mantém a tabela {@code user_purchase_summary}: incrementos no caminho de
+ * escrita do carrinho, reconstrução completa (backfill) e verificação contra o
+ * agregado calculado sobre {@code chart}. Com {@code purchase-summary.include-archived}
+ * (padrão) o agregado inclui as compras movidas para o arquivo morto.
+ */
+@Service
+public class PurchaseSummaryService {
+
+	private static final Logger log = LoggerFactory.getLogger(PurchaseSummaryService.class);
+
+	private static final int MAX_LOGGED_MISMATCHES = 50;
+
+	// Limites superiores usados como cursor da primeira página (DECIMAL(14,2) e UUID)
+	private static final BigDecimal MAX_TOTAL_VALUE = new BigDecimal("999999999999.99");
+	private static final UUID MAX_UUID = new UUID(-1L, -1L);
+
+	@Autowired
+	private UserPurchaseSummaryRepository repository;
+
+	@Autowired
+	private ChartArchive archive;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Value("${purchase-summary.include-archived:true}")
+	private boolean includeArchived;
+
+	/**
+	 * Soma uma compra aos totais do usuário com um upsert atômico. Deve ser
+	 * chamado na mesma transação que grava o item em {@code chart}.
+	 */
+	@Transactional
+	public void record(UUID userId, int items, Money value) {
+		repository.increment(userId, items, value.toBigDecimal());
+	}
+
+	/**
+	 * Página do relatório de clientes ordenada no banco, usando os índices do
+	 * resumo: custo proporcional ao tamanho da página, não ao número de clientes.
+	 *
+	 * @param limit tamanho da página, ou {@code null} para todos os clientes restantes
+	 * @throws IllegalArgumentException se o cursor é inválido
+	 */
+	public ClientSummaryPage page(ClientSummarySort sort, Integer limit, String cursor) {
+		ClientSummaryPage.Cursor position = cursor == null || cursor.isBlank() ? null : ClientSummaryPage.Cursor.decode(cursor, sort);
+		int fetch = limit != null ? limit + 1 : Integer.MAX_VALUE;
+
+		List<UserSummary> rows = switch (sort) {
+			case TOTAL_VALUE -> repository.findTopByTotalValue(
+					position != null ? new BigDecimal(position.value()) : MAX_TOTAL_VALUE,
+					position != null ? position.userId() : MAX_UUID, fetch);
+			case TOTAL_ITEMS -> repository.findTopByTotalItems(
+					position != null ? Long.parseLong(position.value()) : Long.MAX_VALUE,
+					position != null ? position.userId() : MAX_UUID, fetch);
+			case LOGIN -> repository.findPageByLogin(position != null ? position.value() : "", fetch);
+		};
+
+		if (limit == null || rows.size() <= limit) return new ClientSummaryPage(rows, null);
+		List<UserSummary> page = rows.subList(0, limit);
+		return new ClientSummaryPage(page, ClientSummaryPage.Cursor.after(sort, page.get(limit - 1)).encode());
+	}
+
+	/**
+	 * Reconstrói o resumo inteiro sob o lock de {@code chart}: remove os usuários
+	 * sem histórico e regrava os totais dos demais na mesma transação.
+	 *
+	 * @throws IllegalStateException se algum segmento do arquivo morto não está acessível neste nó
+	 */
+	@Transactional
+	public int backfill() {
+		long start = System.currentTimeMillis();
+		repository.lockHistory();
+		boolean archived = stageArchivedTotals(true);
+		int removed = archived ? repository.deleteWithoutHistoryOrArchive() : repository.deleteWithoutHistory();
+		int rows = archived ? repository.rebuildFromHistoryAndArchive() : repository.rebuildFromHistory();
+		log.info("Purchase summary backfill rebuilt {} users and removed {} in {} ms", rows, removed, System.currentTimeMillis() - start);
+		return rows;
+	}
+
+	/**
+	 * Compara a tabela de resumo com o agregado completo de {@code chart}.
+	 *
+	 * @return usuários cujos totais divergem (vazio quando está consistente)
+	 */
+	@Transactional
+	public List<SummaryMismatch> verify() {
+		long start = System.currentTimeMillis();
+		List<SummaryMismatch> mismatches = stageArchivedTotals(false) ? repository.findMismatchesWithArchive() : repository.findMismatches();
+		mismatches.stream().limit(MAX_LOGGED_MISMATCHES).forEach(m -> log.warn(
+				"Purchase summary mismatch for user {}: items {} vs {}, value {} vs {}",
+				m.getUserId(), m.getSummaryItems(), m.getActualItems(), m.getSummaryValue(), m.getActualValue()));
+		log.info("Purchase summary verification found {} mismatches in {} ms", mismatches.size(), System.currentTimeMillis() - start);
+		return mismatches;
+	}
+
+	/**
+	 * Carrega os totais por usuário do arquivo morto (lidos dos segmentos do catálogo)
+	 * na tabela temporária {@code archived_chart_totals}, descartada no commit.
+	 *
+	 * Segmentos que este nó não alcança ficam de fora. A verificação segue sem
+	 * eles (os usuários afetados aparecem como divergentes); o backfill não,
+	 * porque regravaria esses usuários sem a parte arquivada.
+	 *
+	 * @param complete exige todos os segmentos do catálogo
+	 * @return false se não há arquivo morto a considerar
+	 * @throws IllegalStateException se {@code complete} e algum segmento não pôde ser lido
+	 */
+	private boolean stageArchivedTotals(boolean complete) {
+		if (!includeArchived || archive.isEmpty()) return false;
+		ChartArchive.ArchiveTotals archived = archive.totalsByUser();
+		if (!archived.isComplete()) {
+			if (complete) {
+				throw new IllegalStateException("Chart archive segments not reachable from this node: " + archived.unreachable());
+			}
+			log.warn("Purchase summary verification without {} unreachable chart archive segments", archived.unreachable().size());
+		}
+		Map<UUID, ChartArchive.UserTotals> totals = archived.byUser();
+		jdbcTemplate.execute("""
+				CREATE TEMP TABLE archived_chart_totals (
+					user_id UUID NOT NULL,
+					total_items BIGINT NOT NULL,
+					total_value DECIMAL(16,2) NOT NULL,
+					purchase_count BIGINT NOT NULL,
+					last_purchase_at TIMESTAMPTZ NOT NULL
+				) ON COMMIT DROP
+				""");
+		jdbcTemplate.batchUpdate("INSERT INTO archived_chart_totals VALUES (?, ?, ?, ?, ?)", totals.entrySet(), 1000,
+				(ps, entry) -> {
+					ChartArchive.UserTotals total = entry.getValue();
+					ps.setObject(1, entry.getKey());
+					ps.setLong(2, total.items());
+					ps.setBigDecimal(3, Money.ofMinor(total.valueMinorUnits()).toBigDecimal());
+					ps.setLong(4, total.purchases());
+					ps.setTimestamp(5, new Timestamp(total.lastPurchaseMillis()));
+				});
+		return true;
+	}
+}
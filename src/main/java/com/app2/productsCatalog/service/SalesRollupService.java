@@ -0,0 +1,107 @@
+package com.app2.productsCatalog.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.app2.productsCatalog.domain.money.Money;
+import com.app2.productsCatalog.domain.sales.SalesBucket;
+import com.app2.productsCatalog.domain.sales.SalesBucketSize;
+import com.app2.productsCatalog.infra.rollup.MinuteRingBuffer;
+import com.app2.productsCatalog.infra.rollup.MinuteRingBuffer.MinuteTotals;
+import com.app2.productsCatalog.repository.SalesRollupRepository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+
+/**
+ * Agregação de vendas por intervalo de tempo.
+ *
+ * Cada venda confirmada incrementa contadores por minuto em memória; a cada
+ * {@code sales.rollup.flush-interval-ms} os totais acumulados são somados às
+ * linhas horárias e diárias de {@code sales_rollups}. Como os incrementos são
+ * aditivos, várias instâncias podem alimentar a mesma tabela. As consultas de
+ * período leem apenas os rollups.
+ */
+@Service
+public class SalesRollupService {
+
+	private static final Logger log = LoggerFactory.getLogger(SalesRollupService.class);
+
+	@Autowired
+	private SalesRollupRepository repository;
+
+	private final MinuteRingBuffer buffer;
+
+	public SalesRollupService(@Value("${sales.rollup.buffer-minutes:120}") int bufferMinutes) {
+		this.buffer = new MinuteRingBuffer(bufferMinutes);
+	}
+
+	/**
+	 * Registra uma venda. Dentro de uma transação, só é contabilizada após o commit.
+	 */
+	public void record(Instant createdAt, int items, Money value) {
+		long epochMillis = createdAt.toEpochMilli();
+		long minorUnits = value.minorUnits();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					buffer.record(epochMillis, items, minorUnits);
+				}
+			});
+		} else {
+			buffer.record(epochMillis, items, minorUnits);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${sales.rollup.flush-interval-ms:15000}")
+	@Transactional
+	public void flush() {
+		List<MinuteTotals> drained = buffer.drain();
+		if (drained.isEmpty()) return;
+		try {
+			for (SalesBucketSize size : SalesBucketSize.values()) {
+				for (Map.Entry<Instant, long[]> bucket : aggregate(drained, size).entrySet()) {
+					long[] totals = bucket.getValue();
+					repository.increment(size.name(), bucket.getKey(), totals[0], totals[1], Money.ofMinor(totals[2]).toBigDecimal());
+				}
+			}
+		} catch (RuntimeException e) {
+			buffer.restore(drained);
+			log.warn("Failed to flush {} minutes of sales rollups, will retry", drained.size(), e);
+			throw e;
+		}
+	}
+
+	public List<SalesBucket> buckets(Instant from, Instant to, SalesBucketSize size) {
+		return repository.findBuckets(size, size.bucketStart(from), to);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		flush();
+	}
+
+	private static Map<Instant, long[]> aggregate(List<MinuteTotals> minutes, SalesBucketSize size) {
+		Map<Instant, long[]> buckets = new TreeMap<>();
+		for (MinuteTotals minute : minutes) {
+			Instant start = size.bucketStart(Instant.ofEpochSecond(minute.epochMinute() * 60));
+			long[] totals = buckets.computeIfAbsent(start, k -> new long[3]);
+			totals[0] += minute.orders();
+			totals[1] += minute.items();
+			totals[2] += minute.valueMinorUnits();
+		}
+		return buckets;
+	}
+}
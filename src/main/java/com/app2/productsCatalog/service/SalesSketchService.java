@@ -0,0 +1,106 @@
+package com.app2.productsCatalog.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.app2.productsCatalog.domain.money.Money;
+import com.app2.productsCatalog.domain.sales.LiveClientsReport;
+import com.app2.productsCatalog.infra.sketch.HyperLogLog;
+import com.app2.productsCatalog.infra.sketch.SpaceSaving;
+
+/**
+ * Sketches de memória fixa alimentados pelas vendas confirmadas.
+ *
+ * Mantém uma janela por hora (UTC) com um {@link SpaceSaving} ponderado pelo
+ * valor gasto e um {@link HyperLogLog} dos compradores. As consultas combinam
+ * as janelas do período pedido, sem acessar o banco: o período é móvel (a hora
+ * corrente e as anteriores), não um dia de calendário. Os dados são do nó local
+ * e recomeçam vazios após um reinício.
+ */
+@Service
+public class SalesSketchService {
+
+	private final AtomicReferenceArray<Window> windows;
+	private final int topCapacity;
+	private final int hllPrecision;
+
+	public SalesSketchService(
+			@Value("${sales.sketch.retained-hours:48}") int retainedHours,
+			@Value("${sales.sketch.top-capacity:256}") int topCapacity,
+			@Value("${sales.sketch.hll-precision:12}") int hllPrecision) {
+		this.windows = new AtomicReferenceArray<>(retainedHours);
+		this.topCapacity = topCapacity;
+		this.hllPrecision = hllPrecision;
+	}
+
+	/**
+	 * Registra uma venda. Dentro de uma transação, só é contabilizada após o commit.
+	 */
+	public void record(UUID userId, Money value) {
+		long minorUnits = value.minorUnits();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					apply(userId, minorUnits);
+				}
+			});
+		} else {
+			apply(userId, minorUnits);
+		}
+	}
+
+	private void apply(UUID userId, long minorUnits) {
+		Window window = window(System.currentTimeMillis() / 3_600_000);
+		window.buyers.add(userId);
+		synchronized (window.spenders) {
+			window.spenders.add(userId, minorUnits);
+		}
+	}
+
+	/**
+	 * Combina as janelas das últimas {@code hours} horas (incluindo a atual).
+	 */
+	public LiveClientsReport report(int hours, int top) {
+		int span = Math.max(1, Math.min(hours, windows.length()));
+		long currentHour = System.currentTimeMillis() / 3_600_000;
+
+		HyperLogLog buyers = new HyperLogLog(hllPrecision);
+		SpaceSaving spenders = new SpaceSaving(topCapacity);
+		for (long hour = currentHour - span + 1; hour <= currentHour; hour++) {
+			Window window = windows.get((int) (hour % windows.length()));
+			if (window == null || window.hour != hour) continue;
+			buyers.merge(window.buyers);
+			synchronized (window.spenders) {
+				spenders.merge(window.spenders);
+			}
+		}
+
+		List<LiveClientsReport.TopSpender> topSpenders = spenders.top(top).stream()
+				.map(c -> new LiveClientsReport.TopSpender(c.key(), Money.ofMinor(c.estimate()), Money.ofMinor(c.estimate() - c.error())))
+				.toList();
+		Instant from = Instant.ofEpochSecond((currentHour - span + 1) * 3600);
+		return new LiveClientsReport(from, Instant.now(), buyers.estimate(), buyers.relativeError(),
+				topSpenders, Money.ofMinor(spenders.maxError()));
+	}
+
+	private Window window(long hour) {
+		int index = (int) (hour % windows.length());
+		Window window = windows.get(index);
+		while (window == null || window.hour < hour) {
+			Window fresh = new Window(hour, new HyperLogLog(hllPrecision), new SpaceSaving(topCapacity));
+			if (windows.compareAndSet(index, window, fresh)) return fresh;
+			window = windows.get(index);
+		}
+		return window;
+	}
+
+	private record Window(long hour, HyperLogLog buyers, SpaceSaving spenders) {}
+}
@@ -0,0 +1,247 @@
+package com.app2.productsCatalog.service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import com.app2.productsCatalog.domain.chart.Chart;
+import com.app2.productsCatalog.domain.chart.ClientSummarySort;
+import com.app2.productsCatalog.domain.chart.CreateChartDTO;
+import com.app2.productsCatalog.domain.money.Money;
+import com.app2.productsCatalog.domain.products.CreateProductDTO;
+import com.app2.productsCatalog.domain.products.ProductView;
+import com.app2.productsCatalog.domain.user.User;
+import com.app2.productsCatalog.domain.user.UserRole;
+import com.app2.productsCatalog.infra.workload.WorkloadClass;
+import com.app2.productsCatalog.infra.workload.Workloads;
+import com.app2.productsCatalog.repository.ChartRepository;
+import com.app2.productsCatalog.repository.ProductsRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Fase de aquecimento executada quando a aplicação fica pronta, antes de o
+ * readiness ({@code /actuator/health/readiness}) liberar tráfego.
+ *
+ * Em ordem: abre {@code warmup.connections} conexões do pool primário; carrega
+ * no cache de segundo nível até {@code warmup.products} produtos (por padrão o
+ * tamanho da região, {@code second-level-cache.products.max-entries}; carregar
+ * mais só faria o cache expulsar o excedente) e a primeira página do
+ * ranking de clientes; executa as consultas de {@code Products}, {@code User}
+ * e {@code Chart}; e repete {@code warmup.iterations} vezes a assinatura e
+ * verificação de tokens, a serialização JSON das entidades e dos DTOs de
+ * entrada e, com o servidor HTTP no ar, um {@code GET /product} local.
+ *
+ * O readiness é liberado quando a fase termina, falha ou passa de
+ * {@code warmup.timeout}, o que vier primeiro; um banco travado não impede a
+ * instância de receber tráfego. Se o catálogo estiver vindo do snapshot em
+ * disco, o readiness já está liberado e o {@code GET /product} local passa
+ * pelo snapshot; o caminho do banco é aquecido pelas consultas diretas, e o
+ * snapshot só é reconciliado quando esta fase termina.
+ * Métrica: {@code warmup.duration}, por resultado.
+ */
+@Component
+public class StartupWarmup {
+
+	private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+	@Autowired
+	private HikariDataSource primaryDataSource;
+
+	@Autowired
+	private Workloads workloads;
+
+	@Autowired
+	private ProductsRepository productsRepository;
+
+	@Autowired
+	private ChartRepository chartRepository;
+
+	@Autowired
+	private ProductsService productsService;
+
+	@Autowired
+	private CatalogSnapshotService catalogSnapshot;
+
+	@Autowired
+	private AuthorizationService authorizationService;
+
+	@Autowired
+	private TokenService tokenService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private Environment environment;
+
+	@Value("${warmup.enabled:true}")
+	private boolean enabled;
+
+	@Value("${warmup.timeout:30s}")
+	private Duration timeout;
+
+	@Value("${warmup.iterations:200}")
+	private int iterations;
+
+	@Value("${warmup.connections:8}")
+	private int connections;
+
+	@Value("${warmup.products:${second-level-cache.products.max-entries:10000}}")
+	private int products;
+
+	private volatile Instant deadline;
+	private volatile String outcome;
+
+	@EventListener(ApplicationReadyEvent.class)
+	void start() {
+		if (!enabled) return;
+		deadline = Instant.now().plus(timeout);
+		Thread warmup = new Thread(this::run, "startup-warmup");
+		warmup.setDaemon(true);
+		warmup.start();
+	}
+
+	/**
+	 * Se a instância já pode receber tráfego: aquecimento desligado, concluído ou vencido.
+	 */
+	public boolean isReady() {
+		if (!enabled || outcome != null) return true;
+		Instant limit = deadline;
+		return limit != null && Instant.now().isAfter(limit);
+	}
+
+	/**
+	 * Resultado do aquecimento ({@code completed}, {@code timed out}, {@code failed} ou
+	 * {@code disabled}), ou null enquanto roda.
+	 */
+	public String outcome() {
+		return enabled ? outcome : "disabled";
+	}
+
+	void run() {
+		long start = System.nanoTime();
+		String result;
+		try {
+			result = warmUp() ? "completed" : "timed out";
+		} catch (RuntimeException e) {
+			log.warn("Startup warm-up failed: {}", e.toString());
+			result = "failed";
+		}
+		long elapsed = System.nanoTime() - start;
+		Timer.builder("warmup.duration").tag("outcome", result).register(meterRegistry).record(Duration.ofNanos(elapsed));
+		outcome = result;
+		log.info("Startup warm-up {} in {} ms", result, elapsed / 1_000_000);
+		catalogSnapshot.reconcileInBackground();
+	}
+
+	// false quando o prazo venceu antes do fim
+	private boolean warmUp() {
+		primeConnections();
+		if (expired()) return false;
+
+		workloads.execute(WorkloadClass.CATALOG, true, status -> productsRepository.findFirstById(Limit.of(products)).size());
+		List<ProductView> catalog = workloads.execute(WorkloadClass.CATALOG, true, status -> productsRepository.findAllViews());
+		productsService.showClients(ClientSummarySort.TOTAL_VALUE, 50, null);
+		authorizationService.loadUserByUsername("warmup-" + UUID.randomUUID());
+		workloads.execute(WorkloadClass.CATALOG, true, status -> chartRepository.findHistoryFirstPage(UUID.randomUUID(), Limit.of(1)));
+		if (expired()) return false;
+
+		User user = new User("warmup", "warmup", UserRole.USER);
+		Chart chart = new Chart(UUID.randomUUID(), Money.of("19.90"), 1);
+		List<ProductView> sample = catalog.subList(0, Math.min(catalog.size(), 50));
+		HttpClient http = localServer() == null ? null : HttpClient.newHttpClient();
+		for (int i = 0; i < iterations; i++) {
+			String token = tokenService.generateToken(user);
+			if (!"warmup".equals(tokenService.validateToken(token))) throw new IllegalStateException("Token round trip failed");
+			serialize(sample, chart, user);
+			if (http != null) get(http, "/product");
+			if (expired()) return false;
+		}
+		return true;
+	}
+
+	// Obriga o pool a abrir as conexões agora, e não na primeira rajada de requisições
+	private void primeConnections() {
+		int count = Math.min(connections, primaryDataSource.getMaximumPoolSize());
+		List<Connection> held = new ArrayList<>(count);
+		try {
+			for (int i = 0; i < count; i++) {
+				Connection connection = primaryDataSource.getConnection();
+				held.add(connection);
+				connection.isValid(1);
+			}
+		} catch (SQLException e) {
+			log.warn("Connection pool priming stopped after {} connections: {}", held.size(), e.getMessage());
+		} finally {
+			for (Connection connection : held) {
+				try {
+					connection.close();
+				} catch (SQLException ignored) {
+				}
+			}
+		}
+	}
+
+	private void serialize(List<ProductView> products, Chart chart, User user) {
+		try {
+			byte[] json = objectMapper.writeValueAsBytes(products);
+			objectMapper.readValue(json, ProductView[].class);
+			objectMapper.readValue(objectMapper.writeValueAsBytes(chart), Chart.class);
+			objectMapper.writeValueAsBytes(user);
+			objectMapper.readValue("""
+					{"name":"Warmup","image_url":"https://example.com/w.jpg","price":19.90,"stock":1}
+					""", CreateProductDTO.class);
+			objectMapper.readValue("""
+					{"nome":"warmup","total_value":19.90,"qtd_itens":1,"product_name":"Warmup","coupon":null}
+					""", CreateChartDTO.class);
+		} catch (java.io.IOException e) {
+			throw new IllegalStateException("JSON warm-up failed", e);
+		}
+	}
+
+	private void get(HttpClient http, String path) {
+		try {
+			http.send(HttpRequest.newBuilder(URI.create(localServer() + path)).timeout(Duration.ofSeconds(5)).build(),
+					HttpResponse.BodyHandlers.discarding());
+		} catch (java.io.IOException e) {
+			log.debug("Warm-up request to {} failed: {}", path, e.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// Só existe quando o servidor HTTP embarcado está no ar
+	private String localServer() {
+		String port = environment.getProperty("local.server.port");
+		return port == null ? null : "http://localhost:" + port;
+	}
+
+	private boolean expired() {
+		return Instant.now().isAfter(deadline);
+	}
+}
@@ -0,0 +1,107 @@
+package com.app2.productsCatalog.service;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.app2.productsCatalog.infra.stock.StripedCounter;
+import com.app2.productsCatalog.repository.ProductsRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Reserva de estoque em memória.
+ *
+ * Cada produto possui um lote local de unidades já retiradas do banco com um
+ * UPDATE condicional ({@code stock >= ?}). As reservas consomem esse lote sem
+ * bloqueio através de um {@link StripedCounter}; o banco só é acessado quando o
+ * lote se esgota, e as sobras são devolvidas periodicamente pela reconciliação.
+ * Assim uma venda relâmpago não serializa todos os checkouts no lock da linha.
+ */
+@Service
+public class StockReservationService {
+
+	private static final Logger log = LoggerFactory.getLogger(StockReservationService.class);
+
+	@Autowired
+	private ProductsRepository repository;
+
+	@Value("${stock.reservation.batch-size:32}")
+	private int batchSize;
+
+	@Value("${stock.reservation.stripes:8}")
+	private int stripes;
+
+	private final ConcurrentHashMap<UUID, StripedCounter> pools = new ConcurrentHashMap<>();
+
+	/**
+	 * Reserva {@code quantity} unidades do produto. Se houver uma transação ativa,
+	 * a reserva é devolvida ao lote local caso ela sofra rollback.
+	 *
+	 * @return true se a reserva foi feita, false se o estoque é insuficiente
+	 */
+	public boolean reserve(UUID productId, int quantity) {
+		if (quantity <= 0) return true;
+		StripedCounter pool = pools.computeIfAbsent(productId, id -> new StripedCounter(stripes));
+		if (!pool.tryAcquire(quantity) && !refill(productId, pool, quantity)) return false;
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					if (status != STATUS_COMMITTED) pool.add(quantity);
+				}
+			});
+		}
+		return true;
+	}
+
+	/**
+	 * Caminho lento: retira um novo lote do banco. Apenas uma thread por produto
+	 * faz isso de cada vez; as demais reaproveitam o lote recém-carregado.
+	 */
+	private boolean refill(UUID productId, StripedCounter pool, int quantity) {
+		synchronized (pool) {
+			if (pool.tryAcquire(quantity)) return true;
+
+			int claim = Math.max(quantity, batchSize);
+			if (claim > quantity && repository.claimStock(productId, claim) == 1) {
+				pool.add(claim - quantity);
+				return true;
+			}
+			// Estoque restante menor que o lote: tenta apenas o necessário
+			return repository.claimStock(productId, quantity) == 1;
+		}
+	}
+
+	/**
+	 * Devolve ao banco as unidades retiradas e ainda não reservadas, mantendo a
+	 * coluna {@code stock} próxima do valor real.
+	 */
+	@Scheduled(fixedDelayString = "${stock.reservation.reconcile-interval-ms:5000}")
+	public void reconcile() {
+		pools.forEach((productId, pool) -> {
+			long unused = pool.drain();
+			if (unused <= 0) return;
+			try {
+				repository.releaseStock(productId, unused);
+			} catch (RuntimeException e) {
+				pool.add(unused);
+				log.warn("Failed to reconcile stock for product {}", productId, e);
+			}
+		});
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		reconcile();
+	}
+}
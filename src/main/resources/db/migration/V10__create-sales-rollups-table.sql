@@ -0,0 +1,19 @@
+CREATE TABLE sales_rollups (
+	granularity TEXT NOT NULL,
+	bucket_start TIMESTAMPTZ NOT NULL,
+	orders BIGINT NOT NULL DEFAULT 0,
+	items BIGINT NOT NULL DEFAULT 0,
+	total_value DECIMAL(16,2) NOT NULL DEFAULT 0,
+	PRIMARY KEY (granularity, bucket_start)
+);
+
+-- Carga inicial a partir do histórico existente (buckets em UTC)
+INSERT INTO sales_rollups (granularity, bucket_start, orders, items, total_value)
+SELECT 'HOUR', date_trunc('hour', created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', COUNT(*), SUM(qtd_itens), SUM(total_value)
+FROM chart
+GROUP BY 2;
+
+INSERT INTO sales_rollups (granularity, bucket_start, orders, items, total_value)
+SELECT 'DAY', date_trunc('day', created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', COUNT(*), SUM(qtd_itens), SUM(total_value)
+FROM chart
+GROUP BY 2;
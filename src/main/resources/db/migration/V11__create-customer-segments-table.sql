@@ -0,0 +1,13 @@
+CREATE TABLE customer_segments (
+	user_id UUID PRIMARY KEY,
+	recency_days INT NOT NULL,
+	frequency BIGINT NOT NULL,
+	monetary DECIMAL(14,2) NOT NULL,
+	r_score SMALLINT NOT NULL CHECK (r_score BETWEEN 1 AND 5),
+	f_score SMALLINT NOT NULL CHECK (f_score BETWEEN 1 AND 5),
+	m_score SMALLINT NOT NULL CHECK (m_score BETWEEN 1 AND 5),
+	segment TEXT NOT NULL,
+	computed_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX idx_customer_segments_segment ON customer_segments (segment);
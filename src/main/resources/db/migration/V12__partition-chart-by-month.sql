@@ -0,0 +1,66 @@
+-- Converte chart em tabela particionada por mês de created_at (limites em UTC).
+-- A chave primária passa a incluir a chave de partição, exigência do PostgreSQL.
+ALTER TABLE chart RENAME TO chart_unpartitioned;
+ALTER TABLE chart_unpartitioned RENAME CONSTRAINT chart_pkey TO chart_unpartitioned_pkey;
+ALTER INDEX idx_chart_user_created_at RENAME TO idx_chart_unpartitioned_user_created_at;
+
+CREATE TABLE chart (
+	id UUID NOT NULL DEFAULT gen_random_uuid(),
+	user_id UUID NOT NULL,
+	qtd_itens INT NOT NULL,
+	total_value DECIMAL(10,2) NOT NULL CHECK (total_value > 0),
+	created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+	PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Rede de segurança para linhas fora das partições pré-criadas
+CREATE TABLE chart_default PARTITION OF chart DEFAULT;
+
+-- Cria (se ainda não existir) a partição do mês de month_start e devolve seu nome.
+-- Linhas desse mês que tenham caído na partição default são movidas para a nova partição.
+CREATE FUNCTION create_chart_partition(month_start DATE) RETURNS TEXT AS $$
+DECLARE
+	partition_name TEXT := 'chart_' || to_char(month_start, 'YYYY_MM');
+	lower_bound TIMESTAMPTZ := date_trunc('month', month_start::timestamp) AT TIME ZONE 'UTC';
+	upper_bound TIMESTAMPTZ := (date_trunc('month', month_start::timestamp) + INTERVAL '1 month') AT TIME ZONE 'UTC';
+BEGIN
+	IF to_regclass(partition_name) IS NOT NULL THEN
+		RETURN partition_name;
+	END IF;
+
+	IF EXISTS (SELECT 1 FROM chart_default WHERE created_at >= lower_bound AND created_at < upper_bound) THEN
+		EXECUTE format('CREATE TABLE %I (LIKE chart INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+		EXECUTE format('WITH moved AS (DELETE FROM chart_default WHERE created_at >= %L AND created_at < %L RETURNING *) '
+			|| 'INSERT INTO %I SELECT * FROM moved', lower_bound, upper_bound, partition_name);
+		EXECUTE format('ALTER TABLE chart ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+			partition_name, lower_bound, upper_bound);
+	ELSE
+		EXECUTE format('CREATE TABLE %I PARTITION OF chart FOR VALUES FROM (%L) TO (%L)',
+			partition_name, lower_bound, upper_bound);
+	END IF;
+	RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partições do primeiro mês com histórico até três meses à frente
+DO $$
+DECLARE
+	month_start DATE := date_trunc('month', COALESCE(
+		(SELECT MIN(created_at) FROM chart_unpartitioned), now()) AT TIME ZONE 'UTC');
+BEGIN
+	WHILE month_start <= (date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '3 months') LOOP
+		PERFORM create_chart_partition(month_start);
+		month_start := month_start + INTERVAL '1 month';
+	END LOOP;
+END;
+$$;
+
+INSERT INTO chart (id, user_id, qtd_itens, total_value, created_at)
+SELECT id, user_id, qtd_itens, total_value, created_at
+FROM chart_unpartitioned;
+
+DROP TABLE chart_unpartitioned;
+
+-- Índice de cobertura do histórico por usuário, agora propagado para cada partição
+CREATE INDEX idx_chart_user_created_at ON chart (user_id, created_at DESC, id DESC)
+	INCLUDE (qtd_itens, total_value);
@@ -0,0 +1,8 @@
+-- Catálogo dos segmentos do arquivo morto de chart gravados em disco
+CREATE TABLE chart_archive_segments (
+	file_name TEXT PRIMARY KEY,
+	row_count INT NOT NULL,
+	min_created_at TIMESTAMPTZ NOT NULL,
+	max_created_at TIMESTAMPTZ NOT NULL,
+	archived_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
@@ -0,0 +1,3 @@
+-- findByName (cadastro e carrinho) fazia varredura sequencial em products.
+-- chart.user_id já é coberto pelo índice idx_chart_user_created_at (coluna líder).
+CREATE INDEX idx_products_name ON products (name);
@@ -0,0 +1,24 @@
+-- Publica no canal cache_invalidation cada linha alterada de products e users, como
+-- '<tabela>:<I|U|D>:<id>'. O NOTIFY só é entregue no commit da transação que alterou a
+-- linha e notificações repetidas na mesma transação são entregues uma vez.
+CREATE FUNCTION notify_cache_invalidation() RETURNS trigger AS $$
+DECLARE
+	key UUID;
+BEGIN
+	IF TG_OP = 'DELETE' THEN
+		key := OLD.id;
+	ELSE
+		key := NEW.id;
+	END IF;
+	PERFORM pg_notify('cache_invalidation', TG_TABLE_NAME || ':' || left(TG_OP, 1) || ':' || key);
+	RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER products_cache_invalidation
+	AFTER INSERT OR UPDATE OR DELETE ON products
+	FOR EACH ROW EXECUTE FUNCTION notify_cache_invalidation();
+
+CREATE TRIGGER users_cache_invalidation
+	AFTER INSERT OR UPDATE OR DELETE ON users
+	FOR EACH ROW EXECUTE FUNCTION notify_cache_invalidation();
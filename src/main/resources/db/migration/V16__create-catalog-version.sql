@@ -0,0 +1,20 @@
+-- Versão do catálogo: incrementada por qualquer comando que insira, remova ou altere
+-- nome, imagem ou preço de products. Movimentações de estoque não mudam a versão, então
+-- a reserva de estoque não disputa esta linha.
+CREATE TABLE catalog_version (
+	id BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (id),
+	version BIGINT NOT NULL
+);
+
+INSERT INTO catalog_version (version) VALUES (1);
+
+CREATE FUNCTION bump_catalog_version() RETURNS trigger AS $$
+BEGIN
+	UPDATE catalog_version SET version = version + 1;
+	RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER products_catalog_version
+	AFTER INSERT OR DELETE OR UPDATE OF name, image_url, price OR TRUNCATE ON products
+	FOR EACH STATEMENT EXECUTE FUNCTION bump_catalog_version();
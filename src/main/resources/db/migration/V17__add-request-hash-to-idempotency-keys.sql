@@ -0,0 +1,2 @@
+-- Hash do corpo da requisição original; uma chave reaproveitada com outro corpo é recusada
+ALTER TABLE idempotency_keys ADD COLUMN request_hash TEXT;
@@ -0,0 +1,4 @@
+-- Conteúdo dos segmentos no banco, legível por todos os nós; os arquivos em
+-- disco passam a ser cópias locais. Segmentos anteriores ficam sem conteúdo
+-- até a próxima execução do arquivamento no nó que os gravou.
+ALTER TABLE chart_archive_segments ADD COLUMN content BYTEA;
@@ -0,0 +1,9 @@
+-- name é o @NaturalId de Products: o cache de natural id e o findByName assumem um
+-- produto por nome. Nomes repetidos cadastrados antes do índice único recebem o
+-- id como sufixo, exceto o de menor id, que mantém o nome original.
+UPDATE products p
+SET name = left(p.name, 160) || ' #' || p.id
+WHERE EXISTS (SELECT 1 FROM products o WHERE o.name = p.name AND o.id < p.id);
+
+DROP INDEX idx_products_name;
+CREATE UNIQUE INDEX idx_products_name ON products (name);
@@ -0,0 +1,5 @@
+-- Partições da segmentação de clientes pelo último byte de user_id, que é
+-- aleatório tanto em UUIDv4 quanto em UUIDv7 (nos bits altos do v7 fica o timestamp).
+-- Cobre as colunas lidas pelo job para permitir index-only scan.
+CREATE INDEX idx_chart_user_bucket ON chart ((get_byte(uuid_send(user_id), 15)))
+	INCLUDE (user_id, created_at, total_value);
@@ -0,0 +1,6 @@
+-- O conteúdo dos segmentos sai do banco: guardado aqui ele continuava no primário,
+-- no WAL e nos backups, e o arquivamento não reduzia o banco. Os arquivos ficam
+-- apenas no diretório do nó que os gravou (ou em um diretório compartilhado), e
+-- o catálogo registra qual nó é o dono. Registros anteriores ficam sem dono conhecido.
+ALTER TABLE chart_archive_segments DROP COLUMN content;
+ALTER TABLE chart_archive_segments ADD COLUMN node TEXT;
@@ -0,0 +1,9 @@
+CREATE TABLE idempotency_keys (
+	key TEXT PRIMARY KEY,
+	status INT NOT NULL,
+	content_type TEXT,
+	body BYTEA,
+	expires_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,26 @@
+CREATE TABLE promotions (
+	id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+	type TEXT NOT NULL,
+	product_id UUID REFERENCES products (id),
+	coupon_code TEXT,
+	percentage DECIMAL(5,2) CHECK (percentage > 0 AND percentage < 100),
+	discount_value DECIMAL(10,2) CHECK (discount_value > 0),
+	threshold_value DECIMAL(10,2) CHECK (threshold_value > 0),
+	buy_quantity INT CHECK (buy_quantity > 0),
+	free_quantity INT CHECK (free_quantity > 0),
+	active BOOLEAN NOT NULL DEFAULT TRUE,
+	updated_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE UNIQUE INDEX idx_promotions_coupon_code ON promotions (coupon_code) WHERE coupon_code IS NOT NULL;
+
+CREATE FUNCTION touch_promotions_updated_at() RETURNS TRIGGER AS $$
+BEGIN
+	NEW.updated_at = now();
+	RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_promotions_updated_at
+	BEFORE UPDATE ON promotions
+	FOR EACH ROW EXECUTE FUNCTION touch_promotions_updated_at();
@@ -0,0 +1,6 @@
+ALTER TABLE chart
+	ADD COLUMN created_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+-- Índice de cobertura para o histórico por usuário: página via index-only scan
+CREATE INDEX idx_chart_user_created_at ON chart (user_id, created_at DESC, id DESC)
+	INCLUDE (qtd_itens, total_value);
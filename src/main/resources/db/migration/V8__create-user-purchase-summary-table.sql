@@ -0,0 +1,13 @@
+CREATE TABLE user_purchase_summary (
+	user_id UUID PRIMARY KEY,
+	total_items BIGINT NOT NULL DEFAULT 0,
+	total_value DECIMAL(14,2) NOT NULL DEFAULT 0,
+	purchase_count BIGINT NOT NULL DEFAULT 0,
+	last_purchase_at TIMESTAMPTZ
+);
+
+-- Carga inicial a partir do histórico existente
+INSERT INTO user_purchase_summary (user_id, total_items, total_value, purchase_count, last_purchase_at)
+SELECT user_id, SUM(qtd_itens), SUM(total_value), COUNT(*), MAX(created_at)
+FROM chart
+GROUP BY user_id;
@@ -0,0 +1,3 @@
+-- Top-N / paginação por cursor do relatório de clientes sem ordenar o agregado inteiro
+CREATE INDEX idx_user_purchase_summary_total_value ON user_purchase_summary (total_value, user_id);
+CREATE INDEX idx_user_purchase_summary_total_items ON user_purchase_summary (total_items, user_id);
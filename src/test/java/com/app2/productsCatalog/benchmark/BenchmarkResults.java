@@ -0,0 +1,58 @@
+package com.app2.productsCatalog.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+
+/**
+ * Arquivos de resultado dos benchmarks em {@code target/jmh}: os tempos, no
+ * JSON do próprio JMH, e as medidas que não são tempo (tamanho de payload, de
+ * índice...), em um CSV por benchmark. Os contadores secundários do JMH somam
+ * os valores de todas as iterações, então não servem para um tamanho fixo.
+ */
+final class BenchmarkResults {
+
+	private static final Path DIRECTORY = Path.of("target", "jmh");
+
+	private BenchmarkResults() {}
+
+	/**
+	 * Grava os tempos em {@code target/jmh/<benchmark>.json}.
+	 */
+	static ChainedOptionsBuilder timings(ChainedOptionsBuilder options, Class<?> benchmark) {
+		createDirectory();
+		return options.resultFormat(ResultFormatType.JSON).result(DIRECTORY.resolve(benchmark.getSimpleName() + ".json").toString());
+	}
+
+	/**
+	 * Acrescenta uma linha a {@code target/jmh/<benchmark>-<name>.csv}, escrevendo
+	 * o cabeçalho quando o arquivo ainda não existe. Chamado no fork que mede,
+	 * então cada combinação de parâmetros acrescenta a sua linha.
+	 */
+	static synchronized void append(Class<?> benchmark, String name, String header, Object... values) {
+		Path file = DIRECTORY.resolve(benchmark.getSimpleName() + "-" + name + ".csv");
+		StringBuilder line = new StringBuilder();
+		for (Object value : values) line.append(line.isEmpty() ? "" : ",").append(value);
+		try {
+			createDirectory();
+			if (Files.notExists(file)) Files.writeString(file, header + "\n", StandardCharsets.UTF_8);
+			Files.writeString(file, line + "\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to write benchmark results to " + file, e);
+		}
+	}
+
+	private static void createDirectory() {
+		try {
+			Files.createDirectories(DIRECTORY);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to create " + DIRECTORY, e);
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.app2.productsCatalog.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.app2.productsCatalog.domain.money.Money;
+import com.app2.productsCatalog.domain.products.ProductView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serialização e leitura do catálogo ({@code GET /product}) em JSON, CBOR e
+ * Smile. O tamanho do payload de cada formato vai para
+ * {@code target/jmh/ContentEncodingBenchmark-payload.csv}.
+ *
+ * Executar com: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath com.app2.productsCatalog.benchmark.ContentEncodingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentEncodingBenchmark {
+
+	@Param({ "json", "cbor", "smile" })
+	private String format;
+
+	@Param({ "10000" })
+	private int products;
+
+	private ObjectMapper mapper;
+	private List<ProductView> catalog;
+	private byte[] payload;
+
+	@Setup
+	public void setup() throws IOException {
+		mapper = switch (format) {
+			case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+			case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+			default -> Jackson2ObjectMapperBuilder.json().build();
+		};
+		SplittableRandom random = new SplittableRandom(42);
+		catalog = new ArrayList<>(products);
+		for (int i = 0; i < products; i++) {
+			String imageUrl = i % 2 == 0 ? "https://example.com/images/" + i + ".jpg" : null;
+			catalog.add(new ProductView(UUID.randomUUID(), "product-" + i, imageUrl,
+					Money.ofMinor(100 + random.nextInt(500_000)), random.nextInt(1_000)));
+		}
+		payload = mapper.writeValueAsBytes(catalog);
+		BenchmarkResults.append(ContentEncodingBenchmark.class, "payload", "format,products,bytes", format, products, payload.length);
+	}
+
+	@Benchmark
+	public byte[] serialize() throws IOException {
+		return mapper.writeValueAsBytes(catalog);
+	}
+
+	@Benchmark
+	public ProductView[] deserialize() throws IOException {
+		return mapper.readValue(payload, ProductView[].class);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(BenchmarkResults.timings(new OptionsBuilder()
+				.include(ContentEncodingBenchmark.class.getSimpleName()), ContentEncodingBenchmark.class)
+				.build()).run();
+	}
+}
@@ -0,0 +1,102 @@
+package com.app2.productsCatalog.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app2.productsCatalog.ProductsCatalogApplication;
+import com.app2.productsCatalog.repository.ProductsRepository;
+import com.app2.productsCatalog.support.EmbeddedPostgresSupport;
+
+/**
+ * Listagem do catálogo hidratando entidades ({@code findAll}) contra a
+ * projeção por construtor em {@code ProductView} ({@code findAllViews}), sobre
+ * o PostgreSQL embarcado. O GC profiler mostra a alocação por operação.
+ *
+ * Executar com: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath com.app2.productsCatalog.benchmark.ProductReadModelBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductReadModelBenchmark {
+
+	@Param({ "100000" })
+	private int rows;
+
+	private ConfigurableApplicationContext context;
+	private ProductsRepository repository;
+	private TransactionTemplate readOnly;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		String url = EmbeddedPostgresSupport.instance().getJdbcUrl("postgres", "postgres");
+		context = new SpringApplicationBuilder(ProductsCatalogApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties(
+						"DATABASE_URL=" + url,
+						"DATABASE_USERNAME=postgres",
+						"DATABASE_PASSWORD=",
+						"JWT_SECRET=benchmark",
+						"catalog.snapshot.enabled=false",
+						"warmup.enabled=false",
+						"cache.invalidation.enabled=false")
+				.run();
+		context.getBean(JdbcTemplate.class).update("""
+				INSERT INTO products (name, image_url, price, stock)
+				SELECT 'read-model-' || g, 'https://example.com/' || g, 1 + g % 500, 100
+				FROM generate_series(1, ?) g
+				""", rows);
+		repository = context.getBean(ProductsRepository.class);
+		readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		readOnly.setReadOnly(true);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public int entities() {
+		return readOnly.execute(status -> repository.findAll().size());
+	}
+
+	@Benchmark
+	public int projections() {
+		return readOnly.execute(status -> repository.findAllViews().size());
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(ProductReadModelBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
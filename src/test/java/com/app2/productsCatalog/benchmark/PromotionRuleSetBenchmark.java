@@ -0,0 +1,111 @@
+package com.app2.productsCatalog.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.app2.productsCatalog.domain.money.Money;
+import com.app2.productsCatalog.domain.promotion.Promotion;
+import com.app2.productsCatalog.domain.promotion.PromotionRuleSet;
+import com.app2.productsCatalog.domain.promotion.PromotionType;
+
+/**
+ * Avaliação de carrinhos contra um conjunto de promoções compilado.
+ *
+ * Executar com: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath com.app2.productsCatalog.benchmark.PromotionRuleSetBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromotionRuleSetBenchmark {
+
+	@Param({ "100", "10000" })
+	private int activeRules;
+
+	private PromotionRuleSet rules;
+	private UUID[] products;
+	private String[] coupons;
+	private int cursor;
+
+	@Setup
+	public void setup() {
+		SplittableRandom random = new SplittableRandom(42);
+		products = new UUID[Math.max(activeRules / 4, 1)];
+		for (int i = 0; i < products.length; i++) products[i] = UUID.randomUUID();
+		coupons = new String[64];
+
+		List<Promotion> promotions = new ArrayList<>(activeRules);
+		for (int i = 0; i < activeRules; i++) {
+			Promotion promotion = new Promotion();
+			promotion.setActive(true);
+			switch (i % 4) {
+				case 0 -> {
+					promotion.setType(PromotionType.PERCENTAGE);
+					promotion.setProductId(products[random.nextInt(products.length)]);
+					promotion.setPercentage(BigDecimal.valueOf(5 + random.nextInt(40)));
+				}
+				case 1 -> {
+					promotion.setType(PromotionType.BUY_X_GET_Y);
+					promotion.setProductId(products[random.nextInt(products.length)]);
+					promotion.setBuyQuantity(2 + random.nextInt(3));
+					promotion.setFreeQuantity(1);
+				}
+				case 2 -> {
+					promotion.setType(PromotionType.THRESHOLD);
+					promotion.setThresholdValue(Money.ofMinor(5_000 + random.nextInt(500_000)));
+					promotion.setDiscountValue(Money.ofMinor(500 + random.nextInt(10_000)));
+				}
+				default -> {
+					promotion.setType(PromotionType.PERCENTAGE);
+					promotion.setCouponCode("CUPOM" + i);
+					promotion.setPercentage(BigDecimal.TEN);
+					coupons[(i / 4) % coupons.length] = promotion.getCouponCode();
+				}
+			}
+			promotions.add(promotion);
+		}
+		rules = PromotionRuleSet.compile(promotions);
+	}
+
+	@Benchmark
+	public long evaluateCart() {
+		int i = cursor++ & 1023;
+		UUID product = products[i % products.length];
+		return rules.total(product, 12_990, 1 + (i & 7), null);
+	}
+
+	@Benchmark
+	public long evaluateCartWithCoupon() {
+		int i = cursor++ & 1023;
+		UUID product = products[i % products.length];
+		return rules.total(product, 12_990, 1 + (i & 7), coupons[i & 63]);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(PromotionRuleSetBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,147 @@
+package com.app2.productsCatalog.benchmark;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.app2.productsCatalog.infra.id.UuidV7Generator;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Chaves UUID v4 (aleatórias) contra v7 (ordenadas por tempo): custo de geração
+ * e vazão de inserção em uma tabela com chave primária UUID em um PostgreSQL
+ * embarcado. Ao fim de cada rodada de inserção os tamanhos do índice da chave
+ * primária e da tabela vão para {@code target/jmh/UuidKeyBenchmark-index.csv},
+ * para comparar a fragmentação causada por cada esquema.
+ *
+ * Executar com: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath com.app2.productsCatalog.benchmark.UuidKeyBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UuidKeyBenchmark {
+
+	private static final int BATCH = 1000;
+
+	public enum Scheme {
+		V4 {
+			@Override
+			UUID next() {
+				return UUID.randomUUID();
+			}
+		},
+		V7 {
+			@Override
+			UUID next() {
+				return UuidV7Generator.next();
+			}
+		};
+
+		abstract UUID next();
+	}
+
+	@State(Scope.Benchmark)
+	public static class Database {
+
+		@Param({ "V4", "V7" })
+		Scheme scheme;
+
+		@Param({ "100000" })
+		int preloadedRows;
+
+		EmbeddedPostgres postgres;
+		Connection connection;
+		PreparedStatement insert;
+
+		@Setup(Level.Trial)
+		public void start() throws IOException, SQLException {
+			postgres = EmbeddedPostgres.start();
+			connection = postgres.getPostgresDatabase().getConnection();
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("CREATE TABLE keys (id UUID PRIMARY KEY, user_id UUID NOT NULL, qtd_itens INT NOT NULL)");
+			}
+			insert = connection.prepareStatement("INSERT INTO keys (id, user_id, qtd_itens) VALUES (?, ?, ?)");
+			for (int i = 0; i < preloadedRows; i += BATCH) insertRows(this);
+		}
+
+		@TearDown(Level.Trial)
+		public void stop() throws IOException, SQLException {
+			try (Statement statement = connection.createStatement();
+					ResultSet rs = statement.executeQuery("""
+							SELECT COUNT(*), pg_relation_size('keys_pkey'), pg_relation_size('keys')
+							FROM keys
+							""")) {
+				rs.next();
+				long rows = rs.getLong(1);
+				BenchmarkResults.append(UuidKeyBenchmark.class, "index", "scheme,rows,index_bytes,index_bytes_per_row,heap_bytes",
+						scheme, rows, rs.getLong(2), String.format(Locale.ROOT, "%.1f", (double) rs.getLong(2) / rows), rs.getLong(3));
+			}
+			connection.close();
+			postgres.close();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int insertBatch(Database db) throws SQLException {
+		return insertRows(db);
+	}
+
+	private static int insertRows(Database db) throws SQLException {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int i = 0; i < BATCH; i++) {
+			db.insert.setObject(1, db.scheme.next());
+			db.insert.setObject(2, new UUID(random.nextLong(), random.nextLong()));
+			db.insert.setInt(3, 1 + random.nextInt(10));
+			db.insert.addBatch();
+		}
+		return db.insert.executeBatch().length;
+	}
+
+	@Benchmark
+	@Threads(4)
+	public UUID generateV4() {
+		return UUID.randomUUID();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public UUID generateV7() {
+		return UuidV7Generator.next();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(BenchmarkResults.timings(new OptionsBuilder().include(UuidKeyBenchmark.class.getSimpleName()), UuidKeyBenchmark.class)
+				.build()).run();
+	}
+}
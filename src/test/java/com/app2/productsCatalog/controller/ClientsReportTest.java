@@ -0,0 +1,148 @@
+package com.app2.productsCatalog.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.app2.productsCatalog.support.EmbeddedPostgresSupport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Paginação do {@code GET /product/clients}: lista completa sem {@code limit},
+ * cursor por chave entre páginas (no campo {@code nextCursor} do corpo), troca de ordenação e cursor inválido. Os
+ * clientes criados aqui têm totais acima de qualquer outro do banco
+ * compartilhado, então ocupam o topo das ordenações por valor e por itens;
+ * {@code report-heavy-client}, com mais itens do que cabe em um int, vem
+ * antes deles na ordenação por itens.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WithMockUser(roles = "ADMIN")
+class ClientsReportTest {
+
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		EmbeddedPostgresSupport.register(registry);
+	}
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	private final ObjectMapper json = new ObjectMapper();
+
+	record Client(String userName, UUID userId, Long totalItems, String totalValue) {}
+
+	record Page(Client[] items, String nextCursor) {}
+
+	@BeforeAll
+	void seed() {
+		jdbc.update("""
+				INSERT INTO users (login, password, role)
+				SELECT 'report-client-' || g, 'x', 'USER' FROM generate_series(1, 5) g
+				""");
+		// Valor cresce com g e itens decrescem: as duas ordenações são inversas entre si
+		jdbc.update("""
+				INSERT INTO user_purchase_summary (user_id, total_items, total_value, purchase_count, last_purchase_at)
+				SELECT id, 900000010 - substring(login from 15)::int, 900000000 + substring(login from 15)::int, 1, now()
+				FROM users WHERE login LIKE 'report-client-%'
+				""");
+		// Mais itens do que cabe em um int, e valor zero: fica no topo só da ordenação por itens
+		jdbc.update("INSERT INTO users (login, password, role) VALUES ('report-heavy-client', 'x', 'USER')");
+		jdbc.update("""
+				INSERT INTO user_purchase_summary (user_id, total_items, total_value, purchase_count, last_purchase_at)
+				SELECT id, 5000000000, 0, 1, now() FROM users WHERE login = 'report-heavy-client'
+				""");
+	}
+
+	@Test
+	void withoutLimitReturnsEveryClientInOneResponse() throws Exception {
+		Page page = read(get("/product/clients"));
+
+		assertThat(page.nextCursor()).isNull();
+		Client[] clients = page.items();
+		Integer total = jdbc.queryForObject("SELECT count(*) FROM user_purchase_summary s JOIN users u ON u.id = s.user_id", Integer.class);
+		assertThat(clients).hasSize(total);
+		assertThat(clients).extracting(Client::userName).startsWith(logins(5, 4, 3, 2, 1));
+	}
+
+	@Test
+	void cursorWalksThePagesWithoutGapsOrRepeats() throws Exception {
+		List<String> seen = new ArrayList<>();
+		String cursor = null;
+		do {
+			Page page = read(page(get("/product/clients").param("limit", "2"), cursor));
+			assertThat(page.items()).hasSize(2);
+			for (Client client : page.items()) seen.add(client.userName());
+			cursor = page.nextCursor();
+		} while (cursor != null && seen.size() < 6);
+
+		assertThat(seen.subList(0, 5)).containsExactly(logins(5, 4, 3, 2, 1));
+		assertThat(seen).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void sortingByItemsUsesItsOwnOrderAndCursor() throws Exception {
+		Page first = read(get("/product/clients").param("sort", "TOTAL_ITEMS").param("limit", "2"));
+		String cursor = first.nextCursor();
+
+		assertThat(first.items()).extracting(Client::userName).containsExactly("report-heavy-client", logins(1)[0]);
+		Page second = read(get("/product/clients").param("sort", "TOTAL_ITEMS").param("limit", "2").param("cursor", cursor));
+		assertThat(second.items()).extracting(Client::userName).containsExactly(logins(2, 3));
+
+		// Cursor de uma ordenação não vale para outra
+		mvc.perform(get("/product/clients").param("sort", "TOTAL_VALUE").param("limit", "2").param("cursor", cursor))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void malformedCursorIsABadRequest() throws Exception {
+		mvc.perform(get("/product/clients").param("limit", "2").param("cursor", "not a cursor")).andExpect(status().isBadRequest());
+		// Base64 válido de "TOTAL_VALUE|xyz|1", com id que não é UUID
+		mvc.perform(get("/product/clients").param("limit", "2").param("cursor", "VE9UQUxfVkFMVUV8eHl6fDE")).andExpect(status().isBadRequest());
+		mvc.perform(get("/product/clients").param("cursor", "not a cursor")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void itemTotalsBeyondIntRangeAreReturned() throws Exception {
+		Client[] clients = read(get("/product/clients").param("sort", "TOTAL_ITEMS").param("limit", "1")).items();
+
+		assertThat(clients).extracting(Client::userName).containsExactly("report-heavy-client");
+		assertThat(clients[0].totalItems()).isEqualTo(5_000_000_000L);
+	}
+
+	private Page read(MockHttpServletRequestBuilder request) throws Exception {
+		byte[] body = mvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsByteArray();
+		return json.readValue(body, Page.class);
+	}
+
+	private static MockHttpServletRequestBuilder page(MockHttpServletRequestBuilder request, String cursor) {
+		return cursor != null ? request.param("cursor", cursor) : request;
+	}
+
+	private static String[] logins(int... numbers) {
+		String[] logins = new String[numbers.length];
+		for (int i = 0; i < numbers.length; i++) logins[i] = "report-client-" + numbers[i];
+		return logins;
+	}
+}
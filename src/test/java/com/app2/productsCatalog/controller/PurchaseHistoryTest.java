@@ -0,0 +1,137 @@
+package com.app2.productsCatalog.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.app2.productsCatalog.domain.chart.PurchaseHistoryPage;
+import com.app2.productsCatalog.domain.user.User;
+import com.app2.productsCatalog.repository.UserRepository;
+import com.app2.productsCatalog.support.EmbeddedPostgresSupport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Paginação por cursor do {@code GET /product/chart/mine}. Cada teste cria o
+ * próprio usuário, então só vê o histórico que ele mesmo gravou.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PurchaseHistoryTest {
+
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		EmbeddedPostgresSupport.register(registry);
+	}
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private final ObjectMapper json = new ObjectMapper();
+
+	@Test
+	void pagesAcrossPurchasesWithTheSameTimestampWithoutGapsOrDuplicates() throws Exception {
+		User user = newUser();
+		Instant tie = Instant.now().truncatedTo(ChronoUnit.MILLIS).minus(1, ChronoUnit.DAYS);
+		List<UUID> expected = new ArrayList<>();
+		// Dois mais recentes, cinco empatados e um mais antigo; no empate vale o id decrescente
+		expected.add(purchase(user, tie.plusSeconds(20)));
+		expected.add(purchase(user, tie.plusSeconds(10)));
+		List<UUID> tied = new ArrayList<>();
+		for (int i = 0; i < 5; i++) tied.add(purchase(user, tie));
+		tied.sort((a, b) -> b.toString().compareTo(a.toString()));
+		expected.addAll(tied);
+		expected.add(purchase(user, tie.minusSeconds(10)));
+
+		List<UUID> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			JsonNode page = page(user, cursor, 3);
+			page.get("items").forEach(item -> seen.add(UUID.fromString(item.get("id").asText())));
+			cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(seen).containsExactlyElementsOf(expected);
+		assertThat(pages).isEqualTo(3);
+	}
+
+	@Test
+	void aFullLastPageHasNoNextCursor() throws Exception {
+		User user = newUser();
+		Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+		for (int i = 0; i < 4; i++) purchase(user, now.minusSeconds(i));
+
+		JsonNode first = page(user, null, 2);
+		JsonNode last = page(user, first.get("nextCursor").asText(), 2);
+
+		assertThat(last.get("items")).hasSize(2);
+		assertThat(last.get("nextCursor").isNull()).isTrue();
+	}
+
+	@Test
+	void aCursorPastTheOldestPurchaseReturnsAnEmptyPage() throws Exception {
+		User user = newUser();
+		purchase(user, Instant.now());
+		String cursor = new PurchaseHistoryPage.Cursor(Instant.parse("2000-01-01T00:00:00Z"), UUID.randomUUID()).encode();
+
+		JsonNode page = page(user, cursor, 20);
+
+		assertThat(page.get("items")).isEmpty();
+		assertThat(page.get("nextCursor").isNull()).isTrue();
+	}
+
+	@Test
+	void rejectsAMalformedCursor() throws Exception {
+		User user = newUser();
+
+		mvc.perform(get("/product/chart/mine").param("cursor", "not-a-cursor").with(user(user)))
+				.andExpect(status().isBadRequest());
+	}
+
+	private JsonNode page(User user, String cursor, int size) throws Exception {
+		var request = get("/product/chart/mine").param("size", String.valueOf(size)).with(user(user));
+		if (cursor != null) request.param("cursor", cursor);
+		byte[] body = mvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsByteArray();
+		return json.readTree(body);
+	}
+
+	private User newUser() {
+		String login = "history-" + UUID.randomUUID();
+		jdbc.update("INSERT INTO users (login, password, role) VALUES (?, 'x', 'USER')", login);
+		UserDetails user = userRepository.findByLogin(login);
+		return (User) user;
+	}
+
+	private UUID purchase(User user, Instant createdAt) {
+		UUID id = UUID.randomUUID();
+		jdbc.update("INSERT INTO chart (id, user_id, qtd_itens, total_value, created_at) VALUES (?, ?, 1, 10, ?)",
+				id, user.getId(), Timestamp.from(createdAt));
+		return id;
+	}
+}
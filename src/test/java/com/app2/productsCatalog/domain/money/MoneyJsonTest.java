@@ -0,0 +1,49 @@
+package com.app2.productsCatalog.domain.money;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+class MoneyJsonTest {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	record Price(Money value) {}
+
+	@Test
+	void formatsCentsWithTwoDecimalPlaces() {
+		assertThat(format(0)).isEqualTo("0.00");
+		assertThat(format(7)).isEqualTo("0.07");
+		assertThat(format(70)).isEqualTo("0.70");
+		assertThat(format(199_999)).isEqualTo("1999.99");
+		assertThat(format(-5)).isEqualTo("-0.05");
+		assertThat(format(-1_205)).isEqualTo("-12.05");
+		assertThat(format(Long.MAX_VALUE)).isEqualTo("92233720368547758.07");
+		assertThat(format(Long.MIN_VALUE)).isEqualTo("-92233720368547758.08");
+	}
+
+	@Test
+	void writesAndReadsJsonNumbers() throws Exception {
+		assertThat(mapper.writeValueAsString(new Price(Money.ofMinor(-1_205)))).isEqualTo("{\"value\":-12.05}");
+		assertThat(mapper.readValue("{\"value\":19.9}", Price.class).value()).isEqualTo(Money.ofMinor(1_990));
+		assertThat(mapper.readValue("{\"value\":\"0.07\"}", Price.class).value()).isEqualTo(Money.ofMinor(7));
+		assertThat(mapper.readValue("{\"value\":\" \"}", Price.class).value()).isNull();
+	}
+
+	@Test
+	void rejectsValuesOutsideTheRangeAsInvalidInput() {
+		// InvalidFormatException vira 400 no Spring MVC, em vez de um ArithmeticException (500)
+		assertThatThrownBy(() -> mapper.readValue("{\"value\":1e30}", Price.class)).isInstanceOf(InvalidFormatException.class);
+		assertThatThrownBy(() -> mapper.readValue("{\"value\":\"1e30\"}", Price.class)).isInstanceOf(InvalidFormatException.class);
+		assertThatThrownBy(() -> mapper.readValue("{\"value\":\"abc\"}", Price.class)).isInstanceOf(InvalidFormatException.class);
+	}
+
+	private static String format(long minorUnits) {
+		char[] buffer = new char[MoneyJson.MAX_LENGTH];
+		return new String(buffer, 0, MoneyJson.format(minorUnits, buffer));
+	}
+}
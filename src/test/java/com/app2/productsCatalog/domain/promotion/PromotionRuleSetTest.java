@@ -0,0 +1,139 @@
+package com.app2.productsCatalog.domain.promotion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.app2.productsCatalog.domain.money.Money;
+
+class PromotionRuleSetTest {
+
+	private final UUID product = UUID.randomUUID();
+	private final UUID other = UUID.randomUUID();
+
+	@Test
+	void appliesThePercentageOnlyToItsProduct() {
+		PromotionRuleSet rules = PromotionRuleSet.compile(List.of(percent(product, "10")));
+
+		assertThat(rules.total(product, 1_000, 2, null)).isEqualTo(1_800);
+		assertThat(rules.total(other, 1_000, 2, null)).isEqualTo(2_000);
+	}
+
+	@Test
+	void productRulesDoNotStackAndTheBestWins() {
+		PromotionRuleSet rules = PromotionRuleSet.compile(List.of(percent(product, "10"), buyGet(product, 2, 1)));
+
+		// 3 unidades: 10% dá 2700, leve 3 pague 2 dá 2000
+		assertThat(rules.total(product, 1_000, 3, null)).isEqualTo(2_000);
+		// 2 unidades: o leve-pague não fecha grupo, vale o percentual
+		assertThat(rules.total(product, 1_000, 2, null)).isEqualTo(1_800);
+	}
+
+	@Test
+	void fixedThresholdAppliesFromTheLimitOn() {
+		PromotionRuleSet rules = PromotionRuleSet.compile(List.of(threshold(null, 5_000, 500)));
+
+		assertThat(rules.total(product, 4_999, 1, null)).isEqualTo(4_999);
+		assertThat(rules.total(product, 5_000, 1, null)).isEqualTo(4_500);
+	}
+
+	@Test
+	void higherThresholdsKeepTheBestDiscountOfLowerOnes() {
+		PromotionRuleSet rules = PromotionRuleSet.compile(List.of(
+				threshold(null, 1_000, 300),
+				threshold(null, 5_000, 100),
+				cartPercent(20_000, "10")));
+
+		// O limite de 5000 dá só 100, mas o de 1000 (300) continua valendo acima dele
+		assertThat(rules.total(product, 6_000, 1, null)).isEqualTo(5_700);
+		// Acima de 20000 o percentual (2500) supera o fixo
+		assertThat(rules.total(product, 25_000, 1, null)).isEqualTo(22_500);
+	}
+
+	@Test
+	void couponsScopedToAProductDoNotApplyToOthers() {
+		Promotion coupon = percent(product, "15");
+		coupon.setCouponCode("SO-ESTE");
+		PromotionRuleSet rules = PromotionRuleSet.compile(List.of(coupon));
+
+		assertThat(rules.hasCoupon("SO-ESTE")).isTrue();
+		assertThat(rules.total(product, 1_000, 1, "SO-ESTE")).isEqualTo(850);
+		assertThat(rules.total(other, 1_000, 1, "SO-ESTE")).isEqualTo(1_000);
+		assertThat(rules.total(product, 1_000, 1, "OUTRO")).isEqualTo(1_000);
+	}
+
+	@Test
+	void couponsRespectTheirMinimumValue() {
+		Promotion coupon = threshold(null, 3_000, 1_000);
+		coupon.setCouponCode("MIN30");
+		PromotionRuleSet rules = PromotionRuleSet.compile(List.of(coupon));
+
+		assertThat(rules.total(product, 2_999, 1, "MIN30")).isEqualTo(2_999);
+		assertThat(rules.total(product, 3_000, 1, "MIN30")).isEqualTo(2_000);
+	}
+
+	@Test
+	void totalsNeverDropBelowOneCent() {
+		Promotion coupon = threshold(null, 0, 10_000);
+		coupon.setCouponCode("TUDO");
+		PromotionRuleSet rules = PromotionRuleSet.compile(List.of(threshold(null, 0, 5_000), coupon));
+
+		assertThat(rules.total(product, 1_000, 1, null)).isEqualTo(1);
+		assertThat(rules.total(product, 1_000, 1, "TUDO")).isEqualTo(1);
+		assertThat(rules.total(product, 0, 3, "TUDO")).isZero();
+	}
+
+	@Test
+	void rejectsThresholdsScopedToAProduct() {
+		PromotionRuleSet rules = PromotionRuleSet.compile(List.of(threshold(product, 1_000, 500)));
+
+		assertThat(rules.size()).isZero();
+		assertThat(rules.rejected()).isEqualTo(1);
+		assertThat(rules.total(other, 2_000, 1, null)).isEqualTo(2_000);
+		assertThat(rules.total(product, 2_000, 1, null)).isEqualTo(2_000);
+	}
+
+	@Test
+	void ignoresInactiveRules() {
+		Promotion inactive = percent(product, "50");
+		inactive.setActive(false);
+
+		assertThat(PromotionRuleSet.compile(List.of(inactive)).total(product, 1_000, 1, null)).isEqualTo(1_000);
+	}
+
+	private static Promotion percent(UUID productId, String percentage) {
+		Promotion promotion = new Promotion();
+		promotion.setType(PromotionType.PERCENTAGE);
+		promotion.setProductId(productId);
+		promotion.setPercentage(new BigDecimal(percentage));
+		return promotion;
+	}
+
+	private static Promotion cartPercent(long thresholdCents, String percentage) {
+		Promotion promotion = percent(null, percentage);
+		promotion.setThresholdValue(Money.ofMinor(thresholdCents));
+		return promotion;
+	}
+
+	private static Promotion buyGet(UUID productId, int buy, int free) {
+		Promotion promotion = new Promotion();
+		promotion.setType(PromotionType.BUY_X_GET_Y);
+		promotion.setProductId(productId);
+		promotion.setBuyQuantity(buy);
+		promotion.setFreeQuantity(free);
+		return promotion;
+	}
+
+	private static Promotion threshold(UUID productId, long thresholdCents, long discountCents) {
+		Promotion promotion = new Promotion();
+		promotion.setType(PromotionType.THRESHOLD);
+		promotion.setProductId(productId);
+		promotion.setThresholdValue(Money.ofMinor(thresholdCents));
+		promotion.setDiscountValue(Money.ofMinor(discountCents));
+		return promotion;
+	}
+}
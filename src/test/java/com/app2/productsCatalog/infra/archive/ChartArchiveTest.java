@@ -0,0 +1,110 @@
+package com.app2.productsCatalog.infra.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.app2.productsCatalog.support.EmbeddedPostgresSupport;
+
+/**
+ * Dois nós e o mesmo catálogo: com um diretório compartilhado ambos leem o
+ * segmento; com diretórios próprios o outro nó pula o segmento e o informa.
+ */
+@SpringBootTest
+class ChartArchiveTest {
+
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		EmbeddedPostgresSupport.register(registry);
+	}
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@TempDir
+	Path nodeA;
+
+	@TempDir
+	Path nodeB;
+
+	private final UUID user = UUID.randomUUID();
+	private String fileName;
+
+	@AfterEach
+	void removeSegment() {
+		// O catálogo é compartilhado com os demais testes
+		jdbc.update("DELETE FROM chart_archive_segments WHERE file_name = ?", fileName);
+	}
+
+	@Test
+	void nodesSharingTheDirectoryReadEachOthersSegments() throws IOException {
+		archive(nodeA, "node-a");
+
+		ChartArchive.ArchiveTotals totals = archive(nodeA, "node-b").totalsByUser();
+
+		assertThat(totals.byUser().get(user)).isEqualTo(new ChartArchive.UserTotals(5, 3_000, 2, 2_000_000L));
+		assertThat(totals.unreachable()).doesNotContain(fileName);
+	}
+
+	@Test
+	void segmentsOnAnotherNodesDiskAreSkippedAndReported() throws IOException {
+		archive(nodeA, "node-a");
+
+		ChartArchive.ArchiveTotals totals = archive(nodeB, "node-b").totalsByUser();
+
+		assertThat(totals.byUser()).doesNotContainKey(user);
+		assertThat(totals.unreachable()).contains(fileName);
+		assertThat(totals.isComplete()).isFalse();
+		assertThat(jdbc.queryForObject("SELECT node FROM chart_archive_segments WHERE file_name = ?", String.class, fileName))
+				.isEqualTo("node-a");
+	}
+
+	@Test
+	void orphanRemovalOnlyTouchesThisNodesFiles() throws IOException {
+		ChartArchive a = archive(nodeA, "node-a");
+		ChartArchive b = archive(nodeA, "node-b");
+		// Segmento de B ainda não registrado: pode ser um arquivamento em andamento
+		String pending = b.newSegmentName();
+		ChartSegmentWriter.write(b.path(pending), rows());
+		String orphan = a.newSegmentName();
+		ChartSegmentWriter.write(a.path(orphan), rows());
+
+		assertThat(a.removeOrphans()).isEqualTo(1);
+		assertThat(nodeA.resolve(orphan)).doesNotExist();
+		assertThat(nodeA.resolve(pending)).exists();
+		assertThat(nodeA.resolve(fileName)).exists();
+	}
+
+	// Grava e registra um segmento do usuário como o nó dono do diretório
+	private ChartArchive archive(Path directory, String node) throws IOException {
+		ChartArchive archive = new ChartArchive(directory.toString(), node);
+		ReflectionTestUtils.setField(archive, "jdbcTemplate", jdbc);
+		if (fileName == null) {
+			fileName = archive.newSegmentName();
+			ChartSegmentWriter.write(archive.path(fileName), rows());
+			archive.register(fileName);
+			assertThat(Files.exists(archive.path(fileName))).isTrue();
+		}
+		return archive;
+	}
+
+	private List<ArchivedChartRow> rows() {
+		return List.of(
+				new ArchivedChartRow(UUID.randomUUID(), user, 2, 1_000, 1_000_000L),
+				new ArchivedChartRow(UUID.randomUUID(), user, 3, 2_000, 2_000_000L));
+	}
+}
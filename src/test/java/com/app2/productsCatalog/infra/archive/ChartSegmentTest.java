@@ -0,0 +1,141 @@
+package com.app2.productsCatalog.infra.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Ida e volta de {@link ChartSegmentWriter} e {@link ChartSegmentReader},
+ * incluindo deltas negativos, segmento vazio e arquivos danificados.
+ */
+class ChartSegmentTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void readsBackEveryRowInUserAndDateOrder() throws IOException {
+		UUID first = new UUID(1, 1);
+		UUID second = new UUID(2, 2);
+		List<ArchivedChartRow> rows = List.of(
+				row(second, 3, 1_999, 1_700_000_000_000L),
+				row(first, 1, 1_000, 1_700_000_500_000L),
+				row(second, 2, 150_000_000_00L, 1_600_000_000_000L),
+				row(first, 5, 1, 1_700_000_000_000L),
+				// Antes de 1970 e valor negativo: deltas e valores em zigzag
+				row(first, 1, -250, -86_400_000L));
+		Path path = write(rows);
+
+		ChartSegmentReader reader = new ChartSegmentReader(path);
+		List<ArchivedChartRow> read = new ArrayList<>();
+		reader.forEach(read::add);
+
+		List<ArchivedChartRow> expected = new ArrayList<>(rows);
+		expected.sort(Comparator.comparing(ArchivedChartRow::userId).thenComparingLong(ArchivedChartRow::createdAtMillis));
+		assertThat(read).containsExactlyElementsOf(expected);
+		assertThat(reader.rows()).isEqualTo(5);
+		assertThat(reader.minCreatedAt()).isEqualTo(-86_400_000L);
+		assertThat(reader.maxCreatedAt()).isEqualTo(1_700_000_500_000L);
+	}
+
+	@Test
+	void userTotalsMatchTheRows() throws IOException {
+		UUID first = new UUID(1, 1);
+		UUID second = new UUID(2, 2);
+		Path path = write(List.of(
+				row(first, 2, 1_000, 2_000_000L),
+				row(first, 3, -300, 1_000_000L),
+				row(second, 1, 700, 500_000L)));
+
+		Map<UUID, long[]> totals = new HashMap<>();
+		new ChartSegmentReader(path).forEachUserTotal((userId, items, value, purchases, last) ->
+				totals.put(userId, new long[] { items, value, purchases, last }));
+
+		assertThat(totals).containsOnlyKeys(first, second);
+		assertThat(totals.get(first)).containsExactly(5, 700, 2, 2_000_000L);
+		assertThat(totals.get(second)).containsExactly(1, 700, 1, 500_000L);
+	}
+
+	@Test
+	void emptyBatchesRoundTrip() throws IOException {
+		ChartSegmentReader reader = new ChartSegmentReader(write(List.of()));
+		List<ArchivedChartRow> read = new ArrayList<>();
+		reader.forEach(read::add);
+		reader.forEachUserTotal((userId, items, value, purchases, last) -> read.add(null));
+
+		assertThat(reader.rows()).isZero();
+		assertThat(read).isEmpty();
+	}
+
+	@Test
+	void rowsWithoutIdOrUserAreRejectedBeforeWriting() {
+		Path path = directory.resolve("nulls.seg");
+		List<ArchivedChartRow> withoutUser = List.of(new ArchivedChartRow(UUID.randomUUID(), null, 1, 100, 0));
+		List<ArchivedChartRow> withoutId = List.of(new ArchivedChartRow(null, UUID.randomUUID(), 1, 100, 0));
+
+		assertThatThrownBy(() -> ChartSegmentWriter.write(path, withoutUser)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> ChartSegmentWriter.write(path, withoutId)).isInstanceOf(IllegalArgumentException.class);
+		assertThat(path).doesNotExist();
+	}
+
+	@Test
+	void truncatedFilesAreRejected() throws IOException {
+		Path path = write(sample());
+		byte[] bytes = Files.readAllBytes(path);
+
+		Files.write(path, Arrays.copyOf(bytes, bytes.length - 10));
+		assertThatThrownBy(() -> new ChartSegmentReader(path)).isInstanceOf(IOException.class).hasMessageContaining("Truncated");
+
+		Files.write(path, Arrays.copyOf(bytes, ChartSegmentFormat.HEADER_SIZE - 1));
+		assertThatThrownBy(() -> new ChartSegmentReader(path)).isInstanceOf(IOException.class);
+	}
+
+	@Test
+	void corruptedColumnsFailTheRead() throws IOException {
+		Path path = write(sample());
+		byte[] bytes = Files.readAllBytes(path);
+		// Primeira coluna (usuários) logo após o cabeçalho
+		for (int i = ChartSegmentFormat.HEADER_SIZE + 2; i < ChartSegmentFormat.HEADER_SIZE + 8; i++) bytes[i] ^= 0x5A;
+		Files.write(path, bytes);
+
+		ChartSegmentReader reader = new ChartSegmentReader(path);
+		assertThatThrownBy(() -> reader.forEach(row -> {})).isInstanceOf(IOException.class);
+	}
+
+	@Test
+	void otherFilesAreNotSegments() throws IOException {
+		Path path = directory.resolve("other.seg");
+		Files.write(path, new byte[ChartSegmentFormat.HEADER_SIZE + 10]);
+
+		assertThatThrownBy(() -> new ChartSegmentReader(path)).isInstanceOf(IOException.class).hasMessageContaining("Not a chart archive segment");
+	}
+
+	private List<ArchivedChartRow> sample() {
+		List<ArchivedChartRow> rows = new ArrayList<>();
+		for (int i = 0; i < 200; i++) rows.add(row(new UUID(0, i % 7), 1 + i % 4, 100 + i, 1_700_000_000_000L + i * 1_000L));
+		return rows;
+	}
+
+	private Path write(List<ArchivedChartRow> rows) throws IOException {
+		Path path = directory.resolve("chart-" + UUID.randomUUID() + ChartArchive.SEGMENT_SUFFIX);
+		ChartSegmentWriter.write(path, rows);
+		return path;
+	}
+
+	private static ArchivedChartRow row(UUID userId, int items, long value, long createdAt) {
+		return new ArchivedChartRow(UUID.randomUUID(), userId, items, value, createdAt);
+	}
+}
@@ -0,0 +1,131 @@
+package com.app2.productsCatalog.infra.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+class CacheInvalidationBusTest {
+
+	private static EmbeddedPostgres postgres;
+	private static JdbcTemplate jdbc;
+	private static CacheInvalidationBus bus;
+
+	private static final BlockingQueue<CacheInvalidation> received = new LinkedBlockingQueue<>();
+	private static final AtomicInteger flushes = new AtomicInteger();
+
+	@BeforeAll
+	static void start() throws IOException {
+		postgres = EmbeddedPostgres.start();
+		Flyway.configure().dataSource(postgres.getPostgresDatabase()).load().migrate();
+		jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+
+		DataSourceProperties properties = new DataSourceProperties();
+		properties.setUrl(postgres.getJdbcUrl("postgres", "postgres"));
+		properties.setUsername("postgres");
+		bus = new CacheInvalidationBus();
+		ReflectionTestUtils.setField(bus, "dataSourceProperties", properties);
+		ReflectionTestUtils.setField(bus, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(bus, "enabled", true);
+		ReflectionTestUtils.setField(bus, "pollTimeoutMs", 200);
+		ReflectionTestUtils.setField(bus, "reconnectDelayMs", 100L);
+		bus.subscribe("products", new CacheInvalidationBus.Subscriber() {
+			@Override
+			public void accept(CacheInvalidation invalidation) {
+				received.add(invalidation);
+			}
+
+			@Override
+			public void flush() {
+				flushes.incrementAndGet();
+			}
+		});
+		ReflectionTestUtils.invokeMethod(bus, "start");
+		await().atMost(Duration.ofSeconds(10)).until(bus::isConnected);
+	}
+
+	@AfterAll
+	static void stop() throws IOException {
+		ReflectionTestUtils.invokeMethod(bus, "stop");
+		postgres.close();
+	}
+
+	@BeforeEach
+	void clear() {
+		received.clear();
+	}
+
+	@Test
+	void committedWritesAreDeliveredWithTheirKeys() throws InterruptedException {
+		UUID id = insertProduct("bus-product-1");
+		jdbc.update("UPDATE products SET stock = stock - 1 WHERE id = ?", id);
+		jdbc.update("DELETE FROM products WHERE id = ?", id);
+
+		assertThat(next()).isEqualTo(new CacheInvalidation("products", 'I', id.toString()));
+		assertThat(next()).isEqualTo(new CacheInvalidation("products", 'U', id.toString()));
+		assertThat(next()).isEqualTo(new CacheInvalidation("products", 'D', id.toString()));
+	}
+
+	@Test
+	void rolledBackWritesAreNotDelivered() throws InterruptedException {
+		UUID id = insertProduct("bus-product-2");
+		assertThat(next().operation()).isEqualTo('I');
+
+		TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(jdbc.getDataSource()));
+		transaction.executeWithoutResult(status -> {
+			jdbc.update("UPDATE products SET stock = 0 WHERE id = ?", id);
+			status.setRollbackOnly();
+		});
+		UUID marker = insertProduct("bus-product-3");
+
+		assertThat(next()).isEqualTo(new CacheInvalidation("products", 'I', marker.toString()));
+	}
+
+	@Test
+	void reconnectEndsWithFullFlush() {
+		int before = flushes.get();
+
+		jdbc.queryForList("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = 'cache-invalidation-listener'");
+
+		await().atMost(Duration.ofSeconds(10)).until(() -> flushes.get() > before && bus.isConnected());
+	}
+
+	@Test
+	void malformedPayloadsAreRejected() {
+		assertThat(CacheInvalidation.parse("products")).isNull();
+		assertThat(CacheInvalidation.parse("products:U:")).isNull();
+		assertThat(CacheInvalidation.parse("products:UPDATE:1")).isNull();
+		assertThat(CacheInvalidation.parse("users:D:42")).isEqualTo(new CacheInvalidation("users", 'D', "42"));
+	}
+
+	private static UUID insertProduct(String name) {
+		return jdbc.queryForObject("INSERT INTO products (name, image_url, price, stock) VALUES (?, 'x', 1, 10) RETURNING id",
+				UUID.class, name);
+	}
+
+	private static CacheInvalidation next() throws InterruptedException {
+		CacheInvalidation invalidation = received.poll(5, TimeUnit.SECONDS);
+		assertThat(invalidation).as("invalidação recebida").isNotNull();
+		return invalidation;
+	}
+}
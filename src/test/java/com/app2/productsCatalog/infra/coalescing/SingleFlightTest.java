@@ -0,0 +1,134 @@
+package com.app2.productsCatalog.infra.coalescing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * A chamada líder fica presa em um latch; as demais só são liberadas depois de
+ * estarem de fato aguardando o resultado dela.
+ */
+class SingleFlightTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void concurrentCallersShareTheLeadersResult() throws Exception {
+		SingleFlight<String, Object> flight = new SingleFlight<>("test", Duration.ofSeconds(10), registry);
+		Object value = new Object();
+		FutureTask<Object> leader = start(() -> flight.execute("key", () -> blockThen(() -> value)));
+		awaitLeader();
+		List<FutureTask<Object>> followers = followers(3, () -> flight.execute("key", () -> blockThen(Object::new)));
+
+		release.countDown();
+
+		assertThat(leader.get(5, TimeUnit.SECONDS)).isSameAs(value);
+		for (FutureTask<Object> follower : followers) assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(value);
+		assertThat(loads).hasValue(1);
+		assertThat(count("executed")).isEqualTo(1);
+		assertThat(count("shared")).isEqualTo(3);
+		assertThat(count("timed_out")).isZero();
+	}
+
+	@Test
+	void theLeadersErrorReachesEveryWaiter() throws Exception {
+		SingleFlight<String, Object> flight = new SingleFlight<>("test", Duration.ofSeconds(10), registry);
+		IllegalStateException failure = new IllegalStateException("database down");
+		FutureTask<Object> leader = start(() -> flight.execute("key", () -> blockThen(() -> { throw failure; })));
+		awaitLeader();
+		List<FutureTask<Object>> followers = followers(2, () -> flight.execute("key", () -> blockThen(Object::new)));
+
+		release.countDown();
+
+		assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class).hasCause(failure);
+		for (FutureTask<Object> follower : followers) {
+			assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class).hasCause(failure);
+		}
+		assertThat(loads).hasValue(1);
+		assertThat(count("shared")).isEqualTo(2);
+	}
+
+	@Test
+	void waitersGiveUpAfterTheTimeoutAndLoadThemselves() throws Exception {
+		SingleFlight<String, Object> flight = new SingleFlight<>("test", Duration.ofMillis(50), registry);
+		Object stuck = new Object();
+		Object own = new Object();
+		FutureTask<Object> leader = start(() -> flight.execute("key", () -> blockThen(() -> stuck)));
+		awaitLeader();
+
+		assertThat(flight.execute("key", () -> own)).isSameAs(own);
+		assertThat(count("timed_out")).isEqualTo(1);
+
+		release.countDown();
+		assertThat(leader.get(5, TimeUnit.SECONDS)).isSameAs(stuck);
+		assertThat(count("shared")).isZero();
+	}
+
+	@Test
+	void nothingIsKeptAfterTheCallCompletes() {
+		SingleFlight<String, Integer> flight = new SingleFlight<>("test", Duration.ofSeconds(10), registry);
+
+		assertThat(flight.execute("key", loads::incrementAndGet)).isEqualTo(1);
+		assertThat(flight.execute("key", loads::incrementAndGet)).isEqualTo(2);
+		assertThat(flight.execute("other", loads::incrementAndGet)).isEqualTo(3);
+		assertThat(count("executed")).isEqualTo(3);
+		assertThat(registry.get("coalescing.in.flight").gauge().value()).isZero();
+	}
+
+	private <T> T blockThen(Supplier<T> result) {
+		loads.incrementAndGet();
+		try {
+			release.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return result.get();
+	}
+
+	private void awaitLeader() {
+		await().atMost(Duration.ofSeconds(5)).until(() -> loads.get() == 1);
+	}
+
+	// Libera o teste só quando cada seguidor está parado esperando o líder
+	private List<FutureTask<Object>> followers(int count, Callable<Object> call) {
+		List<FutureTask<Object>> followers = new ArrayList<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			FutureTask<Object> task = new FutureTask<>(call);
+			Thread thread = new Thread(task);
+			thread.start();
+			followers.add(task);
+			threads.add(thread);
+		}
+		await().atMost(Duration.ofSeconds(5))
+				.until(() -> threads.stream().allMatch(t -> t.getState() == Thread.State.TIMED_WAITING));
+		return followers;
+	}
+
+	private static <T> FutureTask<T> start(Callable<T> call) {
+		FutureTask<T> task = new FutureTask<>(call);
+		new Thread(task).start();
+		return task;
+	}
+
+	private double count(String outcome) {
+		return registry.get("coalescing.calls").tag("outcome", outcome).counter().count();
+	}
+}
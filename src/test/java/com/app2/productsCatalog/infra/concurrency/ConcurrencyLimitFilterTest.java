@@ -0,0 +1,126 @@
+package com.app2.productsCatalog.infra.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+
+/**
+ * Limite fixo em 10 (a janela de uma hora nunca fecha durante o teste):
+ * relatórios podem ocupar 6 vagas, o catálogo 9 e a finalização de compra 10.
+ * As vagas são ocupadas por requisições presas em um latch.
+ */
+class ConcurrencyLimitFilterTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final List<Thread> held = new ArrayList<>();
+	private ConcurrencyLimitFilter filter;
+
+	@BeforeEach
+	void createFilter() {
+		filter = new ConcurrencyLimitFilter();
+		ReflectionTestUtils.setField(filter, "meterRegistry", registry);
+		ReflectionTestUtils.setField(filter, "enabled", true);
+		ReflectionTestUtils.setField(filter, "initialLimit", 10);
+		ReflectionTestUtils.setField(filter, "minLimit", 4);
+		ReflectionTestUtils.setField(filter, "maxLimit", 200);
+		ReflectionTestUtils.setField(filter, "window", Duration.ofHours(1));
+		ReflectionTestUtils.setField(filter, "minWindowSamples", 1);
+		filter.init();
+	}
+
+	@AfterEach
+	void releaseHeld() throws InterruptedException {
+		release.countDown();
+		for (Thread thread : held) thread.join(5_000);
+	}
+
+	@Test
+	void reportsAreRejectedFirst() throws Exception {
+		hold(6);
+
+		MockHttpServletResponse report = send("GET", "/product/clients");
+		assertThat(report.getStatus()).isEqualTo(503);
+		assertThat(report.getHeader("Retry-After")).isEqualTo("1");
+		assertThat(send("GET", "/product").getStatus()).isEqualTo(200);
+		assertThat(rejected(RequestPriority.REPORTS)).isEqualTo(1);
+		assertThat(rejected(RequestPriority.CATALOG)).isZero();
+	}
+
+	@Test
+	void catalogIsRejectedBeforeCheckout() throws Exception {
+		hold(9);
+
+		assertThat(send("GET", "/product/clients").getStatus()).isEqualTo(503);
+		assertThat(send("GET", "/product").getStatus()).isEqualTo(503);
+		assertThat(send("POST", "/product/chart/add").getStatus()).isEqualTo(200);
+		assertThat(rejected(RequestPriority.CATALOG)).isEqualTo(1);
+		assertThat(rejected(RequestPriority.CHECKOUT)).isZero();
+	}
+
+	@Test
+	void checkoutIsRejectedOnlyAtTheFullLimit() throws Exception {
+		hold(10);
+
+		assertThat(send("POST", "/product/chart/add").getStatus()).isEqualTo(503);
+		assertThat(rejected(RequestPriority.CHECKOUT)).isEqualTo(1);
+	}
+
+	@Test
+	void healthCheckIsNeverRejected() throws Exception {
+		hold(10);
+
+		assertThat(send("GET", "/actuator/health/readiness").getStatus()).isEqualTo(200);
+		assertThat(rejected(RequestPriority.REPORTS)).isZero();
+	}
+
+	// Finalizações de compra que só terminam quando o teste acaba
+	private void hold(int count) {
+		for (int i = 0; i < count; i++) {
+			FilterChain blocked = (request, response) -> {
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			};
+			Thread thread = new Thread(() -> {
+				try {
+					filter.doFilter(new MockHttpServletRequest("POST", "/product/chart/add"), new MockHttpServletResponse(), blocked);
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			thread.start();
+			held.add(thread);
+		}
+		await().atMost(Duration.ofSeconds(5))
+				.until(() -> registry.get("concurrency.in.flight").gauge().value() == count);
+	}
+
+	private MockHttpServletResponse send(String method, String path) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest(method, path), response, new MockFilterChain());
+		return response;
+	}
+
+	private double rejected(RequestPriority priority) {
+		return registry.get("concurrency.rejected").tag("priority", priority.name()).counter().count();
+	}
+}
@@ -0,0 +1,110 @@
+package com.app2.productsCatalog.infra.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Uma amostra por janela de 1 ms, com instantes sintéticos: cada chamada a
+ * {@link #window} fecha uma janela com a latência e a ocupação dadas.
+ */
+class VegasLimitTest {
+
+	private static final long WINDOW = 1_000_000;
+	private static final long MS = 1_000_000;
+
+	private long now;
+
+	@Test
+	void growsWhileLatencyStaysAtTheNoLoadLevel() {
+		VegasLimit limit = vegas(20, 4, 200, WINDOW, 1);
+		window(limit, 10 * MS, 1);
+
+		// Fila zero: cresce 6·log10(limite) por janela
+		window(limit, 10 * MS, 20);
+		assertThat(limit.limit()).isEqualTo(28);
+		window(limit, 10 * MS, 28);
+		assertThat(limit.limit()).isEqualTo(37);
+	}
+
+	@Test
+	void doesNotGrowWhenLessThanHalfOfTheLimitIsUsed() {
+		VegasLimit limit = vegas(20, 4, 200, WINDOW, 1);
+		window(limit, 10 * MS, 1);
+
+		window(limit, 10 * MS, 9);
+
+		assertThat(limit.limit()).isEqualTo(20);
+	}
+
+	@Test
+	void shrinksInProportionToTheEstimatedQueue() {
+		assertThat(shrunkFrom(20, 20 * MS)).isEqualTo(19);
+		assertThat(shrunkFrom(20, 100 * MS)).isEqualTo(15);
+		assertThat(shrunkFrom(20, 1_000 * MS)).isEqualTo(14);
+		// Mesmo com fila enorme, no máximo metade por janela
+		assertThat(shrunkFrom(200, 100_000 * MS)).isEqualTo(107);
+	}
+
+	@Test
+	void neverLeavesTheConfiguredBounds() {
+		VegasLimit limit = vegas(20, 10, 30, WINDOW, 1);
+		window(limit, 10 * MS, 1);
+		for (int i = 0; i < 10; i++) window(limit, 10 * MS, limit.limit());
+		assertThat(limit.limit()).isEqualTo(30);
+
+		for (int i = 0; i < 50; i++) window(limit, 10_000 * MS, limit.limit());
+		assertThat(limit.limit()).isEqualTo(10);
+	}
+
+	@Test
+	void periodicallyProbesTheNoLoadLatencyAgain() {
+		VegasLimit limit = vegas(20, 4, 200, WINDOW, 1);
+		window(limit, 10 * MS, 1);
+		for (int i = 1; i < 299; i++) window(limit, 12 * MS, 1);
+
+		// Com a referência de 10 ms, 12 ms é fila pequena: cresce só log10(limite)
+		window(limit, 12 * MS, 20);
+		assertThat(limit.limit()).isEqualTo(21);
+
+		// A 300ª janela refaz a referência para 12 ms sem mexer no limite
+		window(limit, 12 * MS, 21);
+		assertThat(limit.limit()).isEqualTo(21);
+
+		window(limit, 12 * MS, 21);
+		assertThat(limit.limit()).isEqualTo(29);
+	}
+
+	@Test
+	void waitsForTheWindowAndTheMinimumSamples() {
+		VegasLimit limit = vegas(20, 4, 200, WINDOW, 3);
+		window(limit, 10 * MS, 1);
+		window(limit, 10 * MS, 1);
+		window(limit, 10 * MS, 1);
+
+		for (int i = 0; i < 3; i++) limit.onSample(now, 10 * MS, 20);
+		assertThat(limit.limit()).isEqualTo(20);
+		now += WINDOW;
+		limit.onSample(now, 10 * MS, 20);
+		assertThat(limit.limit()).isEqualTo(28);
+	}
+
+	private int shrunkFrom(int initial, long rtt) {
+		VegasLimit limit = vegas(initial, 4, 200, WINDOW, 1);
+		window(limit, 10 * MS, 1);
+		window(limit, rtt, initial);
+		return limit.limit();
+	}
+
+	// A janela começa no relógio real, na construção
+	private VegasLimit vegas(int initial, int min, int max, long window, int minSamples) {
+		VegasLimit limit = new VegasLimit(initial, min, max, window, minSamples);
+		now = System.nanoTime();
+		return limit;
+	}
+
+	private void window(VegasLimit limit, long rtt, int inFlight) {
+		now += WINDOW;
+		limit.onSample(now, rtt, inFlight);
+	}
+}
@@ -0,0 +1,143 @@
+package com.app2.productsCatalog.infra.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.app2.productsCatalog.support.EmbeddedPostgresSupport;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Com o open-in-view desligado a conexão volta ao pool antes de a resposta ser
+ * serializada, e o modo de instrumentação separa o tempo de empréstimo do
+ * tempo gasto em comandos por endpoint.
+ */
+@SpringBootTest(properties = "datasource.hold-time.enabled=true")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConnectionHoldTimeTest {
+
+	private static final int PRODUCTS = 2000;
+
+	// Para cada corpo escrito: havia EntityManager (e portanto conexão) presa à requisição?
+	static final List<Boolean> BOUND_WHILE_WRITING = new CopyOnWriteArrayList<>();
+
+	@TestConfiguration
+	static class Probe {
+
+		@Bean
+		BodyWriteProbe bodyWriteProbe(EntityManagerFactory entityManagerFactory) {
+			return new BodyWriteProbe(entityManagerFactory);
+		}
+	}
+
+	@ControllerAdvice
+	static class BodyWriteProbe implements ResponseBodyAdvice<Object> {
+
+		private final EntityManagerFactory entityManagerFactory;
+
+		BodyWriteProbe(EntityManagerFactory entityManagerFactory) {
+			this.entityManagerFactory = entityManagerFactory;
+		}
+
+		@Override
+		public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+			return true;
+		}
+
+		@Override
+		public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+				Class<? extends HttpMessageConverter<?>> converterType, ServerHttpRequest request, ServerHttpResponse response) {
+			BOUND_WHILE_WRITING.add(TransactionSynchronizationManager.hasResource(entityManagerFactory));
+			return body;
+		}
+	}
+
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		EmbeddedPostgresSupport.register(registry);
+	}
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeAll
+	void seed() {
+		jdbc.update("""
+				INSERT INTO products (name, image_url, price, stock)
+				SELECT 'hold-product-' || g, 'https://example.com/' || g, 1 + g % 500, 100
+				FROM generate_series(1, ?) g
+				""", PRODUCTS);
+	}
+
+	@Test
+	void releasesTheConnectionBeforeWritingTheResponse() throws Exception {
+		BOUND_WHILE_WRITING.clear();
+
+		mvc.perform(get("/product")).andExpect(status().isOk());
+
+		assertThat(BOUND_WHILE_WRITING).containsOnly(false).isNotEmpty();
+	}
+
+	@Test
+	void recordsHoldAndBusyTimePerEndpoint() throws Exception {
+		Timer hold = meterRegistry.timer("datasource.connection.hold", "endpoint", "GET /product");
+		Timer busy = meterRegistry.timer("datasource.connection.busy", "endpoint", "GET /product");
+		long holdsBefore = hold.count();
+
+		for (int i = 0; i < 5; i++) mvc.perform(get("/product")).andExpect(status().isOk());
+
+		assertThat(hold.count()).isEqualTo(holdsBefore + 5);
+		assertThat(busy.count()).isEqualTo(hold.count());
+		assertThat(busy.totalTime(TimeUnit.NANOSECONDS)).isPositive();
+		assertThat(hold.totalTime(TimeUnit.NANOSECONDS)).isGreaterThanOrEqualTo(busy.totalTime(TimeUnit.NANOSECONDS));
+	}
+
+	@Test
+	void tagsConnectionsOutsideRequests() throws Exception {
+		Timer hold = meterRegistry.timer("datasource.connection.hold", "endpoint", "none");
+		long before = hold.count();
+
+		// A thread do teste tem uma requisição simulada associada pelo Spring Test
+		Thread job = new Thread(() -> jdbc.queryForObject("SELECT 1", Integer.class));
+		job.start();
+		job.join();
+
+		// Jobs agendados também contam aqui
+		assertThat(hold.count()).isGreaterThan(before);
+	}
+}
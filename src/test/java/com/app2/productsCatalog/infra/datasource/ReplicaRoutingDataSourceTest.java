@@ -0,0 +1,134 @@
+package com.app2.productsCatalog.infra.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Roteamento entre duas instâncias locais de PostgreSQL, uma fazendo o papel de
+ * primário e outra de réplica; cada uma responde com o próprio nome em {@code node}.
+ */
+class ReplicaRoutingDataSourceTest {
+
+	private static final String LAG_FROM_TABLE = "SELECT seconds FROM replica_lag";
+
+	private static EmbeddedPostgres primary;
+	private static EmbeddedPostgres replica;
+
+	@BeforeAll
+	static void start() throws IOException {
+		primary = EmbeddedPostgres.start();
+		replica = EmbeddedPostgres.start();
+		new JdbcTemplate(primary.getPostgresDatabase()).execute("CREATE TABLE node (name TEXT); INSERT INTO node VALUES ('primary')");
+		new JdbcTemplate(replica.getPostgresDatabase()).execute("""
+				CREATE TABLE node (name TEXT); INSERT INTO node VALUES ('replica');
+				CREATE TABLE replica_lag (seconds NUMERIC); INSERT INTO replica_lag VALUES (0)
+				""");
+	}
+
+	@AfterAll
+	static void stop() throws IOException {
+		primary.close();
+		replica.close();
+	}
+
+	@Test
+	void readOnlyTransactionsGoToReplicaAndWritesToPrimary() {
+		ReplicaRoutingDataSource routing = routing(Map.of("replica-1", replica.getPostgresDatabase()),
+				ReplicaRoutingDataSource.POSTGRES_LAG_QUERY);
+		routing.checkHealth();
+
+		assertThat(routing.replicas().get(0).healthy()).isTrue();
+		assertThat(node(routing, true)).isEqualTo("replica");
+		assertThat(node(routing, false)).isEqualTo("primary");
+		assertThat(new JdbcTemplate(new LazyConnectionDataSourceProxy(routing)).queryForObject("SELECT name FROM node", String.class))
+				.as("fora de transação").isEqualTo("primary");
+	}
+
+	@Test
+	void laggingReplicaLeavesRotationUntilItCatchesUp() {
+		JdbcTemplate replicaJdbc = new JdbcTemplate(replica.getPostgresDatabase());
+		ReplicaRoutingDataSource routing = routing(Map.of("replica-1", replica.getPostgresDatabase()), LAG_FROM_TABLE);
+		try {
+			replicaJdbc.update("UPDATE replica_lag SET seconds = 30");
+			routing.checkHealth();
+
+			assertThat(routing.replicas().get(0).healthy()).isFalse();
+			assertThat(routing.replicas().get(0).lagSeconds()).isEqualTo(30.0);
+			assertThat(node(routing, true)).isEqualTo("primary");
+
+			replicaJdbc.update("UPDATE replica_lag SET seconds = 1");
+			routing.checkHealth();
+
+			assertThat(routing.replicas().get(0).healthy()).isTrue();
+			assertThat(node(routing, true)).isEqualTo("replica");
+		} finally {
+			replicaJdbc.update("UPDATE replica_lag SET seconds = 0");
+		}
+	}
+
+	@Test
+	void unreachableReplicaFallsBackAndIsSkipped() {
+		Map<String, DataSource> replicas = new LinkedHashMap<>();
+		replicas.put("down", new DriverManagerDataSource("jdbc:postgresql://localhost:1/postgres?connectTimeout=1", "postgres", ""));
+		replicas.put("up", replica.getPostgresDatabase());
+		ReplicaRoutingDataSource routing = routing(replicas, ReplicaRoutingDataSource.POSTGRES_LAG_QUERY);
+
+		for (int i = 0; i < 4; i++) {
+			assertThat(node(routing, true)).isIn("primary", "replica");
+		}
+		assertThat(routing.replicas().get(0).healthy()).isFalse();
+		for (int i = 0; i < 4; i++) {
+			assertThat(node(routing, true)).isEqualTo("replica");
+		}
+
+		routing.checkHealth();
+		assertThat(routing.replicas().get(0).healthy()).isFalse();
+		assertThat(routing.replicas().get(1).healthy()).isTrue();
+	}
+
+	@Test
+	void withoutReplicasEverythingGoesToPrimary() {
+		ReplicaRoutingDataSource routing = routing(Map.of(), ReplicaRoutingDataSource.POSTGRES_LAG_QUERY);
+		routing.checkHealth();
+
+		assertThat(node(routing, true)).isEqualTo("primary");
+		assertThat(node(routing, false)).isEqualTo("primary");
+	}
+
+	@Test
+	void perCallCredentialsAreNotSupported() {
+		ReplicaRoutingDataSource routing = routing(Map.of(), ReplicaRoutingDataSource.POSTGRES_LAG_QUERY);
+
+		assertThatThrownBy(() -> routing.getConnection("user", "secret")).isInstanceOf(SQLFeatureNotSupportedException.class);
+	}
+
+	private static ReplicaRoutingDataSource routing(Map<String, DataSource> replicas, String lagQuery) {
+		return new ReplicaRoutingDataSource(primary.getPostgresDatabase(), replicas, Duration.ofSeconds(5), lagQuery);
+	}
+
+	private static String node(ReplicaRoutingDataSource routing, boolean readOnly) {
+		DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+		TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		transaction.setReadOnly(readOnly);
+		return transaction.execute(status -> new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class));
+	}
+}
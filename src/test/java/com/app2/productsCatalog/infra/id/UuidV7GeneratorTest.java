@@ -0,0 +1,91 @@
+package com.app2.productsCatalog.infra.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class UuidV7GeneratorTest {
+
+	@Test
+	void setsVersionVariantAndTimestamp() {
+		long before = System.currentTimeMillis();
+		UUID uuid = UuidV7Generator.next();
+
+		assertThat(uuid.version()).isEqualTo(7);
+		assertThat(uuid.variant()).isEqualTo(2);
+		// O timestamp só passa do relógio quando o contador estoura
+		assertThat(UuidV7Generator.timestamp(uuid)).isCloseTo(before, within(1_000L));
+	}
+
+	@Test
+	void valuesGeneratedInSequenceAreStrictlyIncreasing() {
+		UUID previous = UuidV7Generator.next();
+		for (int i = 0; i < 20_000; i++) {
+			UUID next = UuidV7Generator.next();
+			assertThat(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits())).isPositive();
+			previous = next;
+		}
+	}
+
+	@Test
+	void counterOverflowAdvancesTheTimestampInsteadOfRepeating() {
+		long now = System.currentTimeMillis();
+		long previous = UuidV7Generator.nextSequence(now);
+		// Mais valores no mesmo milissegundo do que cabem nos 12 bits do contador
+		for (int i = 0; i < 5_000; i++) {
+			long next = UuidV7Generator.nextSequence(now);
+			assertThat(next).isGreaterThan(previous);
+			previous = next;
+		}
+
+		assertThat(previous >>> 12).isGreaterThan(now);
+		// O estouro vai para o timestamp, sem invadir os bits de versão
+		UUID uuid = UuidV7Generator.next();
+		assertThat(uuid.version()).isEqualTo(7);
+		assertThat(UuidV7Generator.timestamp(uuid)).isGreaterThanOrEqualTo(previous >>> 12);
+	}
+
+	@Test
+	void clockGoingBackDoesNotRepeatValues() {
+		long now = System.currentTimeMillis();
+		long current = UuidV7Generator.nextSequence(now);
+
+		assertThat(UuidV7Generator.nextSequence(now - 60_000)).isGreaterThan(current);
+	}
+
+	@Test
+	void concurrentThreadsNeverGetTheSameValue() throws Exception {
+		int threads = 8;
+		ConcurrentHashMap<UUID, Boolean> seen = new ConcurrentHashMap<>();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 10_000; i++) seen.put(UuidV7Generator.next(), Boolean.TRUE);
+				}));
+			}
+			for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(seen).hasSize(threads * 10_000);
+	}
+
+	@Test
+	void rejectsTimestampsOfOtherVersions() {
+		assertThatThrownBy(() -> UuidV7Generator.timestamp(UUID.randomUUID())).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,134 @@
+package com.app2.productsCatalog.infra.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StreamUtils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Repetição, conflito com execução em andamento, corpo divergente e descarte
+ * de respostas 5xx, com o filtro isolado do restante da aplicação.
+ */
+class IdempotencyFilterTest {
+
+	private static final String PATH = "/product/chart/add";
+
+	private IdempotencyFilter filter;
+	private final AtomicInteger executions = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		IdempotencyStore store = new IdempotencyStore(100);
+		ReflectionTestUtils.setField(store, "ttl", Duration.ofMinutes(1));
+		filter = new IdempotencyFilter();
+		ReflectionTestUtils.setField(filter, "store", store);
+		ReflectionTestUtils.setField(filter, "paths", List.of(PATH));
+		ReflectionTestUtils.setField(filter, "inFlightTimeout", Duration.ofMillis(200));
+	}
+
+	@Test
+	void replaysTheStoredResponseForTheSameBody() throws Exception {
+		MockHttpServletResponse first = send("key-1", "{\"nome\":\"ana\"}", respond(201, "created"));
+		MockHttpServletResponse second = send("key-1", "{\"nome\":\"ana\"}", respond(201, "again"));
+
+		assertThat(executions).hasValue(1);
+		assertThat(second.getStatus()).isEqualTo(201);
+		assertThat(second.getContentAsString()).isEqualTo(first.getContentAsString()).isEqualTo("created");
+		assertThat(second.getHeader("Idempotent-Replayed")).isEqualTo("true");
+	}
+
+	@Test
+	void rejectsAReusedKeyWithADifferentBody() throws Exception {
+		send("key-2", "{\"nome\":\"ana\"}", respond(201, "created"));
+		MockHttpServletResponse other = send("key-2", "{\"nome\":\"bruno\"}", respond(201, "created"));
+
+		assertThat(executions).hasValue(1);
+		assertThat(other.getStatus()).isEqualTo(422);
+	}
+
+	@Test
+	void duplicatesOfARunningRequestConflictOrAreRejected() throws Exception {
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<MockHttpServletResponse> original = CompletableFuture.supplyAsync(() -> {
+			try {
+				return send("key-3", "{\"nome\":\"ana\"}", (request, response) -> {
+					running.countDown();
+					try {
+						release.await(5, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					executions.incrementAndGet();
+					response.getWriter().write("created");
+				});
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// Mesmo corpo: espera in-flight-timeout e desiste com 409
+		assertThat(send("key-3", "{\"nome\":\"ana\"}", respond(201, "dup")).getStatus()).isEqualTo(409);
+		// Outro corpo: recusado sem esperar
+		assertThat(send("key-3", "{\"nome\":\"bruno\"}", respond(201, "dup")).getStatus()).isEqualTo(422);
+
+		release.countDown();
+		assertThat(original.get(5, TimeUnit.SECONDS).getContentAsString()).isEqualTo("created");
+		assertThat(executions).hasValue(1);
+	}
+
+	@Test
+	void serverErrorsAreNotStoredSoTheClientCanRetry() throws Exception {
+		MockHttpServletResponse failed = send("key-4", "{\"nome\":\"ana\"}", respond(503, "unavailable"));
+		MockHttpServletResponse retried = send("key-4", "{\"nome\":\"ana\"}", respond(201, "created"));
+
+		assertThat(failed.getStatus()).isEqualTo(503);
+		assertThat(executions).hasValue(2);
+		assertThat(retried.getStatus()).isEqualTo(201);
+		assertThat(retried.getHeader("Idempotent-Replayed")).isNull();
+	}
+
+	@Test
+	void theControllerStillReadsTheBody() throws Exception {
+		MockHttpServletResponse response = send("key-5", "{\"nome\":\"ana\"}", (request, servletResponse) -> {
+			executions.incrementAndGet();
+			servletResponse.getWriter().write(StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8));
+		});
+
+		assertThat(response.getContentAsString()).isEqualTo("{\"nome\":\"ana\"}");
+	}
+
+	private FilterChain respond(int status, String body) {
+		return (request, response) -> {
+			executions.incrementAndGet();
+			((HttpServletResponse) response).setStatus(status);
+			response.getWriter().write(body);
+		};
+	}
+
+	private MockHttpServletResponse send(String key, String body, FilterChain chain) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", PATH);
+		request.addHeader(IdempotencyFilter.HEADER, key);
+		request.setContentType("application/json");
+		request.setContent(body.getBytes(StandardCharsets.UTF_8));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, chain);
+		return response;
+	}
+}
@@ -0,0 +1,73 @@
+package com.app2.productsCatalog.infra.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Intercalações entre {@code find}, {@code complete} e {@code begin} de uma
+ * duplicata e da execução original, feitas passo a passo na mesma thread.
+ */
+class IdempotencyStoreTest {
+
+	private IdempotencyStore store;
+
+	@BeforeEach
+	void setUp() {
+		store = new IdempotencyStore(100);
+		ReflectionTestUtils.setField(store, "ttl", Duration.ofMinutes(1));
+	}
+
+	@Test
+	void aDuplicateThatMissedTheResponseDoesNotRunAgain() {
+		assertThat(store.begin("key", "hash")).isNull();
+		// A duplicata consulta antes da resposta existir...
+		assertThat(store.find("key")).isNull();
+		store.complete("key", "hash", 201, "application/json", "created".getBytes(StandardCharsets.UTF_8));
+
+		// ...e tenta assumir a chave depois que ela foi liberada
+		IdempotencyStore.Execution duplicate = store.begin("key", "hash");
+
+		assertThat(duplicate).isNotNull();
+		assertThat(duplicate.requestHash()).isEqualTo("hash");
+		assertThat(duplicate.result()).isCompleted();
+		assertThat(new String(duplicate.result().join().body(), StandardCharsets.UTF_8)).isEqualTo("created");
+	}
+
+	@Test
+	void theCompletedExecutionKeepsTheOriginalHash() {
+		store.begin("key", "hash");
+		store.complete("key", "hash", 201, null, new byte[0]);
+
+		IdempotencyStore.Execution other = store.begin("key", "other-hash");
+
+		assertThat(other.requestHash()).isEqualTo("hash");
+	}
+
+	@Test
+	void aDuplicateWaitsWhileTheFirstIsRunning() {
+		assertThat(store.begin("key", "hash")).isNull();
+
+		IdempotencyStore.Execution duplicate = store.begin("key", "hash");
+
+		assertThat(duplicate.result()).isNotDone();
+		store.complete("key", "hash", 201, null, new byte[0]);
+		assertThat(duplicate.result().join().status()).isEqualTo(201);
+	}
+
+	@Test
+	void anAbandonedKeyCanBeTakenAgain() {
+		IdempotencyStore.Execution first = store.begin("key", "hash");
+		assertThat(first).isNull();
+		IdempotencyStore.Execution waiting = store.begin("key", "hash");
+		store.abandon("key");
+
+		assertThat(waiting.result().join()).isNull();
+		assertThat(store.begin("key", "hash")).isNull();
+	}
+}
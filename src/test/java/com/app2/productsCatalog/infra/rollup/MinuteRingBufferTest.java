@@ -0,0 +1,98 @@
+package com.app2.productsCatalog.infra.rollup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import com.app2.productsCatalog.infra.rollup.MinuteRingBuffer.MinuteTotals;
+
+class MinuteRingBufferTest {
+
+	private static final long MINUTE = 60_000;
+
+	@Test
+	void drainsTotalsPerMinuteAndResets() {
+		MinuteRingBuffer buffer = new MinuteRingBuffer(10);
+		buffer.record(5 * MINUTE, 2, 1_000);
+		buffer.record(5 * MINUTE + 59_999, 1, 500);
+		buffer.record(6 * MINUTE, 3, 300);
+
+		assertThat(buffer.drain()).containsExactlyInAnyOrder(
+				new MinuteTotals(5, 2, 3, 1_500),
+				new MinuteTotals(6, 1, 3, 300));
+		assertThat(buffer.drain()).isEmpty();
+	}
+
+	@Test
+	void keepsTheTotalsOfASlotReusedBeforeTheDrain() {
+		MinuteRingBuffer buffer = new MinuteRingBuffer(2);
+		buffer.record(4 * MINUTE, 1, 100);
+		// Mesmo slot do minuto 4
+		buffer.record(6 * MINUTE, 2, 200);
+
+		assertThat(buffer.drain()).containsExactlyInAnyOrder(
+				new MinuteTotals(4, 1, 1, 100),
+				new MinuteTotals(6, 1, 2, 200));
+	}
+
+	@Test
+	void restoredTotalsComeBackOnTheNextDrain() {
+		MinuteRingBuffer buffer = new MinuteRingBuffer(4);
+		buffer.record(MINUTE, 1, 100);
+		List<MinuteTotals> failed = buffer.drain();
+
+		buffer.restore(failed);
+
+		assertThat(buffer.drain()).containsExactlyElementsOf(failed);
+	}
+
+	@Test
+	void drainsRacingRecordsMayTearASaleButNeverLoseIt() throws Exception {
+		MinuteRingBuffer buffer = new MinuteRingBuffer(4);
+		int threads = 8;
+		int sales = 20_000;
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicBoolean recording = new AtomicBoolean(true);
+		ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+		try {
+			Future<List<MinuteTotals>> drainer = executor.submit(() -> {
+				List<MinuteTotals> drained = new ArrayList<>();
+				start.await();
+				while (recording.get()) drained.addAll(buffer.drain());
+				return drained;
+			});
+			List<Future<?>> recorders = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				recorders.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < sales; i++) buffer.record(MINUTE, 3, 7);
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> recorder : recorders) recorder.get(30, TimeUnit.SECONDS);
+			recording.set(false);
+
+			List<MinuteTotals> drained = new ArrayList<>(drainer.get(30, TimeUnit.SECONDS));
+			drained.addAll(buffer.drain());
+
+			long orders = drained.stream().mapToLong(MinuteTotals::orders).sum();
+			long items = drained.stream().mapToLong(MinuteTotals::items).sum();
+			long value = drained.stream().mapToLong(MinuteTotals::valueMinorUnits).sum();
+			assertThat(orders).isEqualTo((long) threads * sales);
+			assertThat(items).isEqualTo(3L * threads * sales);
+			assertThat(value).isEqualTo(7L * threads * sales);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package com.app2.productsCatalog.infra.segmentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class QuantileHistogramTest {
+
+	@Test
+	void cutPointsStayWithinTheRelativeErrorOfTheExactQuantiles() {
+		Random random = new Random(7);
+		long[] values = new long[50_000];
+		QuantileHistogram histogram = new QuantileHistogram();
+		for (int i = 0; i < values.length; i++) {
+			// Cauda longa, como valores gastos: de centavos a milhões
+			values[i] = (long) Math.exp(random.nextDouble() * 20);
+			histogram.add(values[i]);
+		}
+		Arrays.sort(values);
+
+		long[] cuts = histogram.cutPoints(5);
+		for (int k = 1; k < 5; k++) {
+			long exact = values[values.length * k / 5 - 1];
+			assertThat(cuts[k - 1]).isGreaterThanOrEqualTo(exact).isLessThanOrEqualTo(exact + exact / 32 + 1);
+		}
+	}
+
+	@Test
+	void smallValuesHaveExactBuckets() {
+		QuantileHistogram histogram = new QuantileHistogram();
+		for (long value = 1; value <= 5; value++) histogram.add(value);
+
+		assertThat(histogram.cutPoints(5)).containsExactly(1, 2, 3, 4);
+	}
+
+	@Test
+	void boundaryBetweenExactAndGeometricBuckets() {
+		QuantileHistogram histogram = new QuantileHistogram();
+		histogram.add(31);
+		histogram.add(32);
+		histogram.add(33);
+		histogram.add(64);
+
+		assertThat(histogram.cutPoints(4)).containsExactly(31, 32, 33);
+	}
+
+	@Test
+	void zeroAndNegativeValuesShareTheFirstBucket() {
+		QuantileHistogram histogram = new QuantileHistogram();
+		histogram.add(-5);
+		histogram.add(0);
+
+		assertThat(histogram.cutPoints(2)).containsExactly(0);
+		assertThat(histogram.total()).isEqualTo(2);
+	}
+
+	@Test
+	void largestValuesDoNotOverflow() {
+		QuantileHistogram histogram = new QuantileHistogram();
+		histogram.add(Long.MAX_VALUE);
+		histogram.add(Long.MAX_VALUE - 1);
+
+		assertThat(histogram.cutPoints(2)).containsExactly(Long.MAX_VALUE);
+	}
+
+	@Test
+	void mergeAddsCounts() {
+		QuantileHistogram low = new QuantileHistogram();
+		QuantileHistogram high = new QuantileHistogram();
+		for (int i = 0; i < 10; i++) low.add(1);
+		for (int i = 0; i < 10; i++) high.add(1_000);
+
+		QuantileHistogram merged = low.merge(high);
+
+		assertThat(merged.total()).isEqualTo(20);
+		assertThat(merged.cutPoints(2)).containsExactly(1);
+		assertThat(merged.cutPoints(4)[2]).isBetween(1_000L, 1_031L);
+	}
+}
@@ -0,0 +1,81 @@
+package com.app2.productsCatalog.infra.segmentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class RfmAccumulatorTest {
+
+	private record Totals(long last, long frequency, long monetary) {}
+
+	@Test
+	void accumulatesPerUser() {
+		RfmAccumulator accumulator = new RfmAccumulator(4);
+		UUID ana = UUID.randomUUID();
+		UUID bruno = UUID.randomUUID();
+
+		add(accumulator, ana, 100, 1_000);
+		add(accumulator, bruno, 50, 700);
+		add(accumulator, ana, 300, 500);
+		add(accumulator, ana, 200, 250);
+
+		Map<UUID, Totals> totals = collect(accumulator);
+		assertThat(accumulator.size()).isEqualTo(2);
+		assertThat(totals).containsEntry(ana, new Totals(300, 3, 1_750)).containsEntry(bruno, new Totals(50, 1, 700));
+	}
+
+	@Test
+	void growsWellPastTheExpectedSizeWithoutLosingEntries() {
+		RfmAccumulator accumulator = new RfmAccumulator(1);
+		Map<UUID, Totals> expected = new HashMap<>();
+		Random random = new Random(42);
+		for (int i = 0; i < 20_000; i++) {
+			UUID user = new UUID(random.nextInt(5_000), random.nextLong());
+			long purchase = random.nextInt(1_000_000);
+			long value = random.nextInt(10_000);
+			add(accumulator, user, purchase, value);
+			expected.merge(user, new Totals(purchase, 1, value),
+					(a, b) -> new Totals(Math.max(a.last(), b.last()), a.frequency() + 1, a.monetary() + b.monetary()));
+		}
+
+		assertThat(accumulator.size()).isEqualTo(expected.size());
+		assertThat(collect(accumulator)).isEqualTo(expected);
+	}
+
+	@Test
+	void keepsKeysThatHashToTheSameSlotApart() {
+		RfmAccumulator accumulator = new RfmAccumulator(16);
+		// msb ^ rotateLeft(lsb, 32) é igual para as três chaves: mesmo slot inicial
+		long bits = 0x0123456789ABCDEFL;
+		UUID first = new UUID(bits, 0);
+		UUID second = new UUID(0, Long.rotateRight(bits, 32));
+		UUID third = new UUID(bits ^ 1, Long.rotateRight(1, 32));
+
+		for (int i = 0; i < 3; i++) add(accumulator, first, 10, 1);
+		add(accumulator, second, 20, 2);
+		for (int i = 0; i < 2; i++) add(accumulator, third, 30, 3);
+		// Força o rehash com as colisões já na tabela
+		for (int i = 0; i < 100; i++) add(accumulator, UUID.randomUUID(), 0, 0);
+
+		Map<UUID, Totals> totals = collect(accumulator);
+		assertThat(totals).hasSize(103)
+				.containsEntry(first, new Totals(10, 3, 3))
+				.containsEntry(second, new Totals(20, 1, 2))
+				.containsEntry(third, new Totals(30, 2, 6));
+	}
+
+	private static void add(RfmAccumulator accumulator, UUID user, long purchase, long value) {
+		accumulator.add(user.getMostSignificantBits(), user.getLeastSignificantBits(), purchase, value);
+	}
+
+	private static Map<UUID, Totals> collect(RfmAccumulator accumulator) {
+		Map<UUID, Totals> totals = new HashMap<>();
+		accumulator.forEach((user, last, frequency, monetary) -> totals.put(user, new Totals(last, frequency, monetary)));
+		return totals;
+	}
+}
@@ -0,0 +1,106 @@
+package com.app2.productsCatalog.infra.serialization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.app2.productsCatalog.domain.money.Money;
+import com.app2.productsCatalog.domain.products.ProductView;
+import com.app2.productsCatalog.support.CatalogFixtures;
+import com.app2.productsCatalog.support.EmbeddedPostgresSupport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * {@code GET /product} e {@code GET /product/clients} respondem em CBOR ou
+ * Smile conforme o {@code Accept}, com o mesmo conteúdo do JSON, que continua
+ * sendo o padrão.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BinaryContentNegotiationTest {
+
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		EmbeddedPostgresSupport.register(registry);
+	}
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+	private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+	private final ObjectMapper smile = Jackson2ObjectMapperBuilder.smile().build();
+
+	@BeforeAll
+	void seed() {
+		CatalogFixtures.seedProducts(jdbc, "encoded-product", 20);
+		jdbc.update("""
+				INSERT INTO users (id, login, password, role)
+				SELECT gen_random_uuid(), 'encoded-client-' || g, 'x', 'USER'
+				FROM generate_series(1, 5) g
+				""");
+		jdbc.update("""
+				INSERT INTO user_purchase_summary (user_id, total_items, total_value, purchase_count, last_purchase_at)
+				SELECT id, 3, 1999.90, 1, now() FROM users WHERE login LIKE 'encoded-client-%'
+				""");
+	}
+
+	@Test
+	void jsonRemainsTheDefault() throws Exception {
+		mvc.perform(get("/product")).andExpect(status().isOk()).andExpect(content().contentType(MediaType.APPLICATION_JSON));
+		mvc.perform(get("/product").accept(MediaType.ALL)).andExpect(content().contentType(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	void catalogInBinaryEncodingsMatchesJson() throws Exception {
+		ProductView[] expected = read(json, "/product", MediaType.APPLICATION_JSON, ProductView[].class);
+
+		assertThat(expected).isNotEmpty();
+		assertThat(read(cbor, "/product", MediaType.APPLICATION_CBOR, ProductView[].class)).containsExactly(expected);
+		assertThat(read(smile, "/product", BinaryContentConfiguration.APPLICATION_SMILE, ProductView[].class)).containsExactly(expected);
+	}
+
+	@Test
+	@WithMockUser(roles = "ADMIN")
+	void clientsInBinaryEncodingsMatchJson() throws Exception {
+		Client[] expected = read(json, "/product/clients", MediaType.APPLICATION_JSON, Clients.class).items();
+
+		assertThat(expected).isNotEmpty();
+		assertThat(read(cbor, "/product/clients", MediaType.APPLICATION_CBOR, Clients.class).items()).containsExactly(expected);
+		assertThat(read(smile, "/product/clients", BinaryContentConfiguration.APPLICATION_SMILE, Clients.class).items()).containsExactly(expected);
+	}
+
+	// Como um consumidor lê UserSummary, que não tem construtor para o Jackson
+	record Client(String userName, UUID userId, Long totalItems, Money totalValue) {}
+
+	record Clients(Client[] items, String nextCursor) {}
+
+	private <T> T read(ObjectMapper mapper, String path, MediaType type, Class<T> target) throws Exception {
+		byte[] body = mvc.perform(get(path).accept(type))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(type))
+				.andReturn().getResponse().getContentAsByteArray();
+		return mapper.readValue(body, target);
+	}
+}
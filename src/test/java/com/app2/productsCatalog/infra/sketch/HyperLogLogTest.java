@@ -0,0 +1,76 @@
+package com.app2.productsCatalog.infra.sketch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+	private final Random random = new Random(42);
+
+	@Test
+	void smallCardinalitiesAreNearlyExact() {
+		HyperLogLog sketch = new HyperLogLog(12);
+		for (int i = 0; i < 100; i++) sketch.add(uuid());
+
+		assertThat(sketch.estimate()).isCloseTo(100, within(2L));
+	}
+
+	@Test
+	void largeCardinalitiesStayWithinThreeStandardErrors() {
+		HyperLogLog sketch = new HyperLogLog(12);
+		int distinct = 200_000;
+		for (int i = 0; i < distinct; i++) sketch.add(uuid());
+
+		double error = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+		assertThat(sketch.relativeError()).isCloseTo(0.01625, within(0.0001));
+		assertThat(error).isLessThan(3 * sketch.relativeError());
+	}
+
+	@Test
+	void repeatedValuesDoNotChangeTheEstimate() {
+		HyperLogLog sketch = new HyperLogLog(10);
+		UUID[] values = new UUID[1_000];
+		for (int i = 0; i < values.length; i++) values[i] = uuid();
+		for (UUID value : values) sketch.add(value);
+		long once = sketch.estimate();
+
+		for (int round = 0; round < 5; round++) for (UUID value : values) sketch.add(value);
+
+		assertThat(sketch.estimate()).isEqualTo(once);
+	}
+
+	@Test
+	void mergeEqualsTheSketchOfTheUnion() {
+		HyperLogLog left = new HyperLogLog(12);
+		HyperLogLog right = new HyperLogLog(12);
+		HyperLogLog union = new HyperLogLog(12);
+		for (int i = 0; i < 30_000; i++) {
+			UUID value = uuid();
+			// Um terço em cada lado e um terço em ambos
+			if (i % 3 != 1) left.add(value);
+			if (i % 3 != 0) right.add(value);
+			union.add(value);
+		}
+
+		left.merge(right);
+
+		assertThat(left.estimate()).isEqualTo(union.estimate());
+		assertThat(Math.abs(left.estimate() - 30_000) / 30_000.0).isLessThan(3 * left.relativeError());
+	}
+
+	@Test
+	void rejectsMergingDifferentPrecisions() {
+		assertThatThrownBy(() -> new HyperLogLog(10).merge(new HyperLogLog(12))).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new HyperLogLog(3)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private UUID uuid() {
+		return new UUID(random.nextLong(), random.nextLong());
+	}
+}
@@ -0,0 +1,118 @@
+package com.app2.productsCatalog.infra.sketch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.app2.productsCatalog.infra.sketch.SpaceSaving.Counter;
+
+class SpaceSavingTest {
+
+	private final Random random = new Random(7);
+
+	@Test
+	void isExactWhileTheKeysFitInTheCapacity() {
+		SpaceSaving summary = new SpaceSaving(4);
+		UUID a = UUID.randomUUID();
+		UUID b = UUID.randomUUID();
+		summary.add(a, 300);
+		summary.add(b, 500);
+		summary.add(a, 250);
+		summary.add(b, 0);
+
+		assertThat(summary.top(10)).containsExactly(new Counter(a, 550, 0), new Counter(b, 500, 0));
+		assertThat(summary.totalWeight()).isEqualTo(1_050);
+	}
+
+	@Test
+	void newKeysReplaceTheSmallestCounterAndInheritItAsError() {
+		SpaceSaving summary = new SpaceSaving(2);
+		UUID big = UUID.randomUUID();
+		UUID small = UUID.randomUUID();
+		UUID late = UUID.randomUUID();
+		summary.add(big, 500);
+		summary.add(small, 300);
+
+		summary.add(late, 100);
+
+		assertThat(summary.top(2)).containsExactly(new Counter(big, 500, 0), new Counter(late, 400, 300));
+	}
+
+	@Test
+	void estimatesStayWithinTheirBoundsOnASkewedStream() {
+		SpaceSaving summary = new SpaceSaving(32);
+		Map<UUID, Long> actual = new HashMap<>();
+		feed(summary, actual, keys(500), 50_000);
+
+		assertEstimatesBound(summary, actual);
+		assertHeavyHittersPresent(summary, actual);
+		assertMinHeap(summary);
+	}
+
+	@Test
+	void mergedSummariesKeepTheBoundsOfTheCombinedStream() {
+		UUID[] keys = keys(400);
+		SpaceSaving left = new SpaceSaving(32);
+		SpaceSaving right = new SpaceSaving(32);
+		Map<UUID, Long> actual = new HashMap<>();
+		feed(left, actual, keys, 20_000);
+		feed(right, actual, keys, 20_000);
+
+		left.merge(right);
+
+		assertThat(left.totalWeight()).isEqualTo(actual.values().stream().mapToLong(Long::longValue).sum());
+		assertEstimatesBound(left, actual);
+		assertHeavyHittersPresent(left, actual);
+		assertMinHeap(left);
+	}
+
+	// Cada estimativa nunca subestima, o valor garantido nunca superestima e a
+	// superestimativa não passa de totalWeight / capacity
+	private static void assertEstimatesBound(SpaceSaving summary, Map<UUID, Long> actual) {
+		for (Counter counter : summary.top(summary.capacity())) {
+			long real = actual.get(counter.key());
+			assertThat(counter.estimate()).isGreaterThanOrEqualTo(real);
+			assertThat(counter.estimate() - counter.error()).isLessThanOrEqualTo(real);
+			assertThat(counter.estimate() - real).isLessThanOrEqualTo(summary.maxError());
+		}
+	}
+
+	// Toda chave com peso acima de totalWeight / capacity tem um contador
+	private static void assertHeavyHittersPresent(SpaceSaving summary, Map<UUID, Long> actual) {
+		List<UUID> tracked = summary.top(summary.capacity()).stream().map(Counter::key).toList();
+		actual.forEach((key, weight) -> {
+			if (weight > summary.totalWeight() / summary.capacity()) assertThat(tracked).contains(key);
+		});
+	}
+
+	private static void assertMinHeap(SpaceSaving summary) {
+		long[] counts = (long[]) ReflectionTestUtils.getField(summary, "counts");
+		int size = (int) ReflectionTestUtils.getField(summary, "size");
+		for (int child = 1; child < size; child++) {
+			assertThat(counts[(child - 1) / 2]).isLessThanOrEqualTo(counts[child]);
+		}
+	}
+
+	// Chaves do início do vetor saem com muito mais frequência (distribuição enviesada)
+	private void feed(SpaceSaving summary, Map<UUID, Long> actual, UUID[] keys, int events) {
+		for (int i = 0; i < events; i++) {
+			UUID key = keys[Math.min(keys.length - 1, (int) (keys.length * Math.pow(random.nextDouble(), 4)))];
+			long weight = 1 + random.nextInt(10_000);
+			summary.add(key, weight);
+			actual.merge(key, weight, Long::sum);
+		}
+	}
+
+	private static UUID[] keys(int size) {
+		UUID[] keys = new UUID[size];
+		for (int i = 0; i < size; i++) keys[i] = UUID.randomUUID();
+		return keys;
+	}
+}
@@ -0,0 +1,68 @@
+package com.app2.productsCatalog.infra.stock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class StripedCounterTest {
+
+	@Test
+	void spreadsUnitsAcrossStripesAndAcquiresFromAnyOfThem() {
+		StripedCounter counter = new StripedCounter(4);
+		counter.add(10);
+
+		// Mais do que cabe em uma faixa: precisa percorrer as vizinhas
+		assertThat(counter.tryAcquire(7)).isTrue();
+		assertThat(counter.sum()).isEqualTo(3);
+	}
+
+	@Test
+	void restoresPartialAcquisitionsWhenThereIsNotEnough() {
+		StripedCounter counter = new StripedCounter(8);
+		counter.add(5);
+
+		assertThat(counter.tryAcquire(6)).isFalse();
+		assertThat(counter.sum()).isEqualTo(5);
+		assertThat(counter.drain()).isEqualTo(5);
+		assertThat(counter.sum()).isZero();
+	}
+
+	@Test
+	void concurrentAcquisitionsNeverExceedTheUnitsAdded() throws Exception {
+		StripedCounter counter = new StripedCounter(8);
+		counter.add(10_000);
+		int threads = 16;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Long>> acquired = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				acquired.add(executor.submit(() -> {
+					start.await();
+					long units = 0;
+					for (int i = 0; i < 2_000; i++) {
+						int quantity = 1 + i % 3;
+						if (counter.tryAcquire(quantity)) units += quantity;
+					}
+					return units;
+				}));
+			}
+			start.countDown();
+
+			long total = 0;
+			for (Future<Long> future : acquired) total += future.get(30, TimeUnit.SECONDS);
+			assertThat(total).isLessThanOrEqualTo(10_000);
+			assertThat(total + counter.sum()).isEqualTo(10_000);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package com.app2.productsCatalog.infra.workload;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.app2.productsCatalog.support.EmbeddedPostgresSupport;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Vagas, {@code statement_timeout} e contadores das classes de carga contra o
+ * PostgreSQL embarcado.
+ */
+@SpringBootTest(properties = {
+		"workload.auth.max-connections=1",
+		"workload.reports.max-connections=2",
+		"workload.reports.acquire-timeout=50ms",
+		"workload.reports.statement-timeout=300ms" })
+class WorkloadsTest {
+
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		EmbeddedPostgresSupport.register(registry);
+	}
+
+	@Autowired
+	private Workloads workloads;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void appliesTheStatementTimeoutOfEachClass() {
+		assertThat(statementTimeoutIn(WorkloadClass.AUTH)).isEqualTo("1s");
+		assertThat(statementTimeoutIn(WorkloadClass.REPORTS)).isEqualTo("300ms");
+		assertThat(showStatementTimeout()).isEqualTo("0");
+	}
+
+	@Test
+	void cancelsStatementsThatExceedTheTimeout() {
+		double before = counter("workload.timeouts", WorkloadClass.REPORTS);
+
+		assertThatThrownBy(() -> workloads.execute(WorkloadClass.REPORTS, true,
+				status -> jdbc.queryForObject("SELECT pg_sleep(2)::text", String.class)))
+				.hasMessageContaining("statement timeout");
+
+		assertThat(counter("workload.timeouts", WorkloadClass.REPORTS)).isEqualTo(before + 1);
+	}
+
+	@Test
+	void rejectsWhenTheClassIsSaturated() throws Exception {
+		double before = counter("workload.rejected", WorkloadClass.REPORTS);
+		CountDownLatch holding = new CountDownLatch(2);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<?> first = executor.submit(() -> hold(holding, release));
+			Future<?> second = executor.submit(() -> hold(holding, release));
+			assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+
+			assertThatThrownBy(() -> workloads.execute(WorkloadClass.REPORTS, true, status -> showStatementTimeout()))
+					.isInstanceOf(WorkloadSaturatedException.class);
+			// As outras classes não são afetadas
+			assertThat(statementTimeoutIn(WorkloadClass.CATALOG)).isEqualTo("3s");
+
+			release.countDown();
+			first.get(5, TimeUnit.SECONDS);
+			second.get(5, TimeUnit.SECONDS);
+		} finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+		assertThat(counter("workload.rejected", WorkloadClass.REPORTS)).isEqualTo(before + 1);
+		assertThat(statementTimeoutIn(WorkloadClass.REPORTS)).isEqualTo("300ms");
+	}
+
+	@Test
+	void nestedCallsReuseTheHeldPermit() {
+		String inner = workloads.execute(WorkloadClass.AUTH, false,
+				outer -> workloads.execute(WorkloadClass.AUTH, true, status -> showStatementTimeout()));
+
+		assertThat(inner).isEqualTo("1s");
+	}
+
+	@Test
+	void cartPermitsCountTwoConnections() {
+		double active = workloads.execute(WorkloadClass.CART, false,
+				status -> meterRegistry.get("workload.connections.active").tag("workload", "cart").gauge().value());
+
+		assertThat(active).isEqualTo(2);
+	}
+
+	private Object hold(CountDownLatch holding, CountDownLatch release) {
+		return workloads.execute(WorkloadClass.REPORTS, true, status -> {
+			holding.countDown();
+			try {
+				return release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		});
+	}
+
+	private String statementTimeoutIn(WorkloadClass workload) {
+		return workloads.execute(workload, true, status -> showStatementTimeout());
+	}
+
+	private String showStatementTimeout() {
+		return jdbc.queryForObject("SHOW statement_timeout", String.class);
+	}
+
+	private double counter(String name, WorkloadClass workload) {
+		return meterRegistry.counter(name, "workload", workload.key()).count();
+	}
+}
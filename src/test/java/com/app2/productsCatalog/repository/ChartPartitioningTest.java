@@ -0,0 +1,106 @@
+package com.app2.productsCatalog.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.app2.productsCatalog.service.ChartPartitionMaintenance;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+class ChartPartitioningTest {
+
+	private static EmbeddedPostgres postgres;
+	private static JdbcTemplate jdbc;
+
+	@BeforeAll
+	static void migrate() throws IOException {
+		postgres = EmbeddedPostgres.start();
+		Flyway.configure().dataSource(postgres.getPostgresDatabase()).load().migrate();
+		jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+		for (String month : List.of("2025-01-01", "2025-02-01", "2025-03-01")) {
+			jdbc.queryForObject("SELECT create_chart_partition(?::date)", String.class, month);
+		}
+		jdbc.execute("ANALYZE chart");
+	}
+
+	@AfterAll
+	static void stop() throws IOException {
+		postgres.close();
+	}
+
+	@Test
+	void timeRangeQueryScansOnlyMatchingPartition() {
+		String plan = explain("SELECT * FROM chart WHERE created_at >= '2025-02-03Z' AND created_at < '2025-02-10Z'");
+
+		assertThat(plan).contains("chart_2025_02").doesNotContain("chart_2025_01", "chart_2025_03", "chart_default");
+	}
+
+	@Test
+	void rangeSpanningMonthsScansEachOfThem() {
+		String plan = explain("SELECT * FROM chart WHERE created_at >= '2025-01-20Z' AND created_at < '2025-02-10Z'");
+
+		assertThat(plan).contains("chart_2025_01", "chart_2025_02").doesNotContain("chart_2025_03", "chart_default");
+	}
+
+	@Test
+	void historyPageWithCursorPrunesNewerPartitions() {
+		String plan = explain("""
+				SELECT * FROM chart
+				WHERE user_id = '00000000-0000-0000-0000-000000000001' AND created_at < '2025-02-01Z'
+				ORDER BY created_at DESC, id DESC LIMIT 20
+				""");
+
+		assertThat(plan).contains("chart_2025_01").doesNotContain("chart_2025_02", "chart_2025_03");
+	}
+
+	@Test
+	void rowsInDefaultPartitionMoveWhenMonthIsCreated() {
+		jdbc.update("INSERT INTO chart (user_id, qtd_itens, total_value, created_at) "
+				+ "VALUES (gen_random_uuid(), 1, 10.00, '2030-06-15Z')");
+		assertThat(count("chart_default")).isEqualTo(1);
+
+		jdbc.queryForObject("SELECT create_chart_partition('2030-06-01'::date)", String.class);
+
+		assertThat(count("chart_default")).isZero();
+		assertThat(count("chart_2030_06")).isEqualTo(1);
+	}
+
+	@Test
+	void maintenanceCreatesAheadAndDetachesExpired() {
+		// Banco separado: desanexar afetaria as partições usadas pelos demais testes
+		jdbc.execute("CREATE DATABASE maintenance");
+		DataSource dataSource = postgres.getDatabase("postgres", "maintenance");
+		Flyway.configure().dataSource(dataSource).load().migrate();
+
+		ChartPartitionMaintenance maintenance = new ChartPartitionMaintenance();
+		ReflectionTestUtils.setField(maintenance, "jdbcTemplate", new JdbcTemplate(dataSource));
+		ReflectionTestUtils.setField(maintenance, "monthsAhead", 2);
+
+		maintenance.createAhead(YearMonth.of(2031, 1));
+		assertThat(maintenance.attachedPartitions()).contains("chart_2031_01", "chart_2031_02", "chart_2031_03");
+
+		List<String> detached = maintenance.detachBefore(YearMonth.of(2031, 2));
+		assertThat(detached).contains("chart_2031_01").doesNotContain("chart_2031_02");
+		assertThat(maintenance.attachedPartitions()).doesNotContain("chart_2031_01").contains("chart_default");
+	}
+
+	private static String explain(String sql) {
+		return String.join("\n", jdbc.queryForList("EXPLAIN (COSTS OFF) " + sql, String.class));
+	}
+
+	private static long count(String table) {
+		return jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+	}
+}
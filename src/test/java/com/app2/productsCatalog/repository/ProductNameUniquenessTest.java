@@ -0,0 +1,59 @@
+package com.app2.productsCatalog.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * O índice único de {@code products.name}: nomes repetidos anteriores à
+ * migração são renomeados e novos repetidos são recusados.
+ */
+class ProductNameUniquenessTest {
+
+	private static EmbeddedPostgres postgres;
+	private static JdbcTemplate jdbc;
+
+	@BeforeAll
+	static void migrate() throws IOException {
+		postgres = EmbeddedPostgres.start();
+		Flyway.configure().dataSource(postgres.getPostgresDatabase()).target("18").load().migrate();
+		jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+		jdbc.update("""
+				INSERT INTO products (name, image_url, price, stock)
+				VALUES ('Notebook', null, 10, 1), ('Notebook', null, 20, 1), ('Notebook', null, 30, 1), ('Mouse', null, 5, 1)
+				""");
+		Flyway.configure().dataSource(postgres.getPostgresDatabase()).load().migrate();
+	}
+
+	@AfterAll
+	static void stop() throws IOException {
+		postgres.close();
+	}
+
+	@Test
+	void existingDuplicatesKeepOneOriginalNameAndGetTheIdAsSuffix() {
+		List<String> names = jdbc.queryForList("SELECT name FROM products WHERE name LIKE 'Notebook%' ORDER BY id", String.class);
+		List<UUID> ids = jdbc.queryForList("SELECT id FROM products WHERE name LIKE 'Notebook%' ORDER BY id", UUID.class);
+
+		assertThat(names).containsExactly("Notebook", "Notebook #" + ids.get(1), "Notebook #" + ids.get(2));
+		assertThat(jdbc.queryForObject("SELECT name FROM products WHERE price = 5", String.class)).isEqualTo("Mouse");
+	}
+
+	@Test
+	void newDuplicatesAreRejected() {
+		assertThatThrownBy(() -> jdbc.update("INSERT INTO products (name, image_url, price, stock) VALUES ('Mouse', null, 6, 1)"))
+				.isInstanceOf(DuplicateKeyException.class);
+	}
+}
@@ -0,0 +1,254 @@
+package com.app2.productsCatalog.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app2.productsCatalog.domain.sales.SalesBucketSize;
+import com.app2.productsCatalog.support.EmbeddedPostgresSupport;
+import com.app2.productsCatalog.support.StatementRecorder;
+import com.app2.productsCatalog.support.StatementRecorder.RecordedStatement;
+
+/**
+ * Roda {@code EXPLAIN} em todas as consultas dos repositórios contra tabelas
+ * populadas e falha se alguma delas fizer varredura sequencial em uma tabela
+ * grande (ao menos {@link #LARGE_TABLE_ROWS} linhas segundo as estatísticas). O SQL e os parâmetros são capturados da execução real de cada método,
+ * então consultas derivadas e JPQL são verificadas no SQL que o Hibernate gera.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTest {
+
+	private static final int USERS = 20_000;
+	private static final int PRODUCTS = 20_000;
+	private static final int PURCHASES = 300_000;
+
+	private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+	// Partições vazias (meses futuros, default) e tabelas pequenas podem ser varridas
+	private static final long LARGE_TABLE_ROWS = 1000;
+
+	// Métodos que leem a tabela inteira por definição (manutenção em lote), com o motivo
+	private static final Map<String, String> FULL_SCAN_BY_DESIGN = Map.of(
+			"UserPurchaseSummaryRepository.lockHistory", "LOCK TABLE, sem plano",
+			"UserPurchaseSummaryRepository.rebuildFromHistory", "reconstrução completa do resumo",
+			"UserPurchaseSummaryRepository.rebuildFromHistoryAndArchive", "reconstrução completa do resumo",
+			"UserPurchaseSummaryRepository.deleteWithoutHistory", "reconstrução completa do resumo",
+			"UserPurchaseSummaryRepository.deleteWithoutHistoryOrArchive", "reconstrução completa do resumo",
+			"UserPurchaseSummaryRepository.findMismatches", "verificação completa do resumo",
+			"UserPurchaseSummaryRepository.findMismatchesWithArchive", "verificação completa do resumo",
+			"ProductsRepository.findAllViews", "listagem do catálogo inteiro",
+			"PromotionRepository.findByActiveTrue", "tabela pequena carregada inteira pelo motor de promoções",
+			"PromotionRepository.currentVersion", "tabela pequena carregada inteira pelo motor de promoções");
+
+	static final StatementRecorder RECORDER = new StatementRecorder();
+
+	@TestConfiguration
+	static class Recording {
+
+		@Bean
+		static BeanPostProcessor recordingDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					return bean instanceof DataSource dataSource && beanName.equals("dataSource") ? RECORDER.wrap(dataSource) : bean;
+				}
+			};
+		}
+	}
+
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		EmbeddedPostgresSupport.register(registry);
+	}
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ChartRepository chartRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ProductsRepository productsRepository;
+
+	@Autowired
+	private PromotionRepository promotionRepository;
+
+	@Autowired
+	private SalesRollupRepository salesRollupRepository;
+
+	@Autowired
+	private UserPurchaseSummaryRepository summaryRepository;
+
+	private UUID userId;
+	private String login;
+	private UUID productId;
+	private String productName;
+	private Instant purchaseAt;
+	private UUID purchaseId;
+
+	@BeforeAll
+	void seed() {
+		jdbc.execute("""
+				SELECT create_chart_partition((date_trunc('month', now()) - make_interval(months => g))::date)
+				FROM generate_series(1, 6) g
+				""");
+		jdbc.update("INSERT INTO users (login, password, role) SELECT 'user-' || g, 'x', 'USER' FROM generate_series(1, ?) g", USERS);
+		jdbc.update("""
+				INSERT INTO products (name, image_url, price, stock)
+				SELECT 'product-' || g, 'https://example.com/' || g, 1 + g % 500, 100
+				FROM generate_series(1, ?) g
+				""", PRODUCTS);
+		jdbc.update("""
+				INSERT INTO chart (user_id, qtd_itens, total_value, created_at)
+				SELECT u.ids[1 + g % array_length(u.ids, 1)], 1 + g % 5, 10 + g % 90,
+					now() - (g % 180) * INTERVAL '1 day' - (g % 1440) * INTERVAL '1 minute'
+				FROM generate_series(1, ?) g, (SELECT array_agg(id) ids FROM users) u
+				""", PURCHASES);
+		jdbc.update("""
+				INSERT INTO user_purchase_summary (user_id, total_items, total_value, purchase_count, last_purchase_at)
+				SELECT user_id, SUM(qtd_itens), SUM(total_value), COUNT(*), MAX(created_at) FROM chart GROUP BY user_id
+				ON CONFLICT (user_id) DO NOTHING
+				""");
+		jdbc.update("""
+				INSERT INTO sales_rollups (granularity, bucket_start, orders, items, total_value)
+				SELECT 'HOUR', date_trunc('hour', created_at), COUNT(*), SUM(qtd_itens), SUM(total_value) FROM chart GROUP BY 2
+				ON CONFLICT DO NOTHING
+				""");
+		jdbc.execute("VACUUM ANALYZE");
+
+		Map<String, Object> user = jdbc.queryForMap("SELECT id, login FROM users WHERE login = 'user-4242'");
+		userId = (UUID) user.get("id");
+		login = (String) user.get("login");
+		Map<String, Object> product = jdbc.queryForMap("SELECT id, name FROM products WHERE name = 'product-4242'");
+		productId = (UUID) product.get("id");
+		productName = (String) product.get("name");
+		Map<String, Object> purchase = jdbc.queryForMap("SELECT id, created_at FROM chart WHERE user_id = ? LIMIT 1", userId);
+		purchaseId = (UUID) purchase.get("id");
+		purchaseAt = ((java.sql.Timestamp) purchase.get("created_at")).toInstant();
+	}
+
+	private Map<String, Runnable> queries() {
+		Instant now = Instant.now();
+		Map<String, Runnable> queries = new LinkedHashMap<>();
+		queries.put("ChartRepository.findHistoryFirstPage", () -> chartRepository.findHistoryFirstPage(userId, Limit.of(20)));
+		queries.put("ChartRepository.findHistoryAfter", () -> chartRepository.findHistoryAfter(userId, purchaseAt, purchaseId, Limit.of(20)));
+		queries.put("UserRepository.findByLogin", () -> userRepository.findByLogin(login));
+		queries.put("ProductsRepository.findByName", () -> productsRepository.findByName(productName));
+		queries.put("ProductsRepository.findFirstById", () -> productsRepository.findFirstById(Limit.of(100)));
+		queries.put("ProductsRepository.claimStock", () -> productsRepository.claimStock(productId, 1));
+		queries.put("ProductsRepository.releaseStock", () -> productsRepository.releaseStock(productId, 1));
+		queries.put("SalesRollupRepository.increment", () -> salesRollupRepository.increment("HOUR",
+				now.truncatedTo(ChronoUnit.HOURS), 1, 1, BigDecimal.TEN));
+		queries.put("SalesRollupRepository.findBuckets", () -> salesRollupRepository.findBuckets(SalesBucketSize.HOUR,
+				now.minus(1, ChronoUnit.DAYS), now));
+		queries.put("UserPurchaseSummaryRepository.increment", () -> summaryRepository.increment(userId, 1, BigDecimal.TEN));
+		queries.put("UserPurchaseSummaryRepository.findTopByTotalValue", () -> summaryRepository.findTopByTotalValue(
+				new BigDecimal("999999999999.99"), new UUID(-1L, -1L), 21));
+		queries.put("UserPurchaseSummaryRepository.findTopByTotalItems", () -> summaryRepository.findTopByTotalItems(
+				Long.MAX_VALUE, new UUID(-1L, -1L), 21));
+		queries.put("UserPurchaseSummaryRepository.findPageByLogin", () -> summaryRepository.findPageByLogin("user-5", 21));
+		return queries;
+	}
+
+	@TestFactory
+	Stream<DynamicTest> repositoryQueriesAvoidSequentialScansOnLargeTables() {
+		return queries().entrySet().stream().map(query -> DynamicTest.dynamicTest(query.getKey(), () -> {
+			List<RecordedStatement> statements = record(query.getValue());
+			assertThat(statements).as("SQL executado por %s", query.getKey()).isNotEmpty();
+			for (RecordedStatement statement : statements) {
+				String plan = explain(statement);
+				assertThat(sequentialScans(plan)).as("%s%n%s%n%s", query.getKey(), statement.sql(), plan).isEmpty();
+			}
+		}));
+	}
+
+	@Test
+	void everyRepositoryQueryIsChecked() {
+		Set<String> checked = queries().keySet();
+		List<String> missing = new ArrayList<>();
+		for (Class<?> repository : List.of(ChartRepository.class, UserRepository.class, ProductsRepository.class,
+				PromotionRepository.class, SalesRollupRepository.class, UserPurchaseSummaryRepository.class)) {
+			for (Method method : repository.getDeclaredMethods()) {
+				String key = repository.getSimpleName() + "." + method.getName();
+				if (!method.isDefault() && !checked.contains(key) && !FULL_SCAN_BY_DESIGN.containsKey(key)) missing.add(key);
+			}
+		}
+		assertThat(missing).as("consultas de repositório sem verificação de plano").isEmpty();
+	}
+
+	private List<RecordedStatement> record(Runnable query) {
+		List<RecordedStatement> statements = new ArrayList<>();
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			RECORDER.start();
+			try {
+				query.run();
+			} finally {
+				statements.addAll(RECORDER.stop());
+				status.setRollbackOnly();
+			}
+		});
+		return statements;
+	}
+
+	private static String explain(RecordedStatement statement) throws SQLException {
+		try (Connection connection = EmbeddedPostgresSupport.instance().getPostgresDatabase().getConnection();
+				PreparedStatement explain = statement.prepare(connection, "EXPLAIN ");
+				ResultSet rs = explain.executeQuery()) {
+			StringBuilder plan = new StringBuilder();
+			while (rs.next()) plan.append(rs.getString(1)).append('\n');
+			return plan.toString();
+		}
+	}
+
+	private List<String> sequentialScans(String plan) {
+		List<String> tables = new ArrayList<>();
+		Matcher matcher = SEQ_SCAN.matcher(plan);
+		while (matcher.find()) {
+			String table = matcher.group(1);
+			Long rows = jdbc.queryForObject("SELECT reltuples::bigint FROM pg_class WHERE relname = ?", Long.class, table);
+			if (rows != null && rows >= LARGE_TABLE_ROWS) tables.add(table + " (" + rows + " rows)");
+		}
+		return tables;
+	}
+}
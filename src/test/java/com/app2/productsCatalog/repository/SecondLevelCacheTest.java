@@ -0,0 +1,157 @@
+package com.app2.productsCatalog.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.app2.productsCatalog.domain.money.Money;
+import com.app2.productsCatalog.domain.products.Products;
+import com.app2.productsCatalog.infra.cache.SecondLevelCacheConfiguration;
+import com.app2.productsCatalog.service.AuthorizationService;
+import com.app2.productsCatalog.support.EmbeddedPostgresSupport;
+import com.app2.productsCatalog.support.StatementRecorder;
+import com.app2.productsCatalog.support.StatementRecorder.RecordedStatement;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Conta os comandos SQL das buscas de {@code Products} e {@code User} antes e
+ * depois de aquecer o cache de segundo nível.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SecondLevelCacheTest {
+
+	static final StatementRecorder RECORDER = new StatementRecorder();
+
+	@TestConfiguration
+	static class Recording {
+
+		@Bean
+		static BeanPostProcessor recordingDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					return bean instanceof DataSource dataSource && beanName.equals("dataSource") ? RECORDER.wrap(dataSource) : bean;
+				}
+			};
+		}
+	}
+
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		EmbeddedPostgresSupport.register(registry);
+	}
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ProductsRepository productsRepository;
+
+	@Autowired
+	private AuthorizationService authorizationService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeAll
+	void seed() {
+		jdbc.update("INSERT INTO users (login, password, role) VALUES ('cache-user-1', 'x', 'USER'), ('cache-user-2', 'x', 'USER')");
+		jdbc.update("""
+				INSERT INTO products (name, image_url, price, stock)
+				VALUES ('cache-product-1', 'https://example.com/1', 10, 100), ('cache-product-2', 'https://example.com/2', 20, 100),
+					('cache-product-3', 'https://example.com/3', 30, 100),
+					('cache-product-4', 'https://example.com/4', 40, 100), ('cache-product-5', 'https://example.com/5', 50, 100)
+				""");
+	}
+
+	@Test
+	void userLookupByLoginIsServedFromCacheAfterFirstLoad() {
+		assertThat(statements(() -> authorizationService.loadUserByUsername("cache-user-1"))).isNotEmpty();
+
+		assertThat(statements(() -> authorizationService.loadUserByUsername("cache-user-1"))).isEmpty();
+		assertThat(statements(() -> userRepository.findByLogin("cache-user-1"))).isEmpty();
+	}
+
+	@Test
+	void productLookupsByNameAndIdAreServedFromCacheAfterFirstLoad() {
+		Products[] product = new Products[1];
+		assertThat(statements(() -> product[0] = productsRepository.findByName("cache-product-1"))).isNotEmpty();
+
+		assertThat(statements(() -> productsRepository.findByName("cache-product-1"))).isEmpty();
+		assertThat(statements(() -> productsRepository.findById(product[0].getId().toString()))).isEmpty();
+		assertThat(statements(() -> productsRepository.findByName("missing-product"))).as("nome inexistente não é cacheado").isNotEmpty();
+	}
+
+	@Test
+	void stockUpdateEvictsOnlyTheClaimedProduct() {
+		UUID id = productsRepository.findByName("cache-product-2").getId();
+		productsRepository.findByName("cache-product-5");
+		userRepository.findByLogin("cache-user-2");
+		assertThat(statements(() -> productsRepository.findByName("cache-product-2"))).isEmpty();
+
+		productsRepository.claimStock(id, 5);
+
+		assertThat(statements(() -> productsRepository.findByName("cache-product-5"))).as("outro produto continua no cache").isEmpty();
+		Products[] product = new Products[1];
+		assertThat(statements(() -> product[0] = productsRepository.findByName("cache-product-2"))).isNotEmpty();
+		assertThat(product[0].getStock()).isEqualTo(95);
+		assertThat(statements(() -> productsRepository.findByName("cache-product-2"))).isEmpty();
+		assertThat(statements(() -> productsRepository.findByName("cache-product-5"))).isEmpty();
+		assertThat(statements(() -> userRepository.findByLogin("cache-user-2"))).isEmpty();
+	}
+
+	@Test
+	void writeFromAnotherNodeEvictsCachedEntity() {
+		UUID id = productsRepository.findByName("cache-product-4").getId();
+		assertThat(statements(() -> productsRepository.findByName("cache-product-4"))).isEmpty();
+
+		// Escrita fora do Hibernate deste nó, como faria outra instância
+		jdbc.update("UPDATE products SET price = 45 WHERE id = ?", id);
+
+		await().atMost(Duration.ofSeconds(10))
+				.until(() -> productsRepository.findByName("cache-product-4").getPrice().equals(Money.of("45")));
+	}
+
+	@Test
+	void regionStatisticsArePublishedAsMetrics() {
+		productsRepository.findByName("cache-product-3");
+		productsRepository.findByName("cache-product-3");
+
+		double hits = meterRegistry.get("hibernate.second.level.cache.requests")
+				.tags("region", SecondLevelCacheConfiguration.PRODUCTS, "result", "hit").functionCounter().count();
+		assertThat(hits).isPositive();
+		assertThat(meterRegistry.find("hibernate.second.level.cache.puts").tag("region", SecondLevelCacheConfiguration.USERS).functionCounter())
+				.isNotNull();
+	}
+
+	private static List<RecordedStatement> statements(Runnable lookup) {
+		RECORDER.start();
+		try {
+			lookup.run();
+		} finally {
+			return RECORDER.stop();
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package com.app2.productsCatalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.app2.productsCatalog.domain.products.ProductView;
+import com.app2.productsCatalog.infra.snapshot.CatalogSnapshotReader;
+import com.app2.productsCatalog.support.CatalogFixtures;
+import com.app2.productsCatalog.support.EmbeddedPostgresSupport;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Ciclo do snapshot do catálogo: gravação na reconciliação, leitura na
+ * inicialização, descarte quando o catálogo muda e regravação.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(OrderAnnotation.class)
+class CatalogSnapshotServiceTest {
+
+	private static Path directory;
+
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) throws IOException {
+		EmbeddedPostgresSupport.register(registry);
+		directory = Files.createTempDirectory("catalog-snapshot");
+		registry.add("catalog.snapshot.enabled", () -> "true");
+		registry.add("catalog.snapshot.path", () -> directory.resolve("catalog.snapshot").toString());
+	}
+
+	@Autowired
+	private CatalogSnapshotService service;
+
+	@Autowired
+	private ProductsService productsService;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeAll
+	void seed() {
+		CatalogFixtures.seedProducts(jdbc, "snapshot-product", 50);
+	}
+
+	@Test
+	@Order(1)
+	void reconciliationWritesTheCurrentCatalog() throws IOException {
+		service.reconcile();
+
+		CatalogSnapshotReader snapshot = new CatalogSnapshotReader(snapshotPath());
+		assertThat(snapshot.catalogVersion()).isEqualTo(catalogVersion());
+		assertThat(snapshot.products()).containsExactlyElementsOf(productsService.showProducts());
+		assertThat(service.serving()).isNull();
+	}
+
+	@Test
+	@Order(2)
+	void servesTheSnapshotOnStartupUntilTheCatalogChanges() throws IOException {
+		List<ProductView> expected = new CatalogSnapshotReader(snapshotPath()).products();
+
+		restart();
+
+		assertThat(service.serving()).hasSize(expected.size());
+		assertThat(productsService.showProducts()).containsExactlyElementsOf(expected);
+
+		jdbc.update("UPDATE products SET price = 1000 WHERE name = 'snapshot-product-7'");
+		await().atMost(Duration.ofSeconds(10)).until(() -> service.serving() == null);
+	}
+
+	@Test
+	@Order(3)
+	void reconciliationRewritesAStaleSnapshot() throws IOException {
+		double writes = meterRegistry.counter("catalog.snapshot.writes").count();
+		restart();
+
+		service.reconcile();
+
+		assertThat(meterRegistry.counter("catalog.snapshot.writes").count()).isEqualTo(writes + 1);
+		assertThat(new CatalogSnapshotReader(snapshotPath()).catalogVersion()).isEqualTo(catalogVersion());
+		assertThat(service.serving()).isNull();
+	}
+
+	@Test
+	@Order(4)
+	void stockMovementsDoNotChangeTheCatalogVersion() {
+		long before = catalogVersion();
+
+		jdbc.update("UPDATE products SET stock = stock - 1 WHERE name = 'snapshot-product-9'");
+
+		assertThat(catalogVersion()).isEqualTo(before);
+	}
+
+	@Test
+	@Order(5)
+	void refreshRewritesTheStockEvenWithoutANewVersion() throws IOException {
+		jdbc.update("UPDATE products SET stock = 123 WHERE name = 'snapshot-product-9'");
+
+		service.refresh();
+
+		assertThat(new CatalogSnapshotReader(snapshotPath()).products())
+				.filteredOn(product -> product.name().equals("snapshot-product-9"))
+				.singleElement().extracting(ProductView::stock).isEqualTo(123);
+	}
+
+	@Test
+	@Order(6)
+	void ignoresASnapshotOlderThanTheMaximumAge() {
+		ReflectionTestUtils.setField(service, "maxAge", Duration.ZERO);
+		try {
+			restart();
+			assertThat(service.serving()).isNull();
+		} finally {
+			ReflectionTestUtils.setField(service, "maxAge", Duration.ofMinutes(15));
+		}
+	}
+
+	@Test
+	@Order(7)
+	void ignoresACorruptedSnapshot() throws IOException {
+		byte[] bytes = Files.readAllBytes(snapshotPath());
+		bytes[bytes.length - 1] ^= 0x01;
+		Files.write(snapshotPath(), bytes);
+
+		assertThatThrownBy(() -> new CatalogSnapshotReader(snapshotPath())).isInstanceOf(IOException.class);
+		restart();
+		assertThat(service.serving()).isNull();
+	}
+
+	// Repete a carga da inicialização sobre o arquivo atual
+	private void restart() {
+		ReflectionTestUtils.setField(service, "writtenVersion", -1L);
+		ReflectionTestUtils.invokeMethod(service, "load");
+	}
+
+	private long catalogVersion() {
+		return jdbc.queryForObject("SELECT version FROM catalog_version", Long.class);
+	}
+
+	private static Path snapshotPath() {
+		return directory.resolve("catalog.snapshot");
+	}
+}
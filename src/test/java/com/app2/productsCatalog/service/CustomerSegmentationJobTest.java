@@ -0,0 +1,127 @@
+package com.app2.productsCatalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.app2.productsCatalog.infra.id.UuidV7Generator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * O job lê {@code chart} inteira, então usa um banco próprio em vez do
+ * compartilhado pelos demais testes.
+ */
+class CustomerSegmentationJobTest {
+
+	private static EmbeddedPostgres postgres;
+	private static JdbcTemplate jdbc;
+
+	private CustomerSegmentationJob job;
+
+	@BeforeAll
+	static void migrate() throws IOException {
+		postgres = EmbeddedPostgres.start();
+		Flyway.configure().dataSource(postgres.getPostgresDatabase()).load().migrate();
+		jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+	}
+
+	@AfterAll
+	static void stop() throws IOException {
+		postgres.close();
+	}
+
+	@BeforeEach
+	void createJob() {
+		jdbc.update("DELETE FROM chart");
+		jdbc.update("DELETE FROM customer_segments");
+		job = new CustomerSegmentationJob();
+		ReflectionTestUtils.setField(job, "dataSource", postgres.getPostgresDatabase());
+		ReflectionTestUtils.setField(job, "transactionManager", new DataSourceTransactionManager(postgres.getPostgresDatabase()));
+		ReflectionTestUtils.setField(job, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(job, "partitions", 16);
+		ReflectionTestUtils.setField(job, "parallelism", 2);
+		ReflectionTestUtils.setField(job, "fetchSize", 100);
+		ReflectionTestUtils.setField(job, "batchSize", 50);
+		job.init();
+	}
+
+	@Test
+	void writesTheScoresAndSegmentsOfTheSeededHistory() {
+		// Cliente k (1 a 5): k compras de k × 10, a última há (6 − k) × 5 dias. R = F = M = k
+		Instant now = Instant.now();
+		List<UUID> users = new ArrayList<>();
+		for (int k = 1; k <= 5; k++) {
+			UUID user = UuidV7Generator.next();
+			users.add(user);
+			Instant last = now.minus(Duration.ofDays((6 - k) * 5L)).minus(Duration.ofHours(1));
+			for (int i = 0; i < k; i++) {
+				jdbc.update("INSERT INTO chart (user_id, qtd_itens, total_value, created_at) VALUES (?, 1, ?, ?)",
+						user, k * 10, Timestamp.from(last.minus(Duration.ofHours(i))));
+			}
+		}
+
+		assertThat(job.run()).isTrue();
+
+		for (int k = 1; k <= 5; k++) {
+			Map<String, Object> row = jdbc.queryForMap("SELECT * FROM customer_segments WHERE user_id = ?", users.get(k - 1));
+			assertThat(row.get("recency_days")).isEqualTo((6 - k) * 5);
+			assertThat(row.get("frequency")).isEqualTo((long) k);
+			assertThat((BigDecimal) row.get("monetary")).isEqualByComparingTo(BigDecimal.valueOf(k * k * 10L));
+			assertThat(List.of(row.get("r_score"), row.get("f_score"), row.get("m_score")))
+					.containsOnly(k);
+		}
+		assertThat(jdbc.queryForList("SELECT segment FROM customer_segments ORDER BY f_score", String.class))
+				.containsExactly("HIBERNATING", "HIBERNATING", "REGULAR", "CHAMPIONS", "CHAMPIONS");
+	}
+
+	@Test
+	void aSecondRunUpdatesTheExistingRows() {
+		UUID user = UuidV7Generator.next();
+		jdbc.update("INSERT INTO chart (user_id, qtd_itens, total_value) VALUES (?, 1, 10)", user);
+		job.run();
+		jdbc.update("INSERT INTO chart (user_id, qtd_itens, total_value) VALUES (?, 1, 15)", user);
+
+		job.run();
+
+		assertThat(jdbc.queryForObject("SELECT count(*) FROM customer_segments", Integer.class)).isEqualTo(1);
+		assertThat(jdbc.queryForObject("SELECT monetary FROM customer_segments WHERE user_id = ?", BigDecimal.class, user))
+				.isEqualByComparingTo("25.00");
+	}
+
+	@Test
+	void uuidV7UsersCreatedTogetherAreSpreadAcrossPartitions() {
+		// Gerados no mesmo instante: os bits altos (timestamp) são praticamente iguais
+		List<UUID> users = new ArrayList<>();
+		for (int i = 0; i < 1_024; i++) users.add(UuidV7Generator.next());
+		jdbc.batchUpdate("INSERT INTO chart (user_id, qtd_itens, total_value) VALUES (?, 1, 10)", users, users.size(),
+				(ps, user) -> ps.setObject(1, user));
+
+		int total = 0;
+		for (int p = 0; p < 16; p++) {
+			int size = job.scan(p).size();
+			// Média de 64 por partição
+			assertThat(size).isBetween(20, 130);
+			total += size;
+		}
+		assertThat(total).isEqualTo(users.size());
+	}
+}
@@ -0,0 +1,119 @@
+package com.app2.productsCatalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.app2.productsCatalog.domain.money.Money;
+import com.app2.productsCatalog.repository.UserPurchaseSummaryRepository.SummaryMismatch;
+import com.app2.productsCatalog.support.EmbeddedPostgresSupport;
+
+/**
+ * Incremento, reconstrução e verificação do resumo de compras contra o
+ * histórico em {@code chart}. O banco é compartilhado com os demais testes,
+ * então as verificações olham só os usuários criados aqui.
+ */
+@SpringBootTest(properties = "purchase-summary.include-archived=false")
+class PurchaseSummaryServiceTest {
+
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		EmbeddedPostgresSupport.register(registry);
+	}
+
+	@Autowired
+	private PurchaseSummaryService service;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void recordAccumulatesItemsValueAndPurchaseCount() {
+		UUID user = UUID.randomUUID();
+
+		service.record(user, 2, Money.of("10.50"));
+		service.record(user, 3, Money.of("4.25"));
+
+		Map<String, Object> summary = summary(user);
+		assertThat(summary.get("total_items")).isEqualTo(5L);
+		assertThat((BigDecimal) summary.get("total_value")).isEqualByComparingTo("14.75");
+		assertThat(summary.get("purchase_count")).isEqualTo(2L);
+	}
+
+	@Test
+	void backfillRewritesTotalsAndRemovesUsersWithoutHistory() {
+		UUID buyer = UUID.randomUUID();
+		UUID gone = UUID.randomUUID();
+		purchase(buyer, 2, "10.00");
+		purchase(buyer, 1, "5.00");
+		summarize(buyer, 99, "1.00");
+		summarize(gone, 4, "40.00");
+
+		service.backfill();
+
+		Map<String, Object> summary = summary(buyer);
+		assertThat(summary.get("total_items")).isEqualTo(3L);
+		assertThat((BigDecimal) summary.get("total_value")).isEqualByComparingTo("15.00");
+		assertThat(summary.get("purchase_count")).isEqualTo(2L);
+		assertThat(count(gone)).isZero();
+		assertThat(mismatches(buyer, gone)).isEmpty();
+	}
+
+	@Test
+	void verifyReportsDriftMissingAndOrphanedUsers() {
+		UUID consistent = UUID.randomUUID();
+		UUID drifted = UUID.randomUUID();
+		UUID missing = UUID.randomUUID();
+		UUID orphaned = UUID.randomUUID();
+		purchase(consistent, 1, "10.00");
+		summarize(consistent, 1, "10.00");
+		purchase(drifted, 2, "20.00");
+		summarize(drifted, 2, "19.99");
+		purchase(missing, 1, "5.00");
+		summarize(orphaned, 1, "5.00");
+
+		List<SummaryMismatch> mismatches = mismatches(consistent, drifted, missing, orphaned);
+
+		assertThat(mismatches).extracting(SummaryMismatch::getUserId).containsExactlyInAnyOrder(drifted, missing, orphaned);
+		SummaryMismatch drift = mismatches.stream().filter(m -> m.getUserId().equals(drifted)).findFirst().orElseThrow();
+		assertThat(drift.getSummaryValue()).isEqualByComparingTo("19.99");
+		assertThat(drift.getActualValue()).isEqualByComparingTo("20.00");
+		SummaryMismatch absent = mismatches.stream().filter(m -> m.getUserId().equals(missing)).findFirst().orElseThrow();
+		assertThat(absent.getSummaryItems()).isNull();
+		assertThat(absent.getActualItems()).isEqualTo(1L);
+	}
+
+	private List<SummaryMismatch> mismatches(UUID... users) {
+		List<UUID> ours = List.of(users);
+		return service.verify().stream().filter(m -> ours.contains(m.getUserId())).toList();
+	}
+
+	private void purchase(UUID user, int items, String value) {
+		jdbc.update("INSERT INTO chart (user_id, qtd_itens, total_value) VALUES (?, ?, ?)", user, items, new BigDecimal(value));
+	}
+
+	private void summarize(UUID user, long items, String value) {
+		jdbc.update("""
+				INSERT INTO user_purchase_summary (user_id, total_items, total_value, purchase_count, last_purchase_at)
+				VALUES (?, ?, ?, 1, now())
+				""", user, items, new BigDecimal(value));
+	}
+
+	private Map<String, Object> summary(UUID user) {
+		return jdbc.queryForMap("SELECT total_items, total_value, purchase_count FROM user_purchase_summary WHERE user_id = ?", user);
+	}
+
+	private int count(UUID user) {
+		return jdbc.queryForObject("SELECT count(*) FROM user_purchase_summary WHERE user_id = ?", Integer.class, user);
+	}
+}
@@ -0,0 +1,73 @@
+package com.app2.productsCatalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app2.productsCatalog.domain.money.Money;
+import com.app2.productsCatalog.domain.sales.SalesBucket;
+import com.app2.productsCatalog.domain.sales.SalesBucketSize;
+import com.app2.productsCatalog.support.EmbeddedPostgresSupport;
+
+/**
+ * Vendas registradas chegam às linhas horárias e diárias de
+ * {@code sales_rollups} no flush; as de transações desfeitas não contam.
+ * Cada teste usa um dia distante próprio, sem vendas dos demais testes.
+ */
+@SpringBootTest(properties = "sales.rollup.flush-interval-ms=3600000")
+class SalesRollupServiceTest {
+
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		EmbeddedPostgresSupport.register(registry);
+	}
+
+	@Autowired
+	private SalesRollupService service;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void flushAddsMinutesToHourlyAndDailyBuckets() {
+		Instant day = Instant.parse("2031-03-04T00:00:00Z");
+		service.record(day.plusSeconds(10 * 3600 + 60), 2, Money.of("10.00"));
+		service.record(day.plusSeconds(10 * 3600 + 1800), 1, Money.of("5.50"));
+		service.record(day.plusSeconds(11 * 3600), 3, Money.of("1.00"));
+		service.flush();
+		// Um segundo flush soma ao que já foi gravado
+		service.record(day.plusSeconds(10 * 3600 + 3599), 1, Money.of("0.50"));
+		service.flush();
+
+		List<SalesBucket> hours = service.buckets(day, day.plusSeconds(86_400), SalesBucketSize.HOUR);
+		assertThat(hours).containsExactly(
+				new SalesBucket(day.plusSeconds(10 * 3600), 3, 4, Money.of("16.00")),
+				new SalesBucket(day.plusSeconds(11 * 3600), 1, 3, Money.of("1.00")));
+		assertThat(service.buckets(day, day.plusSeconds(86_400), SalesBucketSize.DAY))
+				.containsExactly(new SalesBucket(day, 4, 7, Money.of("17.00")));
+	}
+
+	@Test
+	void salesOfRolledBackTransactionsAreNotCounted() {
+		Instant day = Instant.parse("2031-03-05T00:00:00Z");
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.executeWithoutResult(status -> service.record(day.plusSeconds(60), 1, Money.of("9.99")));
+		transaction.executeWithoutResult(status -> {
+			service.record(day.plusSeconds(120), 5, Money.of("50.00"));
+			status.setRollbackOnly();
+		});
+		service.flush();
+
+		assertThat(service.buckets(day, day.plusSeconds(86_400), SalesBucketSize.DAY))
+				.containsExactly(new SalesBucket(day, 1, 1, Money.of("9.99")));
+	}
+}
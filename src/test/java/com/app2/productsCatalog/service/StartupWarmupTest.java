@@ -0,0 +1,97 @@
+package com.app2.productsCatalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.CompositeHealth;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.app2.productsCatalog.infra.health.WarmupHealthIndicator;
+import com.app2.productsCatalog.support.EmbeddedPostgresSupport;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Aquecimento na inicialização com o servidor HTTP no ar e o readiness que depende dele.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class StartupWarmupTest {
+
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		EmbeddedPostgresSupport.register(registry);
+		registry.add("warmup.enabled", () -> "true");
+		registry.add("warmup.iterations", () -> "20");
+		registry.add("warmup.connections", () -> "4");
+	}
+
+	@Autowired
+	private StartupWarmup warmup;
+
+	@Autowired
+	private TestRestTemplate rest;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private HikariDataSource primaryDataSource;
+
+	@Autowired
+	private HealthEndpoint healthEndpoint;
+
+	@Test
+	void readinessWaitsForTheWarmup() {
+		await().atMost(Duration.ofSeconds(30)).until(() -> warmup.outcome() != null);
+
+		assertThat(warmup.outcome()).isEqualTo("completed");
+		assertThat(meterRegistry.timer("warmup.duration", "outcome", "completed").count()).isEqualTo(1);
+		assertThat(primaryDataSource.getHikariPoolMXBean().getTotalConnections()).isGreaterThanOrEqualTo(4);
+
+		ResponseEntity<String> readiness = rest.getForEntity("/actuator/health/readiness", String.class);
+		assertThat(readiness.getStatusCode()).isEqualTo(HttpStatus.OK);
+		// Anônimo vê só o status; o indicador faz parte do grupo mesmo assim
+		assertThat(readiness.getBody()).doesNotContain("\"warmup\"");
+		HealthComponent group = healthEndpoint.healthForPath("readiness");
+		assertThat(((CompositeHealth) group).getComponents()).containsKey("warmup");
+	}
+
+	@Test
+	void outOfServiceWhileRunningAndUpAfterTheTimeout() {
+		StartupWarmup running = new StartupWarmup();
+		ReflectionTestUtils.setField(running, "enabled", true);
+		ReflectionTestUtils.setField(running, "deadline", Instant.now().plusSeconds(60));
+		CatalogSnapshotService snapshot = new CatalogSnapshotService();
+		WarmupHealthIndicator indicator = new WarmupHealthIndicator();
+		ReflectionTestUtils.setField(indicator, "warmup", running);
+		ReflectionTestUtils.setField(indicator, "catalogSnapshot", snapshot);
+
+		assertThat(indicator.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+		// Com o catálogo vindo do snapshot a instância recebe tráfego durante o aquecimento
+		ReflectionTestUtils.setField(snapshot, "serving", List.of());
+		assertThat(indicator.health().getStatus()).isEqualTo(Status.UP);
+		ReflectionTestUtils.setField(snapshot, "serving", null);
+
+		ReflectionTestUtils.setField(running, "deadline", Instant.now().minusSeconds(1));
+		assertThat(indicator.health().getStatus()).isEqualTo(Status.UP);
+		assertThat(indicator.health().getDetails()).containsEntry("warmup", "timed out");
+	}
+}
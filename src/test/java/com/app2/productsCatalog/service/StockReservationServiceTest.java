@@ -0,0 +1,106 @@
+package com.app2.productsCatalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.app2.productsCatalog.support.EmbeddedPostgresSupport;
+
+/**
+ * Reservas concorrentes com a reconciliação rodando ao mesmo tempo: nunca se
+ * vende mais do que o estoque, e ao final o banco reflete exatamente o vendido.
+ */
+@SpringBootTest(properties = { "stock.reservation.batch-size=8", "stock.reservation.reconcile-interval-ms=3600000" })
+class StockReservationServiceTest {
+
+	private static final int STOCK = 500;
+
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		EmbeddedPostgresSupport.register(registry);
+	}
+
+	@Autowired
+	private StockReservationService service;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void concurrentReservationsAndReconciliationNeverOversell() throws Exception {
+		UUID product = product(STOCK);
+		int threads = 12;
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicBoolean selling = new AtomicBoolean(true);
+		ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+		try {
+			Future<?> reconciler = executor.submit(() -> {
+				start.await();
+				while (selling.get()) service.reconcile();
+				return null;
+			});
+			List<Future<Integer>> buyers = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				buyers.add(executor.submit(() -> {
+					start.await();
+					int units = 0;
+					for (int i = 0; i < 60; i++) {
+						int quantity = 1 + i % 2;
+						if (service.reserve(product, quantity)) units += quantity;
+					}
+					return units;
+				}));
+			}
+			start.countDown();
+
+			int sold = 0;
+			for (Future<Integer> buyer : buyers) sold += buyer.get(60, TimeUnit.SECONDS);
+			selling.set(false);
+			reconciler.get(30, TimeUnit.SECONDS);
+			service.reconcile();
+
+			assertThat(sold).isLessThanOrEqualTo(STOCK);
+			assertThat(stock(product)).isEqualTo(STOCK - sold);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void refusesOnceTheStockIsExhausted() {
+		UUID product = product(3);
+
+		assertThat(service.reserve(product, 2)).isTrue();
+		assertThat(service.reserve(product, 2)).isFalse();
+		assertThat(service.reserve(product, 1)).isTrue();
+		service.reconcile();
+		assertThat(stock(product)).isZero();
+	}
+
+	private UUID product(int stock) {
+		return jdbc.queryForObject("""
+				INSERT INTO products (name, image_url, price, stock)
+				VALUES ('reservation-product-' || gen_random_uuid(), null, 9.90, ?)
+				RETURNING id
+				""", UUID.class, stock);
+	}
+
+	private int stock(UUID product) {
+		return jdbc.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, product);
+	}
+}
@@ -0,0 +1,24 @@
+package com.app2.productsCatalog.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Produtos de teste no banco de {@link EmbeddedPostgresSupport}.
+ */
+public final class CatalogFixtures {
+
+	private CatalogFixtures() {}
+
+	/**
+	 * Insere {@code prefix-1} a {@code prefix-count}, com preço {@code g + 0.99} e
+	 * estoque {@code g}; só os pares têm imagem, para que as codificações passem
+	 * também por campos nulos.
+	 */
+	public static void seedProducts(JdbcTemplate jdbc, String prefix, int count) {
+		jdbc.update("""
+				INSERT INTO products (name, image_url, price, stock)
+				SELECT ? || '-' || g, CASE WHEN g % 2 = 0 THEN 'https://example.com/' || g END, g + 0.99, g
+				FROM generate_series(1, ?) g
+				""", prefix, count);
+	}
+}
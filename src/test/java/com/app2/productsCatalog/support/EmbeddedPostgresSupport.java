@@ -0,0 +1,48 @@
+package com.app2.productsCatalog.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * PostgreSQL embarcado compartilhado pelos testes que sobem o contexto da aplicação.
+ *
+ * Uso: {@code @DynamicPropertySource static void database(DynamicPropertyRegistry r) { EmbeddedPostgresSupport.register(r); }}
+ */
+public final class EmbeddedPostgresSupport {
+
+	private static EmbeddedPostgres postgres;
+
+	private EmbeddedPostgresSupport() {}
+
+	public static synchronized EmbeddedPostgres instance() {
+		if (postgres == null) {
+			try {
+				postgres = EmbeddedPostgres.start();
+			} catch (IOException e) {
+				throw new UncheckedIOException("Failed to start embedded PostgreSQL", e);
+			}
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				try {
+					postgres.close();
+				} catch (IOException ignored) {
+				}
+			}));
+		}
+		return postgres;
+	}
+
+	public static void register(DynamicPropertyRegistry registry) {
+		registry.add("DATABASE_URL", () -> instance().getJdbcUrl("postgres", "postgres"));
+		registry.add("DATABASE_USERNAME", () -> "postgres");
+		registry.add("DATABASE_PASSWORD", () -> "");
+		registry.add("JWT_SECRET", () -> "test-secret");
+		// Um contexto não pode subir servindo o snapshot gravado por outro banco
+		registry.add("catalog.snapshot.enabled", () -> "false");
+		// O aquecimento concorre com as contagens de comandos e de cache dos testes
+		registry.add("warmup.enabled", () -> "false");
+	}
+}
@@ -0,0 +1,92 @@
+package com.app2.productsCatalog.support;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import com.app2.productsCatalog.infra.datasource.JdbcProxies;
+
+/**
+ * Envolve um {@link DataSource} e registra o SQL e os parâmetros de cada
+ * {@link PreparedStatement} executado enquanto a gravação está ativa, para
+ * que o comando possa ser repetido depois (por exemplo, com {@code EXPLAIN}).
+ */
+public final class StatementRecorder {
+
+	public record Binding(Method setter, Object[] args) {}
+
+	public record RecordedStatement(String sql, List<Binding> bindings) {
+
+		/**
+		 * Prepara {@code prefix + sql} na conexão e aplica os mesmos parâmetros da execução original.
+		 */
+		public PreparedStatement prepare(Connection connection, String prefix) throws SQLException {
+			PreparedStatement statement = connection.prepareStatement(prefix + sql);
+			for (Binding binding : bindings) {
+				try {
+					binding.setter().invoke(statement, binding.args());
+				} catch (IllegalAccessException | InvocationTargetException e) {
+					throw new SQLException("Failed to replay " + binding.setter().getName(), e);
+				}
+			}
+			return statement;
+		}
+	}
+
+	private final List<RecordedStatement> recorded = new ArrayList<>();
+	private volatile boolean recording;
+
+	public DataSource wrap(DataSource dataSource) {
+		return JdbcProxies.proxy(DataSource.class, dataSource, (target, method, args) -> {
+			Object result = method.invoke(target, args);
+			return result instanceof Connection connection ? wrap(connection) : result;
+		});
+	}
+
+	public void start() {
+		synchronized (recorded) {
+			recorded.clear();
+		}
+		recording = true;
+	}
+
+	public List<RecordedStatement> stop() {
+		recording = false;
+		synchronized (recorded) {
+			return List.copyOf(recorded);
+		}
+	}
+
+	private Connection wrap(Connection connection) {
+		return JdbcProxies.proxy(Connection.class, connection, (target, method, args) -> {
+			Object result = method.invoke(target, args);
+			if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+				return wrap(statement, (String) args[0]);
+			}
+			return result;
+		});
+	}
+
+	private PreparedStatement wrap(PreparedStatement statement, String sql) {
+		List<Binding> bindings = new ArrayList<>();
+		return JdbcProxies.proxy(PreparedStatement.class, statement, (target, method, args) -> {
+			String name = method.getName();
+			if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+				bindings.add(new Binding(method, args.clone()));
+			} else if (name.equals("clearParameters")) {
+				bindings.clear();
+			} else if (recording && name.startsWith("execute") && (args == null || args.length == 0)) {
+				synchronized (recorded) {
+					recorded.add(new RecordedStatement(sql, List.copyOf(bindings)));
+				}
+			}
+			return method.invoke(target, args);
+		});
+	}
+}